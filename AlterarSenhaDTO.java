@@ -0,0 +1,14 @@
+package br.unitins.topicos1.prancha.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public record AlterarSenhaDTO(
+
+    @NotNull(message = "A senha atual é obrigatória")
+    String senhaAtual,
+
+    @NotBlank(message = "A nova senha é obrigatória")
+    String novaSenha
+
+) {}
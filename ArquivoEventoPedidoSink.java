@@ -0,0 +1,46 @@
+package br.unitins.topicos1.prancha.service;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import br.unitins.topicos1.prancha.dto.EventoPedidoDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+// grava cada evento como uma linha json no fim de um arquivo (pedidos.outbox.arquivo)
+@ApplicationScoped
+public class ArquivoEventoPedidoSink implements EventoPedidoSink {
+
+    public static final String ID = "arquivo";
+
+    @ConfigProperty(name = "pedidos.outbox.arquivo", defaultValue = "eventos-pedido.jsonl")
+    String arquivo;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    // o lote inteiro vai numa escrita só
+    @Override
+    public synchronized void enviar(List<EventoPedidoDTO> eventos) {
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(arquivo), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (EventoPedidoDTO evento : eventos) {
+                writer.write(objectMapper.writeValueAsString(evento));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar eventos de pedido em " + arquivo, e);
+        }
+    }
+}
@@ -2,16 +2,25 @@ package br.unitins.topicos1.prancha.resource;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status;
+import br.unitins.topicos1.prancha.dto.AlterarSenhaDTO;
 import br.unitins.topicos1.prancha.dto.AuthDTO;
-import br.unitins.topicos1.prancha.model.Usuario;
-import br.unitins.topicos1.prancha.service.HashService;
+import br.unitins.topicos1.prancha.dto.CredencialDTO;
+import br.unitins.topicos1.prancha.dto.RefreshDTO;
+import br.unitins.topicos1.prancha.dto.RefreshSessaoDTO;
+import br.unitins.topicos1.prancha.exception.ServicoSobrecarregadoException;
 import br.unitins.topicos1.prancha.service.JwtService;
+import br.unitins.topicos1.prancha.service.RefreshTokenStore;
 import br.unitins.topicos1.prancha.service.UsuarioService;
+import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
+import jakarta.validation.Valid;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.PATCH;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.SecurityContext;
 import org.jboss.logging.Logger;
 
 @Path("auth")
@@ -21,27 +30,23 @@ public class AuthResource {
 
     private static final Logger LOG = Logger.getLogger(AuthResource.class);
 
-    @Inject
-    HashService hashService;
-
     @Inject
     JwtService jwtService;
 
     @Inject
     UsuarioService usuarioService;
 
+    @Inject
+    RefreshTokenStore refreshTokenStore;
+
     // método para fazer o login 
     @POST
     @Produces(MediaType.TEXT_PLAIN)
     public Response login(AuthDTO dto) {
         LOG.infof("Tentativa de login para o usuário: %s", dto.login());
-        String hash = null;
         try {
-            hash = hashService.getHashSenha(dto.senha()); // gera o hash da senha
-            LOG.debugf("Hash gerado para o usuário %s: %s", dto.login(), hash);
-
-            // procura o usuário
-            Usuario usuario = usuarioService.findByLoginAndSenha(dto.login(), hash);
+            // procura o usuário (logins verificados há pouco tempo vêm do cache, sem gerar o hash de novo)
+            CredencialDTO usuario = usuarioService.autenticar(dto.login(), dto.senha());
 
             if (usuario == null) {
                 LOG.warnf("Falha de login: usuário não encontrado ou senha incorreta para %s", dto.login());
@@ -49,14 +54,57 @@ public class AuthResource {
             }
 
             // gera o token 
-            String token = jwtService.generateJwt(usuario.getLogin(), usuario.getPerfil());
+            String token = jwtService.generateJwt(usuario.login(), usuario.perfil());
             LOG.infof("Login bem-sucedido para o usuário: %s. Token gerado.", dto.login());
 
-            // retorna o token 
-            return Response.ok().header("Authorization", token).build();
+            // retorna o token e o refresh token, usado para renovar o jwt sem mandar a senha de novo
+            return Response.ok()
+                    .header("Authorization", token)
+                    .header("Refresh-Token", refreshTokenStore.emitir(usuario.login(), usuario.perfil()))
+                    .build();
+        } catch (ServicoSobrecarregadoException e) {
+            LOG.warnf("Login recusado por sobrecarga para o usuário: %s", dto.login());
+            throw e; // vira 503 com Retry-After
         } catch (Exception e) {
             LOG.errorf(e, "Erro ao tentar logar o usuário: %s", dto.login());
             return Response.status(Status.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    // troca o refresh token por um jwt novo (o refresh token usado deixa de valer e outro é devolvido)
+    @POST
+    @Path("/refresh")
+    @Produces(MediaType.TEXT_PLAIN)
+    public Response refresh(@Valid RefreshDTO dto) {
+        RefreshSessaoDTO sessao = refreshTokenStore.consumir(dto.refreshToken());
+        if (sessao == null) {
+            LOG.warn("Refresh token inválido, expirado ou já utilizado");
+            return Response.status(Status.UNAUTHORIZED).build();
+        }
+
+        String token = jwtService.generateJwt(sessao.login(), sessao.perfil());
+        LOG.debugf("Jwt renovado para o usuário: %s", sessao.login());
+
+        return Response.ok()
+                .header("Authorization", token)
+                .header("Refresh-Token", refreshTokenStore.emitir(sessao.login(), sessao.perfil()))
+                .build();
+    }
+
+    // logout: revoga o refresh token
+    @POST
+    @Path("/logout")
+    public Response logout(@Valid RefreshDTO dto) {
+        refreshTokenStore.revogar(dto.refreshToken());
+        return Response.noContent().build();
+    }
+
+    // troca a senha do usuário logado
+    @PATCH
+    @Path("/senha")
+    @RolesAllowed({"ADM","USER"})
+    public Response alterarSenha(@Valid AlterarSenhaDTO dto, @Context SecurityContext securityContext) {
+        usuarioService.alterarSenha(securityContext.getUserPrincipal().getName(), dto.senhaAtual(), dto.novaSenha());
+        return Response.noContent().build();
+    }
 }
\ No newline at end of file
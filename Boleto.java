@@ -2,8 +2,11 @@ package br.unitins.topicos1.prancha.model;
 import java.time.LocalDate;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = @Index(name = "idx_boleto_codigo_barras", columnList = "codigoBarras"))
 public class Boleto extends Pagamento {
 
     @Column(length = 60)
@@ -0,0 +1,9 @@
+package br.unitins.topicos1.prancha.dto;
+
+public record CacheEstatisticaDTO (
+
+    long acertos,
+    long faltas,
+    long tamanho
+
+) {}
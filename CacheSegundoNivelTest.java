@@ -0,0 +1,78 @@
+package br.unitins.topicos1.prancha.repository;
+import static org.junit.jupiter.api.Assertions.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.model.TipoQuilha;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class CacheSegundoNivelTest {
+
+    // esse teste usa o banco de teste (R__dados_iniciais.sql) e as estatísticas do hibernate para contar os comandos sql
+    // cada leitura roda numa transação própria, assim só o cache de segundo nível pode evitar a ida ao banco
+
+    private static final Logger LOG = Logger.getLogger(CacheSegundoNivelTest.class);
+
+    @Inject
+    MarcaRepository marcaRepository;
+
+    @Inject
+    ModeloRepository modeloRepository;
+
+    @Inject
+    QuilhaRepository quilhaRepository;
+
+    @Inject
+    TipoQuilhaRepository tipoQuilhaRepository;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    // método auxiliar que conta quantos comandos sql foram preparados durante a ação, numa transação nova
+    private long contarComandos(Runnable acao) {
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+        QuarkusTransaction.requiringNew().run(acao);
+        return stats.getPrepareStatementCount();
+    }
+
+    // buscar pelo id de novo não vai ao banco
+    @Test
+    public void testFindByIdRepetidoNaoUsaSql() {
+        contarComandos(() -> {
+            modeloRepository.findById(1L);
+            quilhaRepository.findById(1L);
+        });
+
+        long repetido = contarComandos(() -> {
+            assertEquals("Fish Classic", modeloRepository.findById(1L).getNome());
+            assertNotNull(modeloRepository.findById(1L).getMarca().getNome());
+            assertNotNull(quilhaRepository.findById(1L).getTipoQuilha().getNome());
+        });
+
+        assertEquals(0, repetido);
+    }
+
+    // as buscas por nome e por tipo de quilha repetidas saem do cache de consultas
+    @Test
+    public void testConsultasRepetidasNaoUsamSql() {
+        Runnable consultas = () -> {
+            assertFalse(marcaRepository.findByNome("Rusty").isEmpty());
+            assertFalse(modeloRepository.findByNome("Fish Classic").isEmpty());
+            TipoQuilha tipo = tipoQuilhaRepository.findById(1L);
+            assertFalse(quilhaRepository.findByTipoQuilha(tipo).isEmpty());
+        };
+
+        long primeira = contarComandos(consultas);
+        long repetida = contarComandos(consultas);
+
+        LOG.infof("Comandos SQL nas consultas do catálogo: primeira = %d, repetida = %d", primeira, repetida);
+        assertTrue(primeira > 0);
+        assertEquals(0, repetida);
+        assertTrue(sessionFactory.getStatistics().getQueryCacheHitCount() >= 3);
+    }
+}
@@ -1,8 +1,11 @@
 package br.unitins.topicos1.prancha.model;
 import java.time.LocalDate;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = @Index(name = "idx_cartao_numero", columnList = "numeroCartao"))
 public class Cartao extends Pagamento {
 
     private String numeroCartao;
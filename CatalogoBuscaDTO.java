@@ -0,0 +1,19 @@
+package br.unitins.topicos1.prancha.dto;
+import java.util.List;
+
+public record CatalogoBuscaDTO (
+
+    String termo,
+
+    // marcas, modelos, quilhas e tipos de quilha juntos, do mais relevante para o menos relevante
+    List<CatalogoItemDTO> itens,
+
+    // true quando nenhum nome contém o termo e os itens são os nomes parecidos com ele (provável erro de digitação)
+    boolean aproximado,
+    int page,
+    int size,
+
+    // true quando existe pelo menos mais um resultado depois desta página
+    boolean temMais
+
+) {}
@@ -0,0 +1,94 @@
+package br.unitins.topicos1.prancha.repository;
+import java.util.List;
+import br.unitins.topicos1.prancha.dto.CatalogoItemDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+@ApplicationScoped
+public class CatalogoBuscaRepository {
+
+    // primeiro passo da busca: nomes que contêm o termo (LIKE '%termo%', usa o índice de trigramas)
+    // nome igual vale 3, começando com o termo 2, contendo o termo 1; o empate é resolvido pelo nome
+    private static final String RAMO_CONTEM = "(SELECT '%2$s' AS tipo, t.id, t.%1$s AS nome, "
+            + "CASE WHEN lower(t.%1$s) = :termo THEN 3 WHEN lower(t.%1$s) LIKE :prefixo THEN 2 ELSE 1 END AS relevancia "
+            + "FROM %3$s t WHERE lower(t.%1$s) LIKE :contem "
+            + "ORDER BY relevancia DESC, nome, t.id LIMIT :maximo)";
+
+    // segundo passo, só quando nenhum nome contém o termo (erro de digitação): nomes com uma palavra parecida
+    // (operador <% do pg_trgm, também pelo índice), a relevância é a semelhança de 0 a 1
+    private static final String RAMO_PARECIDO = "(SELECT '%2$s' AS tipo, t.id, t.%1$s AS nome, "
+            + "word_similarity(:termo, lower(t.%1$s)) AS relevancia "
+            + "FROM %3$s t WHERE :termo <%% lower(t.%1$s) "
+            + "ORDER BY relevancia DESC, nome, t.id LIMIT :maximo)";
+
+    // cada tabela entra já limitada às primeiras linhas pela relevância, assim a ordenação final junta poucas linhas
+    private static final String SELECT_CONTEM = unir(RAMO_CONTEM);
+    private static final String SELECT_PARECIDO = unir(RAMO_PARECIDO);
+
+    private static final String EXISTE_CONTEM = "SELECT EXISTS (SELECT 1 FROM marca WHERE lower(nome) LIKE :contem) "
+            + "OR EXISTS (SELECT 1 FROM modelo WHERE lower(nome) LIKE :contem) "
+            + "OR EXISTS (SELECT 1 FROM quilha WHERE lower(descricaoQuilha) LIKE :contem) "
+            + "OR EXISTS (SELECT 1 FROM tipoquilha WHERE lower(nome) LIKE :contem)";
+
+    @Inject
+    EntityManager entityManager;
+
+    // busca marcas, modelos, quilhas e tipos de quilha cujo nome contém o termo (já em minúsculas),
+    // do mais relevante para o menos relevante, pulando as primeiras inicio linhas
+    public List<CatalogoItemDTO> buscarContendo(String termo, int inicio, int quantidade) {
+        return itens(buscar(SELECT_CONTEM, termo, inicio, quantidade)
+                .setParameter("prefixo", escaparLike(termo) + "%")
+                .setParameter("contem", contem(termo)));
+    }
+
+    // se algum nome do catálogo contém o termo (para saber se uma página vazia é o fim da busca ou se ela deve ir aos parecidos)
+    public boolean existeContendo(String termo) {
+        return (Boolean) entityManager.createNativeQuery(EXISTE_CONTEM)
+                .setParameter("contem", contem(termo))
+                .getSingleResult();
+    }
+
+    // busca os nomes com alguma palavra parecida com o termo, do mais parecido para o menos parecido
+    public List<CatalogoItemDTO> buscarParecidos(String termo, int inicio, int quantidade) {
+        return itens(buscar(SELECT_PARECIDO, termo, inicio, quantidade));
+    }
+
+    private Query buscar(String sql, String termo, int inicio, int quantidade) {
+        return entityManager.createNativeQuery(sql)
+                .setParameter("termo", termo)
+                .setParameter("inicio", inicio)
+                .setParameter("quantidade", quantidade)
+                .setParameter("maximo", inicio + quantidade);
+    }
+
+    private static String unir(String ramo) {
+        return "SELECT tipo, id, nome, relevancia FROM ("
+                + String.format(ramo, "nome", "MARCA", "marca") + " UNION ALL "
+                + String.format(ramo, "nome", "MODELO", "modelo") + " UNION ALL "
+                + String.format(ramo, "descricaoQuilha", "QUILHA", "quilha") + " UNION ALL "
+                + String.format(ramo, "nome", "TIPO_QUILHA", "tipoquilha")
+                + ") resultado ORDER BY relevancia DESC, nome, tipo, id LIMIT :quantidade OFFSET :inicio";
+    }
+
+    // cada linha é [tipo, id, nome, relevancia]
+    private static List<CatalogoItemDTO> itens(Query query) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> linhas = query.getResultList();
+
+        return linhas.stream()
+                .map(linha -> new CatalogoItemDTO((String) linha[0], ((Number) linha[1]).longValue(),
+                        (String) linha[2], ((Number) linha[3]).doubleValue()))
+                .toList();
+    }
+
+    private static String contem(String termo) {
+        return "%" + escaparLike(termo) + "%";
+    }
+
+    // % e _ digitados pelo usuário são procurados como texto, não como curinga do LIKE
+    private static String escaparLike(String termo) {
+        return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
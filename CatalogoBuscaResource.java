@@ -0,0 +1,29 @@
+package br.unitins.topicos1.prancha.resource;
+import br.unitins.topicos1.prancha.dto.CatalogoBuscaDTO;
+import br.unitins.topicos1.prancha.service.CatalogoBuscaService;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+
+@Path("/catalogo/busca")
+@Produces(MediaType.APPLICATION_JSON)
+public class CatalogoBuscaResource {
+
+    // injetado para chamar a busca por texto do catálogo
+    @Inject
+    CatalogoBuscaService service;
+
+    // busca marcas, modelos, quilhas e tipos de quilha pelo termo digitado na loja (aceita erros de digitação)
+    @GET
+    @RolesAllowed({"ADM","USER"})
+    public CatalogoBuscaDTO buscar(@QueryParam("termo") String termo,
+                                   @QueryParam("page") @DefaultValue("0") int page,
+                                   @QueryParam("size") @DefaultValue("10") int size) {
+        return service.buscar(termo, page, size);
+    }
+}
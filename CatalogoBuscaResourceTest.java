@@ -0,0 +1,88 @@
+package br.unitins.topicos1.prancha.resource;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import br.unitins.topicos1.prancha.dto.CatalogoBuscaDTO;
+import br.unitins.topicos1.prancha.dto.CatalogoItemDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
+import br.unitins.topicos1.prancha.service.CatalogoBuscaService;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class CatalogoBuscaResourceTest {
+
+    // mock serve para testar apenas os endpoints REST do resource, sem depender do banco real
+
+    @Inject
+    CatalogoBuscaResource catalogoBuscaResource; // injeta o resource real
+
+    @Inject
+    CatalogoBuscaService servicoReal; // service real, para os testes que passam pela validação
+
+    @Mock
+    CatalogoBuscaService service; // cria um objeto falso do service
+
+    // substitui o service real pelo service mockado
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this); // inicializa o mock
+        catalogoBuscaResource.service = service;
+    }
+
+    // buscar pelo termo com o perfil user, a página padrão tem 10 itens
+    @Test
+    @TestSecurity(user = "user", roles = {"USER"})
+    public void testBuscar() {
+        when(service.buscar("short", 0, 10)).thenReturn(new CatalogoBuscaDTO("short", List.of(
+            new CatalogoItemDTO("MODELO", 2L, "Short Pro", 2.8),
+            new CatalogoItemDTO("MARCA", 5L, "Shortline", 2.7)
+        ), false, 0, 10, false));
+
+        given()
+        .queryParam("termo", "short")
+        .when()
+        .get("/catalogo/busca")
+        .then()
+        .statusCode(200)
+        .body("itens.size()", is(2))
+        .body("itens[0].tipo", equalTo("MODELO"))
+        .body("itens[0].nome", equalTo("Short Pro"))
+        .body("temMais", is(false));
+    }
+
+    // termo curto demais volta 400
+    @Test
+    @TestSecurity(user = "user", roles = {"USER"})
+    public void testBuscarTermoInvalido() {
+        when(service.buscar("ab", 0, 10)).thenThrow(ValidationException.of("termo", "O termo deve ter entre 3 e 100 caracteres"));
+
+        given()
+        .queryParam("termo", "ab")
+        .when()
+        .get("/catalogo/busca")
+        .then()
+        .statusCode(400);
+    }
+
+    // página enorme não estoura a conta do limite de resultados, volta 400 e não 500
+    @Test
+    @TestSecurity(user = "user", roles = {"USER"})
+    public void testBuscarPaginaMaxima() {
+        catalogoBuscaResource.service = servicoReal;
+
+        given()
+        .queryParam("termo", "abc")
+        .queryParam("page", Integer.MAX_VALUE)
+        .when()
+        .get("/catalogo/busca")
+        .then()
+        .statusCode(400);
+    }
+}
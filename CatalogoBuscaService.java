@@ -0,0 +1,8 @@
+package br.unitins.topicos1.prancha.service;
+import br.unitins.topicos1.prancha.dto.CatalogoBuscaDTO;
+
+public interface CatalogoBuscaService {
+
+    CatalogoBuscaDTO buscar(String termo, int page, int size);
+
+}
@@ -0,0 +1,72 @@
+package br.unitins.topicos1.prancha.service;
+import java.util.List;
+import java.util.Locale;
+import org.jboss.logging.Logger;
+import br.unitins.topicos1.prancha.dto.CatalogoBuscaDTO;
+import br.unitins.topicos1.prancha.dto.CatalogoItemDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
+import br.unitins.topicos1.prancha.repository.CatalogoBuscaRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+@ApplicationScoped
+public class CatalogoBuscaServiceImpl implements CatalogoBuscaService {
+
+    private static final Logger LOG = Logger.getLogger(CatalogoBuscaServiceImpl.class);
+
+    // o índice de trigramas só ajuda a partir de 3 letras; termos maiores que isso não são nomes do catálogo
+    private static final int MIN_TERMO = 3;
+    private static final int MAX_TERMO = 100;
+
+    // tamanho máximo de uma página e até onde a paginação vai (os resultados depois disso são pouco relevantes)
+    private static final int MAX_SIZE = 50;
+    private static final int MAX_RESULTADOS = 500;
+
+    @Inject
+    CatalogoBuscaRepository repository;
+
+    // busca marcas, modelos, quilhas e tipos de quilha pelo termo digitado, do mais relevante para o menos relevante
+    @Override
+    public CatalogoBuscaDTO buscar(String termo, int page, int size) {
+        LOG.debugf("Buscando no catálogo pelo termo: %s", termo);
+
+        // validações nos campos obrigatórios
+        if (termo == null || termo.isBlank()) {
+            LOG.error("Termo da busca não informado.");
+            throw ValidationException.of("termo", "O termo da busca é obrigatório");
+        }
+
+        String normalizado = termo.strip().toLowerCase(Locale.ROOT);
+        if (normalizado.length() < MIN_TERMO || normalizado.length() > MAX_TERMO) {
+            LOG.errorf("Termo da busca com tamanho inválido: %s", normalizado.length());
+            throw ValidationException.of("termo", "O termo deve ter entre " + MIN_TERMO + " e " + MAX_TERMO + " caracteres");
+        }
+        if (page < 0) {
+            LOG.errorf("Página inválida: %s", page);
+            throw ValidationException.of("page", "A página deve ser zero ou maior");
+        }
+        if (size <= 0 || size > MAX_SIZE) {
+            LOG.errorf("Tamanho de página inválido: %s", size);
+            throw ValidationException.of("size", "O tamanho da página deve estar entre 1 e " + MAX_SIZE);
+        }
+        if (((long) page + 1) * size > MAX_RESULTADOS) {
+            LOG.errorf("Página além do limite de resultados: page %s, size %s", page, size);
+            throw ValidationException.of("page", "A busca mostra no máximo os " + MAX_RESULTADOS + " primeiros resultados");
+        }
+
+        // primeiro os nomes que contêm o termo; a busca por semelhança custa mais (compara o termo com cada nome candidato)
+        // e só é feita quando nenhum nome contém o termo. um item a mais é buscado só para saber se existe uma próxima página
+        int inicio = page * size;
+        List<CatalogoItemDTO> itens = repository.buscarContendo(normalizado, inicio, size + 1);
+        boolean aproximado = itens.isEmpty() && (page == 0 || !repository.existeContendo(normalizado));
+        if (aproximado)
+            itens = repository.buscarParecidos(normalizado, inicio, size + 1);
+
+        boolean temMais = itens.size() > size;
+        if (temMais)
+            itens = itens.subList(0, size);
+
+        LOG.debugf("Busca no catálogo pelo termo %s: %s itens na página (aproximado: %s)", normalizado, itens.size(), aproximado);
+        return new CatalogoBuscaDTO(normalizado, itens, aproximado, page, size, temMais);
+    }
+}
@@ -0,0 +1,85 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.dto.CatalogoBuscaDTO;
+import br.unitins.topicos1.prancha.dto.CatalogoItemDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class CatalogoBuscaServiceImplTest {
+
+    // esse teste usa o banco de teste (R__dados_iniciais.sql): marcas Rusty e Mormaii, modelos Fish Classic e Short Pro,
+    // quilhas Tri-Fin padrão e Quad performance, tipos de quilha Tri-Fin, Quad e Single
+
+    @Inject
+    CatalogoBuscaService service;
+
+    // o começo do nome acha o modelo, sem diferenciar maiúsculas
+    @Test
+    public void testBuscarPeloComeco() {
+        CatalogoBuscaDTO busca = service.buscar("  SHORT ", 0, 10);
+
+        assertEquals("short", busca.termo());
+        CatalogoItemDTO primeiro = busca.itens().get(0);
+        assertEquals("MODELO", primeiro.tipo());
+        assertEquals(2L, primeiro.id());
+    }
+
+    // nome igual vem antes de nome que só começa com o termo: o tipo de quilha Quad antes da quilha Quad performance
+    @Test
+    public void testNomeIgualVemPrimeiro() {
+        CatalogoBuscaDTO busca = service.buscar("quad", 0, 10);
+
+        assertFalse(busca.aproximado());
+        assertEquals("TIPO_QUILHA", busca.itens().get(0).tipo());
+        assertEquals("QUILHA", busca.itens().get(1).tipo());
+        assertTrue(busca.itens().get(0).relevancia() > busca.itens().get(1).relevancia());
+    }
+
+    // com erro de digitação nenhum nome contém o termo, a busca vai aos parecidos e ainda acha a marca
+    @Test
+    public void testBuscarParecido() {
+        CatalogoBuscaDTO busca = service.buscar("mormaiii", 0, 10);
+
+        assertTrue(busca.aproximado());
+        assertEquals("MARCA", busca.itens().get(0).tipo());
+        assertEquals(2L, busca.itens().get(0).id());
+    }
+
+    // uma página depois da última dos nomes que contêm o termo vem vazia, não com os parecidos
+    @Test
+    public void testFimDaBusca() {
+        CatalogoBuscaDTO busca = service.buscar("rusty", 3, 10);
+
+        assertFalse(busca.aproximado());
+        assertTrue(busca.itens().isEmpty());
+        assertFalse(busca.temMais());
+    }
+
+    // paginação: tri-fin aparece no tipo de quilha e na quilha, um por página
+    @Test
+    public void testPaginacao() {
+        CatalogoBuscaDTO primeira = service.buscar("tri-fin", 0, 1);
+        CatalogoBuscaDTO segunda = service.buscar("tri-fin", 1, 1);
+
+        assertEquals(1, primeira.itens().size());
+        assertTrue(primeira.temMais());
+        assertNotEquals(primeira.itens().get(0).tipo(), segunda.itens().get(0).tipo());
+    }
+
+    // % digitado é procurado como texto, não como curinga
+    @Test
+    public void testCuringaComoTexto() {
+        assertTrue(service.buscar("%%%", 0, 10).itens().isEmpty());
+    }
+
+    @Test
+    public void testBuscarInvalido() {
+        assertThrows(ValidationException.class, () -> service.buscar(" ab ", 0, 10));
+        assertThrows(ValidationException.class, () -> service.buscar("short", 0, 0));
+        assertThrows(ValidationException.class, () -> service.buscar("short", 100, 10));
+        assertThrows(ValidationException.class, () -> service.buscar("short", Integer.MAX_VALUE, 10));
+    }
+}
@@ -0,0 +1,90 @@
+package br.unitins.topicos1.prancha.service;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import br.unitins.topicos1.prancha.dto.CacheEstatisticaDTO;
+import br.unitins.topicos1.prancha.dto.PranchaPrecoDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+// cache em memória das pranchas buscadas por id nos pedidos (preço e tipo, sem ir ao banco a cada item)
+// guarda só valores imutáveis (records), nunca entidades: quem precisa da associação usa getReference(id)
+// marca, modelo, quilha e tipo de quilha ficam no cache de segundo nível do hibernate, não aqui
+@ApplicationScoped
+public class CatalogoCache {
+
+    private static final Logger LOG = Logger.getLogger(CatalogoCache.class);
+
+    @ConfigProperty(name = "catalogo.cache.maximum-size", defaultValue = "1000")
+    long tamanhoMaximo;
+
+    @ConfigProperty(name = "catalogo.cache.expire-after-write", defaultValue = "10m")
+    Duration expiracao;
+
+    @Inject
+    TransactionSynchronizationRegistry transacoes;
+
+    private Cache<Long, PranchaPrecoDTO> pranchas;
+
+    @PostConstruct
+    void iniciar() {
+        pranchas = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        LOG.infof("Cache do catálogo iniciado: até %s pranchas, expiração de %s", tamanhoMaximo, expiracao);
+    }
+
+    // busca pelo id no cache, indo ao banco só quando não está lá (prancha inexistente não fica guardada)
+    public PranchaPrecoDTO buscar(Long id, Function<Long, PranchaPrecoDTO> carregar) {
+        if (id == null)
+            return null;
+        return pranchas.get(id, carregar);
+    }
+
+    // busca vários ids de uma vez, os que faltam no cache são carregados juntos numa única chamada
+    public Map<Long, PranchaPrecoDTO> buscarTodos(Collection<Long> ids,
+            Function<Set<? extends Long>, Map<Long, PranchaPrecoDTO>> carregar) {
+        return pranchas.getAll(ids, carregar);
+    }
+
+    // remove uma prancha agora e de novo quando a transação terminar,
+    // assim uma leitura concorrente não deixa no cache a versão anterior ao commit
+    public void invalidar(Long id) {
+        pranchas.invalidate(id);
+        aoConcluir(() -> pranchas.invalidate(id));
+    }
+
+    // acertos, faltas e tamanho do cache
+    public CacheEstatisticaDTO estatisticas() {
+        CacheStats stats = pranchas.stats();
+        return new CacheEstatisticaDTO(stats.hitCount(), stats.missCount(), pranchas.estimatedSize());
+    }
+
+    private void aoConcluir(Runnable acao) {
+        if (transacoes.getTransactionStatus() != Status.STATUS_ACTIVE)
+            return;
+        transacoes.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                acao.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package br.unitins.topicos1.prancha.resource;
+import br.unitins.topicos1.prancha.dto.CacheEstatisticaDTO;
+import br.unitins.topicos1.prancha.service.CatalogoCache;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+@Path("/catalogo/cache")
+@Produces(MediaType.APPLICATION_JSON)
+public class CatalogoCacheResource {
+
+    // injetado para consultar os contadores do cache do catálogo
+    @Inject
+    CatalogoCache cache;
+
+    // acertos e faltas do cache de pranchas
+    @GET
+    @RolesAllowed("ADM")
+    public CacheEstatisticaDTO getEstatisticas() {
+        return cache.estatisticas();
+    }
+}
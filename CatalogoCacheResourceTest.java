@@ -0,0 +1,48 @@
+package br.unitins.topicos1.prancha.resource;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import br.unitins.topicos1.prancha.dto.CacheEstatisticaDTO;
+import br.unitins.topicos1.prancha.service.CatalogoCache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class CatalogoCacheResourceTest {
+
+    // mock serve para testar apenas os endpoints REST do resource, sem depender do cache real
+
+    @Inject
+    CatalogoCacheResource catalogoCacheResource; // injeta o resource real
+
+    @Mock
+    CatalogoCache cache; // cria um objeto falso do cache
+
+    // substitui o cache real pelo cache mockado
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this); // inicializa o mock
+        catalogoCacheResource.cache = cache;
+    }
+
+    // buscar os contadores do cache com o perfil adm
+    @Test
+    @TestSecurity(user = "adm", roles = {"ADM"})
+    public void testGetEstatisticas() {
+        when(cache.estatisticas()).thenReturn(new CacheEstatisticaDTO(10, 2, 2));
+
+        given()
+        .when()
+        .get("/catalogo/cache")
+        .then()
+        .statusCode(200)
+        .body("acertos", is(10))
+        .body("faltas", is(2))
+        .body("tamanho", is(2));
+    }
+}
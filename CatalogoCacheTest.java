@@ -0,0 +1,105 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.dto.EnderecoDTO;
+import br.unitins.topicos1.prancha.dto.ItemPedidoDTO;
+import br.unitins.topicos1.prancha.dto.PedidoDTO;
+import br.unitins.topicos1.prancha.dto.PixDTO;
+import br.unitins.topicos1.prancha.dto.PranchaDTO;
+import br.unitins.topicos1.prancha.dto.PranchaPrecoDTO;
+import br.unitins.topicos1.prancha.model.Habilidade;
+import br.unitins.topicos1.prancha.model.Modelo;
+import br.unitins.topicos1.prancha.model.Prancha;
+import br.unitins.topicos1.prancha.model.Quilha;
+import br.unitins.topicos1.prancha.model.TipoPrancha;
+import br.unitins.topicos1.prancha.repository.PranchaRepository;
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class CatalogoCacheTest {
+
+    // esse teste usa o banco de teste (R__dados_iniciais.sql) e as estatísticas do hibernate para contar os comandos sql
+
+    @Inject
+    CatalogoCache cache;
+
+    @Inject
+    PranchaService pranchaService;
+
+    @Inject
+    PedidoService pedidoService;
+
+    @Inject
+    PranchaRepository pranchaRepository;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    // método auxiliar que busca preço e tipo de uma prancha pelo cache
+    private PranchaPrecoDTO buscarPrancha(Long id) {
+        return cache.buscar(id,
+                idPrancha -> pranchaRepository.findByIdOptional(idPrancha).map(PranchaPrecoDTO::valueOf).orElse(null));
+    }
+
+    // com o cache aquecido, montar os itens do pedido não carrega a prancha do banco (o item só usa a referência)
+    @Test
+    @TestTransaction
+    public void testCreatePedidoUsaCache() {
+        PedidoDTO dto = new PedidoDTO(1L, new EnderecoDTO("Palmas", "TO", "77000000"), "PIX",
+                new PixDTO("joao@pix.com"), null, null, List.of(new ItemPedidoDTO(1L, 2, null)));
+        pedidoService.create(dto); // aquece o cache
+
+        long acertosAntes = cache.estatisticas().acertos();
+        pranchaRepository.getEntityManager().flush();
+        pranchaRepository.getEntityManager().clear();
+
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+        var pedido = pedidoService.create(dto);
+        pranchaRepository.getEntityManager().flush();
+
+        assertEquals(acertosAntes + 1, cache.estatisticas().acertos());
+        assertEquals(0, stats.getEntityStatistics(Prancha.class.getName()).getLoadCount());
+        assertEquals(2 * buscarPrancha(1L).valor(), pedido.valorTotal(), 0.001);
+    }
+
+    // modelo e quilha da prancha vêm do cache de segundo nível do hibernate, sem consulta ao banco
+    @Test
+    @TestTransaction
+    public void testCreatePranchaUsaCacheDoHibernate() {
+        PranchaDTO dto = new PranchaDTO(6.0f, 1500.00, 3, TipoPrancha.FISH, Habilidade.INICIANTE, 1L, 3L, 1L);
+        pranchaService.create(dto); // aquece o cache de segundo nível
+        pranchaRepository.getEntityManager().flush();
+        pranchaRepository.getEntityManager().clear();
+
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+        pranchaService.create(dto);
+
+        assertEquals(0, stats.getEntityStatistics(Modelo.class.getName()).getLoadCount());
+        assertEquals(0, stats.getEntityStatistics(Quilha.class.getName()).getLoadCount());
+        assertTrue(stats.getSecondLevelCacheHitCount() > 0);
+    }
+
+    // alterar uma prancha tira ela do cache, a próxima busca vai ao banco e vê o preço novo
+    @Test
+    @TestTransaction
+    public void testUpdatePranchaInvalidaCache() {
+        PranchaPrecoDTO antes = buscarPrancha(2L);
+        Prancha prancha = pranchaRepository.findById(2L);
+
+        pranchaService.update(2L, new PranchaDTO(prancha.getTamanho(), antes.valor() + 100, prancha.getEstoque(),
+                prancha.getTipoPrancha(), prancha.getHabilidade(), prancha.getModelo().getId(),
+                prancha.getFornecedores().get(0).getId(), prancha.getQuilhas().get(0).getId()));
+        long faltasAntes = cache.estatisticas().faltas();
+
+        PranchaPrecoDTO depois = buscarPrancha(2L);
+        assertEquals(faltasAntes + 1, cache.estatisticas().faltas());
+        assertEquals(antes.valor() + 100, depois.valor());
+    }
+}
@@ -0,0 +1,505 @@
+package br.unitins.topicos1.prancha.service;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import br.unitins.topicos1.prancha.dto.EstoqueReservadoDTO;
+import br.unitins.topicos1.prancha.dto.PranchaBuscaDTO;
+import br.unitins.topicos1.prancha.dto.PranchaFiltroDTO;
+import br.unitins.topicos1.prancha.dto.PranchaResponseDTO;
+import br.unitins.topicos1.prancha.model.Habilidade;
+import br.unitins.topicos1.prancha.model.Prancha;
+import br.unitins.topicos1.prancha.model.Quilha;
+import br.unitins.topicos1.prancha.model.TipoPrancha;
+import br.unitins.topicos1.prancha.repository.PranchaRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+// índice em memória das pranchas para a busca por filtros da loja (mesmo resultado da busca no banco)
+// cada prancha recebe um número sequencial (ordinal) e cada valor de filtro guarda um bitset com os ordinais que o têm,
+// assim um filtro vira um AND entre bitsets e cada faceta é a contagem de bits de uma interseção
+@ApplicationScoped
+public class CatalogoIndice {
+
+    private static final Logger LOG = Logger.getLogger(CatalogoIndice.class);
+
+    @ConfigProperty(name = "catalogo.indice.ativo", defaultValue = "true")
+    boolean ativo;
+
+    @Inject
+    PranchaRepository repository;
+
+    @Inject
+    TransactionSynchronizationRegistry transacoes;
+
+    // o que fica guardado de cada prancha: a resposta pronta, os tipos das quilhas e a versão que ela representa
+    private record Entrada(PranchaResponseDTO prancha, Set<Long> tiposQuilha, long versao) {}
+
+    // leituras em paralelo, alterações uma de cada vez
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // false: o índice é (re)montado a partir do banco na próxima busca
+    private volatile boolean carregado;
+
+    // muda (com o write lock) a cada invalidação e a cada alteração ignorada por o índice não estar carregado;
+    // a carga lê o banco fora do lock e só aplica o que leu se a geração não mudou no meio
+    private volatile long geracao;
+
+    // uma carga de cada vez, as outras buscas esperam por ela
+    private final Object carga = new Object();
+
+    private final List<Entrada> entradas = new ArrayList<>();
+    private final Map<Long, Integer> ordinais = new HashMap<>();
+
+    // ordinais das pranchas que existem (as excluídas deixam o ordinal vazio até a próxima carga)
+    private final BitSet vivas = new BitSet();
+    private final BitSet comEstoque = new BitSet();
+    private final Map<TipoPrancha, BitSet> porTipo = new EnumMap<>(TipoPrancha.class);
+    private final Map<Habilidade, BitSet> porHabilidade = new EnumMap<>(Habilidade.class);
+    private final Map<Long, BitSet> porMarca = new HashMap<>();
+    private final Map<Long, BitSet> porModelo = new HashMap<>();
+    private final Map<Long, BitSet> porTipoQuilha = new HashMap<>();
+
+    // valores e tamanhos ordenados, as faixas são achadas por busca binária
+    private final FaixaOrdenada valores = new FaixaOrdenada();
+    private final FaixaOrdenada tamanhos = new FaixaOrdenada();
+
+    // enquanto os ordinais seguem a ordem dos ids a página sai direto do bitset, sem ordenar
+    private boolean ordemPorId = true;
+
+    public boolean ativo() {
+        return ativo;
+    }
+
+    // mesma busca do PranchaServiceImpl (filtros já validados), respondida só com o que está em memória
+    public PranchaBuscaDTO buscar(PranchaFiltroDTO filtro) {
+        garantirCarregado();
+
+        lock.readLock().lock();
+        try {
+            // todos os filtros menos tipo e habilidade, que entram só na faceta do outro
+            BitSet base = (BitSet) vivas.clone();
+            filtrar(base, porMarca, filtro.idMarca());
+            filtrar(base, porModelo, filtro.idModelo());
+            filtrar(base, porTipoQuilha, filtro.idTipoQuilha());
+            if (filtro.tamanhoMin() != null || filtro.tamanhoMax() != null)
+                base.and(tamanhos.entre(filtro.tamanhoMin(), filtro.tamanhoMax()));
+            if (filtro.valorMin() != null || filtro.valorMax() != null)
+                base.and(valores.entre(filtro.valorMin(), filtro.valorMax()));
+            if (Boolean.TRUE.equals(filtro.emEstoque()))
+                base.and(comEstoque);
+            else if (Boolean.FALSE.equals(filtro.emEstoque()))
+                base.andNot(comEstoque);
+
+            BitSet doTipo = filtro.tipoPrancha() == null ? null : porTipo.getOrDefault(filtro.tipoPrancha(), new BitSet());
+            BitSet daHabilidade = filtro.habilidade() == null ? null : porHabilidade.getOrDefault(filtro.habilidade(), new BitSet());
+
+            Map<TipoPrancha, Long> facetasTipo = new EnumMap<>(TipoPrancha.class);
+            for (TipoPrancha tipo : TipoPrancha.values())
+                facetasTipo.put(tipo, contar(base, porTipo.get(tipo), daHabilidade));
+
+            Map<Habilidade, Long> facetasHabilidade = new EnumMap<>(Habilidade.class);
+            for (Habilidade habilidade : Habilidade.values())
+                facetasHabilidade.put(habilidade, contar(base, porHabilidade.get(habilidade), doTipo));
+
+            BitSet resultado = base;
+            if (doTipo != null)
+                resultado.and(doTipo);
+            if (daHabilidade != null)
+                resultado.and(daHabilidade);
+
+            int total = resultado.cardinality();
+            return new PranchaBuscaDTO(pagina(resultado, filtro.page(), filtro.size()), total,
+                    filtro.page(), filtro.size(), facetasTipo, facetasHabilidade);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // guarda a prancha criada ou alterada, aplicado só quando a transação for confirmada
+    // a resposta é montada agora, com a sessão aberta; a versão é lida depois do commit (já incrementada)
+    public void salvar(Prancha prancha) {
+        if (!ativo)
+            return;
+
+        PranchaResponseDTO dto = PranchaResponseDTO.valueOf(prancha);
+        Set<Long> tiposQuilha = new HashSet<>();
+        if (prancha.getQuilhas() != null)
+            for (Quilha quilha : prancha.getQuilhas())
+                if (quilha.getTipoQuilha() != null)
+                    tiposQuilha.add(quilha.getTipoQuilha().getId());
+
+        depoisDoCommit(() -> alterar(() -> {
+            long versao = prancha.getVersao() == null ? 0 : prancha.getVersao();
+            Integer ordinal = ordinais.get(dto.id());
+            if (ordinal != null && entradas.get(ordinal).versao() > versao)
+                return; // outra transação já deixou aqui uma versão mais nova
+            gravar(new Entrada(dto, tiposQuilha, versao));
+        }));
+    }
+
+    // tira a prancha excluída do índice quando a transação for confirmada
+    public void remover(Long id) {
+        if (!ativo)
+            return;
+        depoisDoCommit(() -> alterar(() -> {
+            Integer ordinal = ordinais.remove(id);
+            if (ordinal != null)
+                limpar(ordinal);
+        }));
+    }
+
+    // grava o estoque que a reserva de um pedido deixou no banco, com a versão que o mesmo update gerou
+    // os valores são absolutos: se o índice já foi lido do banco depois do commit, a versão igual descarta a gravação
+    public void baixarEstoque(Collection<EstoqueReservadoDTO> reservados) {
+        if (!ativo)
+            return;
+        depoisDoCommit(() -> alterar(() -> reservados.forEach(reservado -> {
+            Integer ordinal = ordinais.get(reservado.idPrancha());
+            if (ordinal == null)
+                return;
+            Entrada atual = entradas.get(ordinal);
+            if (atual.versao() >= reservado.versao())
+                return; // o índice já tem esta versão ou uma mais nova
+            PranchaResponseDTO p = atual.prancha();
+            gravar(new Entrada(new PranchaResponseDTO(p.id(), p.tamanho(), p.valor(), reservado.estoque(), p.tipoPrancha(),
+                    p.habilidade(), p.idModelo(), p.modelo(), p.idMarca(), p.marca(), p.fornecedores(), p.quilhas()),
+                    atual.tiposQuilha(), reservado.versao()));
+        })));
+    }
+
+    // manda montar o índice de novo a partir do banco, usado quando muda algo que aparece dentro das pranchas
+    // (nome do modelo ou da marca, quilha, fornecedor)
+    public void recarregar() {
+        if (!ativo)
+            return;
+        depoisDoCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                geracao++;
+                carregado = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // quantidade de pranchas no índice
+    public int tamanho() {
+        garantirCarregado();
+        lock.readLock().lock();
+        try {
+            return vivas.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void garantirCarregado() {
+        if (carregado)
+            return;
+        synchronized (carga) {
+            // depois de algumas tentativas perdidas para alterações, a última lê o banco já com o lock
+            for (int tentativa = 1; !carregado; tentativa++)
+                carregar(tentativa == 3);
+        }
+    }
+
+    // monta o índice inteiro: ordinais na ordem dos ids, uma consulta para as versões e os tipos de quilha e a das respostas
+    // as consultas rodam antes do write lock, que fica só com a montagem em memória
+    private void carregar(boolean travarAntesDeLer) {
+        long inicio = System.nanoTime();
+        Leitura leitura = travarAntesDeLer ? null : ler();
+        lock.writeLock().lock();
+        try {
+            if (leitura == null)
+                leitura = ler();
+            else if (leitura.geracao() != geracao) {
+                LOG.debugf("Índice do catálogo alterado durante a leitura do banco, lendo de novo");
+                return;
+            }
+            montar(leitura);
+            carregado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.infof("Índice do catálogo carregado: %s pranchas em %s ms", entradas.size(),
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    // o que a carga leu do banco e a geração do índice quando a leitura começou
+    private record Leitura(long geracao, List<PranchaResponseDTO> pranchas, Map<Long, Long> versoes,
+            Map<Long, Set<Long>> tiposQuilha) {}
+
+    private Leitura ler() {
+        long lida = geracao;
+        Map<Long, Long> versoes = new HashMap<>();
+        Map<Long, Set<Long>> tiposQuilha = new HashMap<>();
+        for (Object[] linha : repository.findVersoesETiposQuilha()) {
+            versoes.put((Long) linha[0], linha[1] == null ? 0L : (Long) linha[1]);
+            if (linha[2] != null)
+                tiposQuilha.computeIfAbsent((Long) linha[0], id -> new HashSet<>()).add((Long) linha[2]);
+        }
+        return new Leitura(lida, repository.findAllResponse(), versoes, tiposQuilha);
+    }
+
+    // troca o conteúdo do índice pelo que foi lido do banco (com o write lock)
+    // os bitsets são marcados numa passada e as faixas de valor e tamanho são ordenadas uma vez só no final
+    private void montar(Leitura leitura) {
+        List<PranchaResponseDTO> pranchas = leitura.pranchas();
+        entradas.clear();
+        ordinais.clear();
+        vivas.clear();
+        comEstoque.clear();
+        porTipo.clear();
+        porHabilidade.clear();
+        porMarca.clear();
+        porModelo.clear();
+        porTipoQuilha.clear();
+        ordemPorId = true;
+
+        double[] valorDoOrdinal = new double[pranchas.size()];
+        double[] tamanhoDoOrdinal = new double[pranchas.size()];
+        for (PranchaResponseDTO prancha : pranchas) {
+            Entrada entrada = new Entrada(prancha, leitura.tiposQuilha().getOrDefault(prancha.id(), Set.of()),
+                    leitura.versoes().getOrDefault(prancha.id(), 0L));
+            if (!entradas.isEmpty() && prancha.id() < entradas.get(entradas.size() - 1).prancha().id())
+                ordemPorId = false;
+            int ordinal = entradas.size();
+            entradas.add(entrada);
+            ordinais.put(prancha.id(), ordinal);
+            marcar(ordinal, entrada);
+            valorDoOrdinal[ordinal] = prancha.valor();
+            tamanhoDoOrdinal[ordinal] = prancha.tamanho();
+        }
+        valores.montar(valorDoOrdinal, entradas.size());
+        tamanhos.montar(tamanhoDoOrdinal, entradas.size());
+    }
+
+    // coloca a entrada no ordinal da prancha (ou num novo, se ela ainda não está no índice)
+    private void gravar(Entrada entrada) {
+        Long id = entrada.prancha().id();
+        Integer ordinal = ordinais.get(id);
+        if (ordinal == null) {
+            if (!entradas.isEmpty() && id < entradas.get(entradas.size() - 1).prancha().id())
+                ordemPorId = false;
+            ordinal = entradas.size();
+            entradas.add(entrada);
+            ordinais.put(id, ordinal);
+        } else {
+            limpar(ordinal);
+            entradas.set(ordinal, entrada);
+        }
+
+        marcar(ordinal, entrada);
+        valores.adicionar(entrada.prancha().valor(), ordinal);
+        tamanhos.adicionar(entrada.prancha().tamanho(), ordinal);
+    }
+
+    // marca o ordinal nos bitsets de cada filtro que a entrada tem
+    private void marcar(int ordinal, Entrada entrada) {
+        PranchaResponseDTO p = entrada.prancha();
+        vivas.set(ordinal);
+        if (p.estoque() != null && p.estoque() > 0)
+            comEstoque.set(ordinal);
+        if (p.tipoPrancha() != null)
+            porTipo.computeIfAbsent(p.tipoPrancha(), t -> new BitSet()).set(ordinal);
+        if (p.habilidade() != null)
+            porHabilidade.computeIfAbsent(p.habilidade(), h -> new BitSet()).set(ordinal);
+        if (p.idMarca() != null)
+            porMarca.computeIfAbsent(p.idMarca(), m -> new BitSet()).set(ordinal);
+        if (p.idModelo() != null)
+            porModelo.computeIfAbsent(p.idModelo(), m -> new BitSet()).set(ordinal);
+        for (Long tipoQuilha : entrada.tiposQuilha())
+            porTipoQuilha.computeIfAbsent(tipoQuilha, t -> new BitSet()).set(ordinal);
+    }
+
+    // desfaz tudo que a entrada do ordinal marcou
+    private void limpar(int ordinal) {
+        Entrada entrada = entradas.get(ordinal);
+        PranchaResponseDTO p = entrada.prancha();
+        vivas.clear(ordinal);
+        comEstoque.clear(ordinal);
+        if (p.tipoPrancha() != null)
+            porTipo.get(p.tipoPrancha()).clear(ordinal);
+        if (p.habilidade() != null)
+            porHabilidade.get(p.habilidade()).clear(ordinal);
+        if (p.idMarca() != null)
+            porMarca.get(p.idMarca()).clear(ordinal);
+        if (p.idModelo() != null)
+            porModelo.get(p.idModelo()).clear(ordinal);
+        for (Long tipoQuilha : entrada.tiposQuilha())
+            porTipoQuilha.get(tipoQuilha).clear(ordinal);
+        valores.remover(p.valor(), ordinal);
+        tamanhos.remover(p.tamanho(), ordinal);
+    }
+
+    // as alterações só valem para um índice já carregado; se ele ainda não foi montado, a carga lê tudo do banco
+    // (e uma carga que já estava lendo lê de novo, a leitura dela pode ter sido antes desta alteração)
+    private void alterar(Runnable alteracao) {
+        lock.writeLock().lock();
+        try {
+            if (carregado)
+                alteracao.run();
+            else
+                geracao++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // página da busca na ordem dos ids
+    private List<PranchaResponseDTO> pagina(BitSet resultado, int page, int size) {
+        long inicio = (long) page * size;
+        List<PranchaResponseDTO> itens = new ArrayList<>(size);
+
+        if (ordemPorId) {
+            int ordinal = resultado.nextSetBit(0);
+            for (long i = 0; i < inicio && ordinal >= 0; i++)
+                ordinal = resultado.nextSetBit(ordinal + 1);
+            for (; ordinal >= 0 && itens.size() < size; ordinal = resultado.nextSetBit(ordinal + 1))
+                itens.add(entradas.get(ordinal).prancha());
+            return itens;
+        }
+
+        List<PranchaResponseDTO> todas = new ArrayList<>(resultado.cardinality());
+        resultado.stream().forEach(ordinal -> todas.add(entradas.get(ordinal).prancha()));
+        todas.sort((a, b) -> Long.compare(a.id(), b.id()));
+        for (long i = inicio; i < todas.size() && itens.size() < size; i++)
+            itens.add(todas.get((int) i));
+        return itens;
+    }
+
+    private static void filtrar(BitSet base, Map<Long, BitSet> indice, Long id) {
+        if (id == null)
+            return;
+        BitSet comId = indice.get(id);
+        if (comId == null)
+            base.clear();
+        else
+            base.and(comId);
+    }
+
+    // quantos bits estão nos três conjuntos ao mesmo tempo (o terceiro é opcional)
+    private static long contar(BitSet base, BitSet valor, BitSet outroFiltro) {
+        if (valor == null)
+            return 0;
+        BitSet intersecao = (BitSet) base.clone();
+        intersecao.and(valor);
+        if (outroFiltro != null)
+            intersecao.and(outroFiltro);
+        return intersecao.cardinality();
+    }
+
+    // aplica a alteração depois do commit; fora de transação aplica na hora e com rollback não aplica
+    private void depoisDoCommit(Runnable acao) {
+        if (transacoes.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            acao.run();
+            return;
+        }
+        transacoes.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED)
+                    acao.run();
+            }
+        });
+    }
+
+    // pares (valor, ordinal) em arrays primitivos ordenados pelo valor e depois pelo ordinal
+    private static final class FaixaOrdenada {
+
+        private double[] valores = new double[64];
+        private int[] ordinais = new int[64];
+        private int tamanho;
+
+        // monta a faixa de uma vez com o valor de cada ordinal (de 0 a quantidade - 1): os valores distintos são
+        // ordenados, cada par vira um long (posição do valor, ordinal) e os longs são ordenados uma vez só
+        void montar(double[] valorDoOrdinal, int quantidade) {
+            double[] distintos = Arrays.copyOf(valorDoOrdinal, quantidade);
+            Arrays.sort(distintos);
+            int quantidadeDistintos = 0;
+            for (int i = 0; i < quantidade; i++)
+                if (quantidadeDistintos == 0 || Double.compare(distintos[quantidadeDistintos - 1], distintos[i]) != 0)
+                    distintos[quantidadeDistintos++] = distintos[i];
+
+            long[] pares = new long[quantidade];
+            for (int ordinal = 0; ordinal < quantidade; ordinal++)
+                pares[ordinal] = (long) Arrays.binarySearch(distintos, 0, quantidadeDistintos, valorDoOrdinal[ordinal]) << 32
+                        | ordinal;
+            Arrays.sort(pares);
+
+            valores = new double[Math.max(64, quantidade)];
+            ordinais = new int[Math.max(64, quantidade)];
+            for (int i = 0; i < quantidade; i++) {
+                valores[i] = distintos[(int) (pares[i] >>> 32)];
+                ordinais[i] = (int) pares[i];
+            }
+            tamanho = quantidade;
+        }
+
+        void adicionar(double valor, int ordinal) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+                ordinais = Arrays.copyOf(ordinais, tamanho * 2);
+            }
+            int posicao = posicao(valor, ordinal);
+            System.arraycopy(valores, posicao, valores, posicao + 1, tamanho - posicao);
+            System.arraycopy(ordinais, posicao, ordinais, posicao + 1, tamanho - posicao);
+            valores[posicao] = valor;
+            ordinais[posicao] = ordinal;
+            tamanho++;
+        }
+
+        void remover(double valor, int ordinal) {
+            int posicao = posicao(valor, ordinal);
+            if (posicao == tamanho || valores[posicao] != valor || ordinais[posicao] != ordinal)
+                return;
+            System.arraycopy(valores, posicao + 1, valores, posicao, tamanho - posicao - 1);
+            System.arraycopy(ordinais, posicao + 1, ordinais, posicao, tamanho - posicao - 1);
+            tamanho--;
+        }
+
+        // ordinais com valor dentro da faixa, os limites entram (null é faixa aberta daquele lado)
+        BitSet entre(Number minimo, Number maximo) {
+            int de = minimo == null ? 0 : posicao(minimo.doubleValue(), Integer.MIN_VALUE);
+            int ate = maximo == null ? tamanho : posicao(maximo.doubleValue(), Integer.MAX_VALUE);
+            BitSet faixa = new BitSet();
+            for (int i = de; i < ate; i++)
+                faixa.set(ordinais[i]);
+            return faixa;
+        }
+
+        // primeira posição cujo par é maior ou igual a (valor, ordinal)
+        private int posicao(double valor, int ordinal) {
+            int inicio = 0;
+            int fim = tamanho;
+            while (inicio < fim) {
+                int meio = (inicio + fim) >>> 1;
+                int comparacao = Double.compare(valores[meio], valor);
+                if (comparacao < 0 || (comparacao == 0 && ordinais[meio] < ordinal))
+                    inicio = meio + 1;
+                else
+                    fim = meio;
+            }
+            return inicio;
+        }
+    }
+}
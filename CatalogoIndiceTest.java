@@ -0,0 +1,187 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.dto.EstoqueReservadoDTO;
+import br.unitins.topicos1.prancha.dto.ModeloDTO;
+import br.unitins.topicos1.prancha.dto.PranchaBuscaDTO;
+import br.unitins.topicos1.prancha.dto.PranchaDTO;
+import br.unitins.topicos1.prancha.dto.PranchaFiltroDTO;
+import br.unitins.topicos1.prancha.model.Habilidade;
+import br.unitins.topicos1.prancha.model.TipoPrancha;
+import br.unitins.topicos1.prancha.repository.PranchaRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class CatalogoIndiceTest {
+
+    // esse teste grava pranchas de verdade (com commit) para o índice recebê-las, e apaga todas no final
+
+    private static final float[] TAMANHOS = {5.8f, 6.0f, 6.2f, 6.5f, 7.0f, 9.0f};
+    private static final double[] VALORES = {900.00, 1200.00, 1500.00, 1800.00, 2500.00};
+
+    @Inject
+    CatalogoIndice indice;
+
+    @Inject
+    PranchaServiceImpl pranchaService;
+
+    @Inject
+    ModeloService modeloService;
+
+    @Inject
+    PranchaRepository pranchaRepository;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    // método auxiliar que sorteia uma prancha entre os modelos, quilhas e valores da base de teste
+    private PranchaDTO pranchaAleatoria(Random random) {
+        return new PranchaDTO(TAMANHOS[random.nextInt(TAMANHOS.length)], VALORES[random.nextInt(VALORES.length)],
+                random.nextInt(3), TipoPrancha.values()[random.nextInt(TipoPrancha.values().length)],
+                Habilidade.values()[random.nextInt(Habilidade.values().length)],
+                1L + random.nextInt(2), 3L, 1L + random.nextInt(2));
+    }
+
+    // método auxiliar que sorteia um filtro, cada campo pode ficar vazio
+    private PranchaFiltroDTO filtroAleatorio(Random random) {
+        return new PranchaFiltroDTO(
+                random.nextBoolean() ? null : TipoPrancha.values()[random.nextInt(TipoPrancha.values().length)],
+                random.nextBoolean() ? null : Habilidade.values()[random.nextInt(Habilidade.values().length)],
+                random.nextInt(3) > 0 ? null : TAMANHOS[random.nextInt(3)],
+                random.nextInt(3) > 0 ? null : TAMANHOS[3 + random.nextInt(3)],
+                random.nextInt(3) > 0 ? null : VALORES[random.nextInt(3)],
+                random.nextInt(3) > 0 ? null : VALORES[2 + random.nextInt(3)],
+                random.nextInt(3) > 0 ? null : 1L + random.nextInt(3),
+                random.nextInt(3) > 0 ? null : 1L + random.nextInt(2),
+                random.nextInt(3) > 0 ? null : 1L + random.nextInt(2),
+                random.nextInt(3) > 0 ? null : random.nextBoolean(),
+                random.nextInt(3), 1 + random.nextInt(5));
+    }
+
+    // método auxiliar que confere o índice contra a busca no banco para vários filtros sorteados
+    private void compararComBanco(Random random, int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            PranchaFiltroDTO filtro = filtroAleatorio(random);
+            assertEquals(pranchaService.buscarNoBanco(filtro), indice.buscar(filtro), filtro.toString());
+        }
+    }
+
+    // pranchas criadas, alteradas e excluídas depois do índice montado entram uma a uma (sem recarregar)
+    // e o resultado continua igual ao da busca no banco: página, total e facetas
+    @Test
+    public void testMesmoResultadoDaBuscaNoBanco() {
+        Random random = new Random(20);
+        int antes = indice.tamanho(); // monta o índice antes de criar as pranchas
+        List<Long> criadas = new ArrayList<>();
+        try {
+            for (int i = 0; i < 40; i++)
+                criadas.add(pranchaService.create(pranchaAleatoria(random)).getId());
+            assertEquals(antes + 40, indice.tamanho());
+            compararComBanco(random, 300);
+
+            for (int i = 0; i < 10; i++)
+                pranchaService.update(criadas.get(i), pranchaAleatoria(random));
+            for (int i = 0; i < 5; i++)
+                pranchaService.delete(criadas.remove(criadas.size() - 1));
+            assertEquals(antes + 35, indice.tamanho());
+            compararComBanco(random, 300);
+        } finally {
+            criadas.forEach(pranchaService::delete);
+        }
+        assertEquals(antes, indice.tamanho());
+    }
+
+    // a carga monta as faixas de valor e tamanho de uma vez (com muitos valores repetidos) e as alterações
+    // feitas depois dela continuam entrando uma a uma no lugar certo
+    @Test
+    public void testRecarregarMesmoResultadoDaBuscaNoBanco() {
+        Random random = new Random(21);
+        int antes = indice.tamanho();
+        List<Long> criadas = new ArrayList<>();
+        try {
+            for (int i = 0; i < 40; i++)
+                criadas.add(pranchaService.create(pranchaAleatoria(random)).getId());
+            indice.recarregar();
+            assertEquals(antes + 40, indice.tamanho());
+            compararComBanco(random, 300);
+
+            for (int i = 0; i < 10; i++)
+                pranchaService.update(criadas.get(i), pranchaAleatoria(random));
+            for (int i = 0; i < 5; i++)
+                pranchaService.delete(criadas.remove(criadas.size() - 1));
+            compararComBanco(random, 300);
+        } finally {
+            criadas.forEach(pranchaService::delete);
+        }
+        assertEquals(antes, indice.tamanho());
+    }
+
+    // a reserva de um pedido grava no índice o estoque e a versão que o update deixou no banco, então aplicar
+    // a mesma reserva de novo (como quando o índice já foi lido do banco depois do commit) não baixa outra vez
+    @Test
+    public void testReservaDeEstoqueAplicadaUmaVez() {
+        Long id = pranchaService.create(new PranchaDTO(6.0f, 1200.00, 3, TipoPrancha.values()[0],
+                Habilidade.values()[0], 1L, 3L, 1L)).getId();
+        try {
+            Map<Long, EstoqueReservadoDTO> reservados = QuarkusTransaction.requiringNew().call(() -> {
+                Map<Long, EstoqueReservadoDTO> reserva = pranchaRepository.reservarEstoque(Map.of(id, 2));
+                indice.baixarEstoque(reserva.values());
+                return reserva;
+            });
+            assertEquals(1, reservados.get(id).estoque());
+            assertEquals(1, estoqueNoIndice(id));
+
+            QuarkusTransaction.requiringNew().run(() -> indice.baixarEstoque(reservados.values()));
+            assertEquals(1, estoqueNoIndice(id));
+
+            // sem estoque suficiente a prancha não volta na reserva
+            assertTrue(QuarkusTransaction.requiringNew().call(
+                    () -> pranchaRepository.reservarEstoque(Map.of(id, 2))).isEmpty());
+        } finally {
+            pranchaService.delete(id);
+        }
+    }
+
+    // método auxiliar que procura o estoque de uma prancha entre todas as do índice
+    private int estoqueNoIndice(Long id) {
+        PranchaFiltroDTO todas = new PranchaFiltroDTO(null, null, null, null, null, null, null, null, null, null, 0, 1000);
+        return indice.buscar(todas).itens().stream().filter(p -> p.id().equals(id)).findFirst().orElseThrow().estoque();
+    }
+
+    // o nome do modelo aparece nas pranchas do índice, alterar o modelo faz o índice ser montado de novo
+    @Test
+    public void testAlterarModeloRecarregaIndice() {
+        PranchaFiltroDTO filtro = new PranchaFiltroDTO(null, null, null, null, null, null, null, 2L, null, null, 0, 20);
+        String nomeAntigo = indice.buscar(filtro).itens().get(0).modelo();
+        try {
+            modeloService.update(2L, new ModeloDTO(nomeAntigo + " Pro", 2L));
+            assertEquals(nomeAntigo + " Pro", indice.buscar(filtro).itens().get(0).modelo());
+        } finally {
+            modeloService.update(2L, new ModeloDTO(nomeAntigo, 2L));
+        }
+    }
+
+    // no banco a busca faz três comandos (contagem, página e associações), no índice nenhum
+    @Test
+    public void testComandosNoBanco() {
+        PranchaFiltroDTO filtro = new PranchaFiltroDTO(null, null, null, null, null, null, 2L, null, 2L, null, 0, 20);
+        indice.tamanho();
+        Statistics stats = sessionFactory.getStatistics();
+
+        stats.clear();
+        PranchaBuscaDTO noBanco = pranchaService.buscarNoBanco(filtro);
+        assertEquals(3, stats.getPrepareStatementCount());
+
+        stats.clear();
+        assertEquals(noBanco, indice.buscar(filtro));
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,14 @@
+package br.unitins.topicos1.prancha.dto;
+
+public record CatalogoItemDTO (
+
+    // MARCA, MODELO, QUILHA ou TIPO_QUILHA
+    String tipo,
+    Long id,
+    String nome,
+
+    // quanto maior, mais o nome combina com o termo: 3 nome igual, 2 começa com o termo, 1 contém o termo
+    // e de 0 a 1 a semelhança, quando a busca é por nomes parecidos
+    double relevancia
+
+) {}
@@ -1,4 +1,5 @@
 package br.unitins.topicos1.prancha.repository;
+import java.util.Collection;
 import java.util.List;
 import br.unitins.topicos1.prancha.model.Cliente;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
@@ -11,5 +12,10 @@ public class ClienteRepository implements PanacheRepository<Cliente> {
     public List<Cliente> findByCpf(String cpf) {
         return list("cpf", cpf);
     }
+
+    // buscando vários clientes pelo id numa única consulta
+    public List<Cliente> findByIds(Collection<Long> ids) {
+        return list("id IN ?1", ids);
+    }
     
 }
\ No newline at end of file
@@ -30,7 +30,7 @@ public class ClienteServiceImpl implements ClienteService {
             throw ValidationException.of("Lista de Clientes", "Nenhum cliente cadastrado");
         }
 
-        LOG.info("Total de clientes encontrados: " + listaCliente.size());
+        LOG.infof("Total de clientes encontrados: %s", listaCliente.size());
         return listaCliente;
     }
 
@@ -39,7 +39,7 @@ public class ClienteServiceImpl implements ClienteService {
     public List<Cliente> findByCpf(String cpf) {
 
         // validações nos campos obrigatórios
-        LOG.info("Buscando clientes pelo CPF: " + cpf);
+        LOG.infof("Buscando clientes pelo CPF: %s", cpf);
 
         if (cpf == null || cpf.isBlank()) {
             LOG.error("CPF não informado.");
@@ -48,11 +48,11 @@ public class ClienteServiceImpl implements ClienteService {
 
         List<Cliente> listaCliente = clienteRepository.findByCpf(cpf);
         if (listaCliente.isEmpty()) {
-            LOG.warn("Nenhum cliente encontrado para o CPF: " + cpf);
+            LOG.warnf("Nenhum cliente encontrado para o CPF: %s", cpf);
             throw ValidationException.of("cpf", "Nenhum cliente encontrado para o CPF informado");
         }
 
-        LOG.info("Clientes encontrados: " + listaCliente.size());
+        LOG.infof("Clientes encontrados: %s", listaCliente.size());
         return listaCliente;
     }
 
@@ -61,20 +61,20 @@ public class ClienteServiceImpl implements ClienteService {
     public Cliente findById(Long id) {
 
         // validações nos campos obrigatórios
-        LOG.info("Buscando cliente pelo ID: " + id);
+        LOG.infof("Buscando cliente pelo ID: %s", id);
 
         if (id == null || id <= 0) {
-            LOG.error("ID inválido: " + id);
+            LOG.errorf("ID inválido: %s", id);
             throw ValidationException.of("id", "id inválido");
         }
 
         Cliente cliente = clienteRepository.findById(id);
         if (cliente == null) {
-            LOG.warn("Cliente não encontrado para o ID: " + id);
+            LOG.warnf("Cliente não encontrado para o ID: %s", id);
             throw ValidationException.of("id", "Cliente não encontrado");
         }
 
-        LOG.info("Cliente encontrado: " + cliente.getNome());
+        LOG.infof("Cliente encontrado: %s", cliente.getNome());
         return cliente;
     }
 
@@ -119,7 +119,7 @@ public class ClienteServiceImpl implements ClienteService {
 
         clienteRepository.persist(cliente);
 
-        LOG.info("Cliente criado com sucesso. ID = " + cliente.getId());
+        LOG.infof("Cliente criado com sucesso. ID = %s", cliente.getId());
         return cliente;
     }
 
@@ -129,16 +129,16 @@ public class ClienteServiceImpl implements ClienteService {
     public void update(Long id, @Valid ClienteDTO dto) {
 
         // validações nos campos obrigatórios
-        LOG.info("Atualizando cliente ID: " + id);
+        LOG.infof("Atualizando cliente ID: %s", id);
 
         if (id == null || id <= 0) {
-            LOG.error("ID inválido na atualização: " + id);
+            LOG.errorf("ID inválido na atualização: %s", id);
             throw ValidationException.of("id", "id inválido");
         }
 
         Cliente cliente = clienteRepository.findById(id);
         if (cliente == null) {
-            LOG.warn("Cliente não encontrado para atualização. ID: " + id);
+            LOG.warnf("Cliente não encontrado para atualização. ID: %s", id);
             throw ValidationException.of("id", "Cliente não encontrado");
         }
 
@@ -185,16 +185,16 @@ public class ClienteServiceImpl implements ClienteService {
     public void delete(Long id) {
 
         // validações nos campos obrigatórios
-        LOG.info("Deletando cliente ID: " + id);
+        LOG.infof("Deletando cliente ID: %s", id);
 
         if (id == null || id <= 0) {
-            LOG.error("ID inválido na exclusão: " + id);
+            LOG.errorf("ID inválido na exclusão: %s", id);
             throw ValidationException.of("id", "id inválido");
         }
 
         Cliente cliente = clienteRepository.findById(id);
         if (cliente == null) {
-            LOG.warn("Tentativa de deletar cliente falha. ID: " + id);
+            LOG.warnf("Tentativa de deletar cliente falha. ID: %s", id);
             throw ValidationException.of("id", "Cliente não encontrado");
         }
 
@@ -0,0 +1,135 @@
+package br.unitins.topicos1.prancha.service;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import br.unitins.topicos1.prancha.dto.CredencialDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+// guarda por pouco tempo os logins que acabaram de ser verificados com sucesso,
+// assim uma rajada de logins do mesmo usuário não repete o pbkdf2 nem a consulta no banco
+// guarda só o login e o perfil (record imutável), nunca a entidade do usuário
+@ApplicationScoped
+public class CredencialCache {
+
+    private static final Logger LOG = Logger.getLogger(CredencialCache.class);
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    // a senha nunca fica no cache: a chave é o login mais um hmac de login e senha,
+    // feito com uma chave aleatória que só existe na memória deste processo
+    private record Chave(String login, String digest) {}
+
+    @ConfigProperty(name = "auth.cache.maximum-size", defaultValue = "10000")
+    long tamanhoMaximo;
+
+    @ConfigProperty(name = "auth.cache.expire-after-write", defaultValue = "5m")
+    Duration expiracao;
+
+    @Inject
+    TransactionSynchronizationRegistry transacoes;
+
+    private Cache<Chave, CredencialDTO> cache;
+
+    // conta as invalidações: um login que leu o banco antes de uma delas não guarda o que leu
+    private final AtomicLong invalidacoes = new AtomicLong();
+
+    private SecretKeySpec chave;
+
+    // o Mac não pode ser usado por duas threads ao mesmo tempo, então cada thread tem o seu
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::novoMac);
+
+    @PostConstruct
+    void iniciar() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        chave = new SecretKeySpec(bytes, ALGORITMO);
+
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        LOG.infof("Cache de credenciais iniciado: até %s logins, expiração de %s", tamanhoMaximo, expiracao);
+    }
+
+    // devolve a credencial se esse login e senha foram verificados há pouco tempo, senão null
+    public CredencialDTO buscar(String login, String senha) {
+        return cache.getIfPresent(new Chave(login, digest(login, senha)));
+    }
+
+    // lido antes de buscar o usuário no banco e passado para guardar
+    public long versao() {
+        return invalidacoes.get();
+    }
+
+    // registra uma verificação que deu certo; se houve uma invalidação depois de versao (a senha pode ter mudado
+    // enquanto o hash lido do banco era verificado) a verificação não fica no cache
+    public void guardar(String login, String senha, CredencialDTO credencial, long versao) {
+        Chave chave = new Chave(login, digest(login, senha));
+        cache.put(chave, credencial);
+        if (invalidacoes.get() != versao)
+            cache.invalidate(chave);
+    }
+
+    // remove todas as verificações guardadas de um login (chamado quando a senha muda)
+    // de novo depois do commit: um login que leu o hash antigo antes dele não deixa a senha antiga no cache
+    public void invalidar(String login) {
+        remover(login);
+        if (transacoes.getTransactionStatus() != Status.STATUS_ACTIVE)
+            return;
+        transacoes.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                remover(login);
+            }
+        });
+    }
+
+    private void remover(String login) {
+        invalidacoes.incrementAndGet();
+        cache.asMap().keySet().removeIf(chave -> chave.login().equals(login));
+    }
+
+    public long acertos() {
+        return cache.stats().hitCount();
+    }
+
+    public long faltas() {
+        return cache.stats().missCount();
+    }
+
+    private String digest(String login, String senha) {
+        Mac mac = macs.get();
+        mac.update(login.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0); // separa login e senha, "ab"+"c" e "a"+"bc" geram digests diferentes
+        return Base64.getEncoder().encodeToString(mac.doFinal(senha.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac novoMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Erro ao iniciar o hmac do cache de credenciais", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package br.unitins.topicos1.prancha.dto;
+import br.unitins.topicos1.prancha.model.Perfil;
+import br.unitins.topicos1.prancha.model.Usuario;
+
+// usuário autenticado: só o que o login precisa para gerar os tokens, sem a senha e sem a entidade
+public record CredencialDTO (
+
+    String login,
+    Perfil perfil
+
+) {
+
+    public static CredencialDTO valueOf(Usuario usuario) {
+        return new CredencialDTO(usuario.getLogin(), usuario.getPerfil());
+    }
+}
@@ -7,8 +7,10 @@ import jakarta.persistence.GenerationType;
 @MappedSuperclass
 public abstract class DefaultEntity {
 
+    // id gerado por sequence (uma por tabela, reservando blocos de 50 ids), assim o hibernate
+    // não precisa fazer o insert na hora para descobrir o id e consegue mandar os inserts em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     public Long getId() {
@@ -1,7 +1,10 @@
 package br.unitins.topicos1.prancha.model;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = @Index(name = "idx_endereco_cep", columnList = "cep"))
 public class Endereco extends DefaultEntity {
 
     private String cidade;
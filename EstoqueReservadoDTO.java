@@ -0,0 +1,12 @@
+package br.unitins.topicos1.prancha.dto;
+
+// estoque e versão de uma prancha logo depois da reserva de um pedido, lidos do próprio update
+public record EstoqueReservadoDTO (
+
+    Long idPrancha,
+    int estoque,
+    long versao
+
+) {
+
+}
@@ -0,0 +1,21 @@
+package br.unitins.topicos1.prancha.dto;
+import java.time.LocalDateTime;
+import br.unitins.topicos1.prancha.model.StatusPagamento;
+import br.unitins.topicos1.prancha.model.TipoEventoPedido;
+
+public record EventoPedidoDTO (
+
+    // id do evento no outbox (nulo antes de gravar), crescente na ordem em que os eventos de um pedido aconteceram
+    Long id,
+
+    Long idPedido,
+    Long idCliente,
+    TipoEventoPedido tipo,
+
+    // situação do pedido depois da alteração
+    StatusPagamento statusPagamento,
+    double valorTotal,
+
+    LocalDateTime criadoEm
+
+) {}
@@ -0,0 +1,131 @@
+package br.unitins.topicos1.prancha.service;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import br.unitins.topicos1.prancha.dto.EventoPedidoDTO;
+import br.unitins.topicos1.prancha.repository.EventoPedidoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+// tira os eventos de pedido do outbox (tabela evento_pedido) e entrega ao sink configurado, em lotes
+// cada lote é lido, enviado e apagado na mesma transação, segurando a trava do relay: com um relay só
+// drenando por vez e o lote na ordem do id, os eventos de cada pedido chegam na ordem em que aconteceram
+// se o envio falha o lote volta para a tabela e a rodada termina (os próximos eventos esperam, para não passar na frente)
+@ApplicationScoped
+public class EventoPedidoRelay {
+
+    private static final Logger LOG = Logger.getLogger(EventoPedidoRelay.class);
+
+    @ConfigProperty(name = "pedidos.outbox.sink", defaultValue = ArquivoEventoPedidoSink.ID)
+    String idSink;
+
+    // eventos por lote e máximo de lotes por rodada (o resto fica para a próxima)
+    @ConfigProperty(name = "pedidos.outbox.lote", defaultValue = "100")
+    int tamanhoLote;
+
+    @ConfigProperty(name = "pedidos.outbox.lotes-por-rodada", defaultValue = "50")
+    int lotesPorRodada;
+
+    @Inject
+    EventoPedidoRepository repository;
+
+    @Inject
+    @Any
+    Instance<EventoPedidoSink> sinks;
+
+    @Inject
+    MeterRegistry registry;
+
+    private EventoPedidoSink sink;
+    private Timer atraso;
+    private Counter enviados;
+    private Counter falhas;
+
+    // quando foi gravado o evento pendente mais antigo, visto na última rodada (nulo com o outbox vazio)
+    private volatile LocalDateTime maisAntigoPendente;
+
+    @PostConstruct
+    void iniciar() {
+        for (EventoPedidoSink candidato : sinks)
+            if (candidato.id().equals(idSink))
+                sink = candidato;
+        if (sink == null)
+            throw new IllegalStateException("Destino dos eventos de pedido não encontrado: " + idSink);
+
+        atraso = Timer.builder("pedidos.outbox.atraso")
+                .description("Tempo entre gravar o evento de pedido e entregar ao destino")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        Gauge.builder("pedidos.outbox.atraso.maximo", this, EventoPedidoRelay::segundosDoMaisAntigo)
+                .description("Idade em segundos do evento de pedido pendente mais antigo")
+                .register(registry);
+        enviados = Counter.builder("pedidos.outbox.enviados")
+                .description("Eventos de pedido entregues ao destino")
+                .register(registry);
+        falhas = Counter.builder("pedidos.outbox.falhas")
+                .description("Lotes de eventos de pedido que falharam no envio")
+                .register(registry);
+    }
+
+    // rodada periódica (pedidos.outbox.intervalo, off desliga)
+    @Scheduled(every = "${pedidos.outbox.intervalo:1s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void agendado() {
+        drenar();
+    }
+
+    // envia os eventos pendentes lote a lote até o outbox esvaziar e devolve quantos foram entregues
+    public int drenar() {
+        int total = 0;
+        try {
+            for (int i = 0; i < lotesPorRodada; i++) {
+                List<EventoPedidoDTO> lote = QuarkusTransaction.requiringNew().call(this::enviarLote);
+
+                LocalDateTime agora = LocalDateTime.now();
+                lote.forEach(evento -> atraso.record(Duration.between(evento.criadoEm(), agora)));
+                enviados.increment(lote.size());
+                total += lote.size();
+
+                if (lote.size() < tamanhoLote)
+                    break;
+            }
+        } catch (RuntimeException e) {
+            falhas.increment();
+            LOG.errorf("Falha ao enviar eventos de pedido (nova tentativa na próxima rodada): %s", e.getMessage());
+        }
+
+        maisAntigoPendente = QuarkusTransaction.requiringNew().call(repository::criadoEmMaisAntigo);
+        if (total > 0)
+            LOG.debugf("Eventos de pedido enviados: %s", total);
+        return total;
+    }
+
+    // um lote: lê, envia e apaga; vazio quando não há eventos ou outro relay está com a trava
+    private List<EventoPedidoDTO> enviarLote() {
+        if (!repository.travarRelay())
+            return List.of();
+
+        List<EventoPedidoDTO> lote = repository.proximos(tamanhoLote);
+        if (lote.isEmpty())
+            return lote;
+
+        sink.enviar(lote);
+        repository.apagar(lote.stream().map(EventoPedidoDTO::id).toList());
+        return lote;
+    }
+
+    private double segundosDoMaisAntigo() {
+        LocalDateTime maisAntigo = maisAntigoPendente;
+        return maisAntigo == null ? 0 : Duration.between(maisAntigo, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+}
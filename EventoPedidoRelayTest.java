@@ -0,0 +1,138 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import br.unitins.topicos1.prancha.dto.EnderecoDTO;
+import br.unitins.topicos1.prancha.dto.EventoPedidoDTO;
+import br.unitins.topicos1.prancha.dto.ItemPedidoDTO;
+import br.unitins.topicos1.prancha.dto.PedidoDTO;
+import br.unitins.topicos1.prancha.dto.PixDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
+import br.unitins.topicos1.prancha.model.StatusPagamento;
+import br.unitins.topicos1.prancha.model.TipoEventoPedido;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class EventoPedidoRelayTest {
+
+    // nos testes o relay não roda sozinho (pedidos.outbox.intervalo=off) e o destino é a lista em memória
+    // cada teste drena o outbox antes, para começar só com os próprios eventos
+
+    @Inject
+    EventoPedidoRelay relay;
+
+    @Inject
+    MemoriaEventoPedidoSink sink;
+
+    @Inject
+    PedidoService pedidoService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    // os eventos de cada pedido chegam na ordem em que aconteceram, com a situação do pedido em cada um
+    @Test
+    public void testEventosNaOrdemDoPedido() {
+        relay.drenar();
+        sink.limpar();
+
+        Long a = criarPedido(1L);
+        Long b = criarPedido(2L);
+        try {
+            pedidoService.pagar(b);
+            pedidoService.pagar(a);
+
+            assertEquals(4, relay.drenar());
+            assertEquals(List.of(TipoEventoPedido.CRIADO, TipoEventoPedido.PAGO), tipos(a));
+            assertEquals(List.of(TipoEventoPedido.CRIADO, TipoEventoPedido.PAGO), tipos(b));
+
+            List<EventoPedidoDTO> eventos = sink.eventos();
+            assertEquals(StatusPagamento.PENDENTE, eventos.get(0).statusPagamento());
+            assertEquals(StatusPagamento.PAGO, eventos.get(3).statusPagamento());
+            assertEquals(1L, eventos.get(0).idCliente());
+            assertEquals(1200.0, eventos.get(0).valorTotal());
+            for (int i = 1; i < eventos.size(); i++)
+                assertTrue(eventos.get(i - 1).id() < eventos.get(i).id());
+
+            assertEquals(0, relay.drenar()); // já foram apagados do outbox
+            assertTrue(registry.get("pedidos.outbox.atraso").timer().count() >= 4);
+        } finally {
+            pedidoService.delete(a);
+            pedidoService.delete(b);
+        }
+    }
+
+    // com o destino fora do ar os eventos ficam no outbox e saem na rodada seguinte; pedido desfeito não gera evento
+    @Test
+    public void testFalhaNoEnvioMantemEventos() {
+        relay.drenar();
+        sink.limpar();
+
+        assertThrows(ValidationException.class, () -> pedidoService.create(new PedidoDTO(1L,
+                new EnderecoDTO("Palmas", "TO", "77000000"), "PIX", new PixDTO("joao@pix.com"), null, null,
+                List.of(new ItemPedidoDTO(999L, 1, null)))));
+
+        Long id = criarPedido(1L);
+        try {
+            sink.setIndisponivel(true);
+            assertEquals(0, relay.drenar());
+            assertTrue(sink.eventos().isEmpty());
+
+            sink.setIndisponivel(false);
+            assertEquals(1, relay.drenar());
+            assertEquals(List.of(TipoEventoPedido.CRIADO), tipos(id));
+            assertEquals(1, sink.eventos().size());
+        } finally {
+            sink.setIndisponivel(false);
+            pedidoService.delete(id);
+        }
+    }
+
+    // o destino em arquivo grava uma linha json por evento, no fim do arquivo
+    @Test
+    public void testArquivoUmaLinhaPorEvento() throws IOException {
+        Path arquivo = Files.createTempFile("eventos-pedido", ".jsonl");
+        try {
+            ArquivoEventoPedidoSink arquivoSink = new ArquivoEventoPedidoSink();
+            arquivoSink.arquivo = arquivo.toString();
+            arquivoSink.objectMapper = objectMapper;
+
+            LocalDateTime agora = LocalDateTime.now();
+            arquivoSink.enviar(List.of(
+                    new EventoPedidoDTO(1L, 10L, 1L, TipoEventoPedido.CRIADO, StatusPagamento.PENDENTE, 1200, agora)));
+            arquivoSink.enviar(List.of(
+                    new EventoPedidoDTO(2L, 10L, 1L, TipoEventoPedido.PAGO, StatusPagamento.PAGO, 1200, agora)));
+
+            List<String> linhas = Files.readAllLines(arquivo);
+            assertEquals(2, linhas.size());
+            JsonNode segundo = objectMapper.readTree(linhas.get(1));
+            assertEquals("PAGO", segundo.get("tipo").asText());
+            assertEquals(10, segundo.get("idPedido").asLong());
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    // método auxiliar que cria um pedido via pix do cliente 1 com uma prancha
+    private Long criarPedido(Long idPrancha) {
+        return pedidoService.create(new PedidoDTO(1L, new EnderecoDTO("Palmas", "TO", "77000000"), "PIX",
+                new PixDTO("joao@pix.com"), null, null, List.of(new ItemPedidoDTO(idPrancha, 1, null)))).id();
+    }
+
+    // tipos dos eventos recebidos de um pedido, na ordem de chegada
+    private List<TipoEventoPedido> tipos(Long idPedido) {
+        return sink.eventos().stream().filter(evento -> evento.idPedido().equals(idPedido))
+                .map(EventoPedidoDTO::tipo).toList();
+    }
+}
@@ -0,0 +1,124 @@
+package br.unitins.topicos1.prancha.repository;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.Session;
+import br.unitins.topicos1.prancha.dto.EventoPedidoDTO;
+import br.unitins.topicos1.prancha.model.StatusPagamento;
+import br.unitins.topicos1.prancha.model.TipoEventoPedido;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+// outbox dos eventos de pedido (tabela evento_pedido), acessado direto pelo jdbc da sessão:
+// os comandos vão na transação atual sem passar pelo contexto nem pelos caches do hibernate
+@ApplicationScoped
+public class EventoPedidoRepository {
+
+    // chave da trava (advisory lock do postgres) que deixa um relay só drenando a tabela por vez
+    private static final long TRAVA_RELAY = 7_000_001L;
+
+    private static final String INSERT = "INSERT INTO evento_pedido "
+            + "(id_pedido, id_cliente, tipo, statusPagamento, valorTotal, criadoEm) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_PROXIMOS = "SELECT id, id_pedido, id_cliente, tipo, statusPagamento, valorTotal, criadoEm "
+            + "FROM evento_pedido ORDER BY id LIMIT ?";
+
+    private static final String DELETE = "DELETE FROM evento_pedido WHERE id = ANY (?)";
+
+    private static final String SELECT_MAIS_ANTIGO = "SELECT criadoEm FROM evento_pedido ORDER BY id LIMIT 1";
+
+    @Inject
+    EntityManager entityManager;
+
+    // grava os eventos num único lote, na transação da alteração dos pedidos
+    public void inserir(List<EventoPedidoDTO> eventos) {
+        if (eventos.isEmpty())
+            return;
+
+        sessao().doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+                for (EventoPedidoDTO evento : eventos) {
+                    ps.setLong(1, evento.idPedido());
+                    if (evento.idCliente() == null)
+                        ps.setNull(2, Types.BIGINT);
+                    else
+                        ps.setLong(2, evento.idCliente());
+                    ps.setString(3, evento.tipo().name());
+                    ps.setString(4, evento.statusPagamento() == null ? null : evento.statusPagamento().name());
+                    ps.setDouble(5, evento.valorTotal());
+                    ps.setTimestamp(6, Timestamp.valueOf(evento.criadoEm()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+    }
+
+    // tenta pegar a trava do relay até o fim da transação; false se outro relay já está drenando
+    public boolean travarRelay() {
+        return sessao().doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT pg_try_advisory_xact_lock(?)")) {
+                ps.setLong(1, TRAVA_RELAY);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getBoolean(1);
+                }
+            }
+        });
+    }
+
+    // os eventos pendentes mais antigos, na ordem em que foram gravados
+    public List<EventoPedidoDTO> proximos(int quantidade) {
+        return sessao().doReturningWork(connection -> {
+            List<EventoPedidoDTO> eventos = new ArrayList<>();
+            try (PreparedStatement ps = connection.prepareStatement(SELECT_PROXIMOS)) {
+                ps.setInt(1, quantidade);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        String status = rs.getString(5);
+                        eventos.add(new EventoPedidoDTO(
+                                rs.getLong(1),
+                                rs.getLong(2),
+                                rs.getObject(3, Long.class),
+                                TipoEventoPedido.valueOf(rs.getString(4)),
+                                status == null ? null : StatusPagamento.valueOf(status),
+                                rs.getDouble(6),
+                                rs.getObject(7, LocalDateTime.class)));
+                    }
+                }
+            }
+            return eventos;
+        });
+    }
+
+    // apaga os eventos já enviados
+    public void apagar(List<Long> ids) {
+        sessao().doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(DELETE)) {
+                Array array = connection.createArrayOf("bigint", ids.toArray());
+                ps.setArray(1, array);
+                ps.executeUpdate();
+            }
+        });
+    }
+
+    // quando foi gravado o evento pendente mais antigo (nulo se não há nenhum)
+    public LocalDateTime criadoEmMaisAntigo() {
+        return sessao().doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(SELECT_MAIS_ANTIGO);
+                 ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getObject(1, LocalDateTime.class) : null;
+            }
+        });
+    }
+
+    private Session sessao() {
+        return entityManager.unwrap(Session.class);
+    }
+}
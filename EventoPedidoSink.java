@@ -0,0 +1,15 @@
+package br.unitins.topicos1.prancha.service;
+import java.util.List;
+import br.unitins.topicos1.prancha.dto.EventoPedidoDTO;
+
+// destino dos eventos de pedido tirados do outbox pelo relay, escolhido pela configuração (pedidos.outbox.sink)
+public interface EventoPedidoSink {
+
+    // nome usado na configuração
+    String id();
+
+    // recebe um lote na ordem em que os eventos foram gravados; se lançar exceção o lote continua no outbox
+    // e é reenviado na próxima rodada (um evento pode chegar mais de uma vez, nunca fora de ordem)
+    void enviar(List<EventoPedidoDTO> eventos);
+
+}
@@ -16,6 +16,9 @@ public class FornecedorServiceImpl implements FornecedorService {
     @Inject
     FornecedorRepository fornecedorRepository;
 
+    @Inject
+    CatalogoIndice indice;
+
     private static final Logger LOG = Logger.getLogger(FornecedorServiceImpl.class);
 
     // busca todos os registros no banco
@@ -30,7 +33,7 @@ public class FornecedorServiceImpl implements FornecedorService {
             throw ValidationException.of("Lista de Fornecedores", "Nenhum fornecedor cadastrado");
         }
 
-        LOG.info("Total de fornecedores encontrados: " + listaFornecedor.size());
+        LOG.infof("Total de fornecedores encontrados: %s", listaFornecedor.size());
         return listaFornecedor;
     }
 
@@ -53,7 +56,7 @@ public class FornecedorServiceImpl implements FornecedorService {
             throw ValidationException.of("cnpj", "Nenhum fornecedor encontrado para o CNPJ informado");
         }
 
-        LOG.info("Fornecedores encontrados: " + listaFornecedor.size());
+        LOG.infof("Fornecedores encontrados: %s", listaFornecedor.size());
         return listaFornecedor;
     }
 
@@ -183,6 +186,7 @@ public class FornecedorServiceImpl implements FornecedorService {
         telefone.setDdd(dto.ddd());
         telefone.setNumero(dto.numero());
 
+        indice.recarregar();
         LOG.infof("Fornecedor atualizado com sucesso: %s", fornecedor.getNome());
     }
 
@@ -207,6 +211,7 @@ public class FornecedorServiceImpl implements FornecedorService {
 
         // deleta o fornecedor encontrado
         fornecedorRepository.delete(fornecedor);
+        indice.recarregar();
 
         LOG.info("Fornecedor removido com sucesso");
     }
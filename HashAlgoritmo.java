@@ -0,0 +1,15 @@
+package br.unitins.topicos1.prancha.service;
+
+// um algoritmo de hash de senha que pode ser escolhido pela configuração (hash.algoritmo)
+public interface HashAlgoritmo {
+
+    // nome gravado no início do hash, usado para saber com qual algoritmo verificar depois
+    String id();
+
+    // parâmetros atuais (custo, tamanho...) no formato gravado no hash, ex.: i=210000,l=512
+    String parametros();
+
+    // gera o hash da senha com o salt e os parâmetros informados (os parâmetros podem ser os de um hash antigo)
+    byte[] derivar(String senha, byte[] salt, String parametros);
+
+}
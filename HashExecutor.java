@@ -0,0 +1,128 @@
+package br.unitins.topicos1.prancha.service;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import br.unitins.topicos1.prancha.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+// roda os hashes de senha num grupo fixo de threads (uma por núcleo) com fila limitada,
+// assim uma rajada de logins não ocupa as threads que atendem o resto da api:
+// com a fila cheia o login é recusado na hora com 503 e Retry-After
+@Startup
+@ApplicationScoped
+public class HashExecutor {
+
+    private static final Logger LOG = Logger.getLogger(HashExecutor.class);
+
+    @ConfigProperty(name = "hash.executor.threads")
+    Optional<Integer> threads;
+
+    @ConfigProperty(name = "hash.executor.fila", defaultValue = "32")
+    int tamanhoFila;
+
+    // tempo máximo que a requisição espera pelo hash (fila mais cálculo)
+    @ConfigProperty(name = "hash.executor.espera-maxima", defaultValue = "5s")
+    Duration esperaMaxima;
+
+    @ConfigProperty(name = "hash.executor.retry-after", defaultValue = "2")
+    int retryAfterSegundos;
+
+    @Inject
+    MeterRegistry registry;
+
+    private ThreadPoolExecutor pool;
+    private Timer tempoHash;
+    private Timer tempoFila;
+    private Counter recusados;
+
+    @PostConstruct
+    void iniciar() {
+        int quantidade = threads.orElse(Runtime.getRuntime().availableProcessors());
+        ArrayBlockingQueue<Runnable> fila = new ArrayBlockingQueue<>(tamanhoFila);
+        AtomicInteger contador = new AtomicInteger();
+
+        pool = new ThreadPoolExecutor(quantidade, quantidade, 0, TimeUnit.MILLISECONDS, fila, tarefa -> {
+            Thread thread = new Thread(tarefa, "hash-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("hash.executor.fila", fila, ArrayBlockingQueue::size)
+                .description("Hashes de senha esperando na fila")
+                .register(registry);
+        Gauge.builder("hash.executor.ativos", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Threads calculando hash agora")
+                .register(registry);
+        tempoHash = Timer.builder("hash.tempo")
+                .description("Tempo de cálculo de um hash de senha")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        tempoFila = Timer.builder("hash.executor.espera")
+                .description("Tempo que o hash ficou na fila antes de começar")
+                .register(registry);
+        recusados = Counter.builder("hash.executor.recusados")
+                .description("Hashes recusados por fila cheia ou demora")
+                .register(registry);
+
+        LOG.infof("Executor de hash iniciado: %s threads, fila de %s", quantidade, tamanhoFila);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        pool.shutdownNow();
+    }
+
+    // calcula o hash numa thread do executor e espera o resultado
+    public <T> T executar(Supplier<T> calculo) {
+        long enfileirado = System.nanoTime();
+
+        Future<T> resultado;
+        try {
+            resultado = pool.submit(() -> {
+                tempoFila.record(System.nanoTime() - enfileirado, TimeUnit.NANOSECONDS);
+                return tempoHash.record(calculo);
+            });
+        } catch (RejectedExecutionException e) {
+            recusados.increment();
+            LOG.warn("Fila de hash cheia, recusando a requisição.");
+            throw new ServicoSobrecarregadoException("Muitos logins ao mesmo tempo. Tente novamente em instantes.",
+                    retryAfterSegundos);
+        }
+
+        try {
+            return resultado.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            recusados.increment();
+            LOG.warnf("Hash demorou mais que %s, recusando a requisição.", esperaMaxima);
+            throw new ServicoSobrecarregadoException("Muitos logins ao mesmo tempo. Tente novamente em instantes.",
+                    retryAfterSegundos);
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido esperando o hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException erro)
+                throw erro;
+            throw new IllegalStateException("Erro ao gerar o hash", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class HashExecutorTest {
+
+    @Inject
+    HashService hashService;
+
+    @Inject
+    MeterRegistry registry;
+
+    // método auxiliar que monta um executor pequeno, separado do usado pela aplicação
+    private HashExecutor criarExecutor(int threads, int fila, Duration esperaMaxima) {
+        HashExecutor executor = new HashExecutor();
+        executor.threads = Optional.of(threads);
+        executor.tamanhoFila = fila;
+        executor.esperaMaxima = esperaMaxima;
+        executor.retryAfterSegundos = 3;
+        executor.registry = new SimpleMeterRegistry();
+        executor.iniciar();
+        return executor;
+    }
+
+    // os hashes da aplicação passam pelo executor e ficam registrados nas métricas
+    @Test
+    public void testHashRegistraMetricas() {
+        long antes = registry.get("hash.tempo").timer().count();
+
+        hashService.verificar("123456", hashService.getHashSenha("123456"));
+
+        assertEquals(antes + 2, registry.get("hash.tempo").timer().count());
+        assertNotNull(registry.get("hash.executor.fila").gauge());
+    }
+
+    // com a thread ocupada e a fila cheia, o próximo hash é recusado na hora
+    @Test
+    public void testFilaCheiaRecusa() throws Exception {
+        HashExecutor executor = criarExecutor(1, 1, Duration.ofSeconds(5));
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch ocupada = new CountDownLatch(1);
+        try {
+            // ocupa a única thread e a única vaga da fila
+            CompletableFuture<Object> primeiro = CompletableFuture.supplyAsync(() -> executor.executar(() -> {
+                ocupada.countDown();
+                return aguardar(liberar);
+            }));
+            assertTrue(ocupada.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Object> segundo = CompletableFuture.supplyAsync(() -> executor.executar(() -> "fila"));
+            while (executor.registry.get("hash.executor.fila").gauge().value() < 1)
+                Thread.sleep(5);
+
+            ServicoSobrecarregadoException e = assertThrows(ServicoSobrecarregadoException.class,
+                    () -> executor.executar(() -> "recusado"));
+            assertEquals(3, e.getRetryAfterSegundos());
+            assertEquals(1, executor.registry.get("hash.executor.recusados").counter().count());
+
+            liberar.countDown();
+            assertEquals("ok", primeiro.get(5, TimeUnit.SECONDS));
+            assertEquals("fila", segundo.get(5, TimeUnit.SECONDS));
+        } finally {
+            liberar.countDown();
+            executor.encerrar();
+        }
+    }
+
+    // um hash que passa da espera máxima também é recusado
+    @Test
+    public void testEsperaMaximaRecusa() {
+        HashExecutor executor = criarExecutor(1, 1, Duration.ofMillis(50));
+        CountDownLatch liberar = new CountDownLatch(1);
+        try {
+            assertThrows(ServicoSobrecarregadoException.class, () -> executor.executar(() -> aguardar(liberar)));
+        } finally {
+            liberar.countDown();
+            executor.encerrar();
+        }
+    }
+
+    private static Object aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "ok";
+    }
+}
@@ -3,5 +3,7 @@ package br.unitins.topicos1.prancha.service;
 public interface HashService {
     
     String getHashSenha(String senha);
+    boolean verificar(String senha, String hash);
+    boolean precisaRehash(String hash);
     
-}
\ No newline at end of file
+}
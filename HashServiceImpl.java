@@ -1,43 +1,136 @@
 package br.unitins.topicos1.prancha.service;
-import java.security.NoSuchAlgorithmException;
-import java.security.spec.InvalidKeySpecException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.util.Base64;
-import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.PBEKeySpec;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
 
+// o hash gravado carrega tudo o que é preciso para verificar a senha depois:
+// $<algoritmo>$<parâmetros>$<salt em base64>$<hash em base64>, ex.: $pbkdf2-sha512$i=210000,l=512$...$...
+// hashes antigos (só o base64, com o salt fixo) continuam valendo e são refeitos no próximo login
 @ApplicationScoped
 public class HashServiceImpl implements HashService {
 
-    private String salt = "#$127732&"; // valor misturado com a senha para gerar o hash
-    private Integer iterationCount = 403; // número de vezes que o algoritmo repete o processo (deixa mais seguro)
-    private Integer keyLength = 512; // tamanho do hash
+    private static final String SEPARADOR = "$";
+    private static final int TAMANHO_SALT = 16; // bytes de salt aleatório por usuário
 
-    // método para gerar o hash
+    // formato antigo: mesmo salt para todos e 403 iterações
+    private static final byte[] SALT_ANTIGO = "#$127732&".getBytes(StandardCharsets.UTF_8);
+    private static final String PARAMETROS_ANTIGOS = Pbkdf2HashAlgoritmo.parametros(403, 512);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // algoritmo usado nos hashes novos
+    @ConfigProperty(name = "hash.algoritmo", defaultValue = Pbkdf2HashAlgoritmo.ID)
+    String idAlgoritmo;
+
+    @Inject
+    @Any
+    Instance<HashAlgoritmo> algoritmos;
+
+    @Inject
+    Pbkdf2HashAlgoritmo pbkdf2;
+
+    // fora do cdi (main e benchmark) não existe executor e o hash roda na própria thread
+    @Inject
+    HashExecutor executor;
+
+    private final Map<String, HashAlgoritmo> porId = new HashMap<>();
+
+    private HashAlgoritmo atual;
+
+    @PostConstruct
+    void iniciar() {
+        for (HashAlgoritmo algoritmo : algoritmos)
+            porId.put(algoritmo.id(), algoritmo);
+
+        atual = porId.get(idAlgoritmo);
+        if (atual == null)
+            throw new IllegalStateException("Algoritmo de hash não encontrado: " + idAlgoritmo);
+    }
+
+    // método para gerar o hash, cada chamada sorteia um salt novo
     @Override
     public String getHashSenha(String senha) {
+        byte[] salt = new byte[TAMANHO_SALT];
+        RANDOM.nextBytes(salt);
+
+        String parametros = atual.parametros();
+        byte[] hash = calcular(atual, senha, salt, parametros);
+
+        return SEPARADOR + atual.id() + SEPARADOR + parametros
+                + SEPARADOR + Base64.getEncoder().encodeToString(salt)
+                + SEPARADOR + Base64.getEncoder().encodeToString(hash);
+    }
+
+    // refaz o hash com o algoritmo, parâmetros e salt gravados e compara em tempo constante
+    @Override
+    public boolean verificar(String senha, String hash) {
+        if (senha == null || hash == null)
+            return false;
+
+        byte[] esperado;
+        byte[] calculado;
         try {
-            byte[] result = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA512") // método para armazenar senhas
-                    .generateSecret(new PBEKeySpec(senha.toCharArray(), // cria o especificador da senha, esse especificador gera o hash
-                            salt.getBytes(),
-                            iterationCount,
-                            keyLength))
-                    .getEncoded();
-
-            return Base64.getEncoder().encodeToString(result); // converte o hash de bytes para a Base64
-
-        // tratando erros
-        } catch (InvalidKeySpecException e) {
-            throw new RuntimeException("Erro ao gerar o hash");
-        } catch (NoSuchAlgorithmException e) {
-             throw new RuntimeException("Erro ao gerar o hash");
+            if (!hash.startsWith(SEPARADOR)) {
+                esperado = Base64.getDecoder().decode(hash);
+                calculado = calcular(pbkdf2, senha, SALT_ANTIGO, PARAMETROS_ANTIGOS);
+            } else {
+                String[] partes = hash.split("\\$");
+                if (partes.length != 5)
+                    return false;
+
+                HashAlgoritmo algoritmo = porId.get(partes[1]);
+                if (algoritmo == null)
+                    return false;
+
+                esperado = Base64.getDecoder().decode(partes[4]);
+                calculado = calcular(algoritmo, senha, Base64.getDecoder().decode(partes[3]), partes[2]);
+            }
+        } catch (IllegalArgumentException e) {
+            return false; // hash gravado corrompido
         }
+
+        return MessageDigest.isEqual(esperado, calculado);
+    }
+
+    // o hash precisa ser refeito quando foi gerado no formato antigo, com outro algoritmo ou com outros parâmetros
+    @Override
+    public boolean precisaRehash(String hash) {
+        return hash == null || !hash.startsWith(SEPARADOR + atual.id() + SEPARADOR + atual.parametros() + SEPARADOR);
+    }
+
+    // o cálculo pesado vai para o executor de hash, liberando a cpu das threads da api
+    private byte[] calcular(HashAlgoritmo algoritmo, String senha, byte[] salt, String parametros) {
+        if (executor == null)
+            return algoritmo.derivar(senha, salt, parametros);
+        return executor.executar(() -> algoritmo.derivar(senha, salt, parametros));
+    }
+
+    // monta o serviço fora do cdi, só com o pbkdf2 (usado pelo main e pelo LoginBenchmark)
+    static HashServiceImpl comPbkdf2(int iteracoes) {
+        Pbkdf2HashAlgoritmo pbkdf2 = new Pbkdf2HashAlgoritmo();
+        pbkdf2.iteracoes = iteracoes;
+        pbkdf2.tamanho = 512;
+
+        HashServiceImpl hash = new HashServiceImpl();
+        hash.pbkdf2 = pbkdf2;
+        hash.porId.put(pbkdf2.id(), pbkdf2);
+        hash.atual = pbkdf2;
+        return hash;
     }
 
-    // método que vai gerar o hash manualmente
+    // método que vai gerar o hash manualmente (para colocar no R__dados_iniciais.sql, por exemplo)
     public static void main(String[] args) {
-        HashService hash = new HashServiceImpl();
+        HashService hash = comPbkdf2(210000);
         System.out.println(hash.getHashSenha("123456"));
     }
 
-}
\ No newline at end of file
+}
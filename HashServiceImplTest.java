@@ -0,0 +1,57 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class HashServiceImplTest {
+
+    // hash da senha 123456 no formato antigo (salt fixo e 403 iterações), o mesmo do R__dados_iniciais.sql
+    private static final String HASH_ANTIGO =
+            "+RMra81+PVL2HQWuh7xAkSohHzzzq62hw4zuaEpFHXbE0+pX+fzwOpTqmmuDA19zusgadv4fnMnHqLd2S32aXQ==";
+
+    @Inject
+    HashService hashService;
+
+    // a mesma senha gera hashes diferentes (salt por usuário) e os dois conferem
+    @Test
+    public void testHashComSaltPorUsuario() {
+        String primeiro = hashService.getHashSenha("123456");
+        String segundo = hashService.getHashSenha("123456");
+
+        assertTrue(primeiro.startsWith("$pbkdf2-sha512$"));
+        assertNotEquals(primeiro, segundo);
+        assertTrue(hashService.verificar("123456", primeiro));
+        assertTrue(hashService.verificar("123456", segundo));
+        assertFalse(hashService.verificar("654321", primeiro));
+        assertFalse(hashService.precisaRehash(primeiro));
+    }
+
+    // o hash antigo continua valendo, mas precisa ser refeito
+    @Test
+    public void testHashAntigo() {
+        assertTrue(hashService.verificar("123456", HASH_ANTIGO));
+        assertFalse(hashService.verificar("654321", HASH_ANTIGO));
+        assertTrue(hashService.precisaRehash(HASH_ANTIGO));
+    }
+
+    // um hash feito com outro custo é verificado com os parâmetros gravados nele e marcado para refazer
+    @Test
+    public void testHashComOutrosParametros() {
+        String outroCusto = HashServiceImpl.comPbkdf2(500).getHashSenha("123456");
+
+        assertTrue(outroCusto.contains("$i=500,l=512$"));
+        assertTrue(hashService.verificar("123456", outroCusto));
+        assertTrue(hashService.precisaRehash(outroCusto));
+    }
+
+    // hash corrompido ou de algoritmo desconhecido não confere
+    @Test
+    public void testHashInvalido() {
+        assertFalse(hashService.verificar("123456", "$pbkdf2-sha512$i=1000,l=512$abc"));
+        assertFalse(hashService.verificar("123456", "$md5$x$YWJj$YWJj"));
+        assertFalse(hashService.verificar("123456", "não é base64"));
+        assertFalse(hashService.verificar("123456", null));
+    }
+}
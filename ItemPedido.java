@@ -1,9 +1,12 @@
 package br.unitins.topicos1.prancha.model;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = @Index(name = "idx_itempedido_pedido", columnList = "id_pedido"))
 public class ItemPedido extends DefaultEntity {
 
     @ManyToOne
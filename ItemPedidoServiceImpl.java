@@ -1,6 +1,9 @@
 package br.unitins.topicos1.prancha.service;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 import br.unitins.topicos1.prancha.dto.ItemPedidoDTO;
+import br.unitins.topicos1.prancha.dto.PranchaPrecoDTO;
 import br.unitins.topicos1.prancha.exception.ValidationException;
 import br.unitins.topicos1.prancha.model.ItemPedido;
 import br.unitins.topicos1.prancha.model.Pedido;
@@ -25,6 +28,12 @@ public class ItemPedidoServiceImpl implements ItemPedidoService {
     @Inject
     PranchaRepository pranchaRepository;
 
+    @Inject
+    CatalogoCache cache;
+
+    @Inject
+    ResumoVendas resumo;
+
     // método para buscar o pedido no banco, validar o id e garantir que o pedido exista antes de criar/atualizar um item
     private Pedido buscarPedido(Long idPedido) {
 
@@ -39,18 +48,20 @@ public class ItemPedidoServiceImpl implements ItemPedidoService {
         return pedido;
     }
 
-    // método para buscar a prancha no banco, validar o id e garantir que a prancha exista antes de criar/atualizar um itemn
+    // método para validar o id e garantir que a prancha exista antes de criar/atualizar um item
+    // a existência vem do cache do catálogo, o item só precisa da referência (a chave estrangeira) da prancha
     private Prancha buscarPrancha(Long idPrancha) {
 
         // validações nos campos obrigatórios
         if (idPrancha == null || idPrancha <= 0) {
             throw ValidationException.of("idPrancha", "ID de Prancha é obrigatório e válido.");
         }
-        Prancha prancha = pranchaRepository.findById(idPrancha);
+        PranchaPrecoDTO prancha = cache.buscar(idPrancha,
+                id -> pranchaRepository.findByIdOptional(id).map(PranchaPrecoDTO::valueOf).orElse(null));
         if (prancha == null) {
             throw ValidationException.of("idPrancha", "Prancha não encontrada.");
         }
-        return prancha;
+        return pranchaRepository.getEntityManager().getReference(Prancha.class, idPrancha);
     }
 
     // busca todos os registros no banco
@@ -115,7 +126,10 @@ public class ItemPedidoServiceImpl implements ItemPedidoService {
         itemPedido.setPrecoUnit(dto.precoUnit());
         itemPedido.setSubTotal(dto.precoUnit() * dto.quantidade()); // calcula o subtotal
 
+        // o pedido sai do resumo de vendas e entra de novo com o item
+        resumo.retirar(List.of(pedido.getId()));
         itemPedidoRepository.persist(itemPedido);
+        resumo.registrar(List.of(pedido.getId()));
 
         return itemPedido;
     }
@@ -135,12 +149,19 @@ public class ItemPedidoServiceImpl implements ItemPedidoService {
         Pedido pedido = buscarPedido(idPedido);
         Prancha prancha = buscarPrancha(dto.idPrancha());
 
+        // o item pode trocar de pedido: os dois saem do resumo de vendas e entram de novo depois da alteração
+        List<Long> pedidos = Stream.of(item.getPedido(), pedido).filter(Objects::nonNull)
+                .map(Pedido::getId).distinct().toList();
+        resumo.retirar(pedidos);
+
         // alterando os campos
         item.setPedido(pedido);
         item.setPrancha(prancha);
         item.setQuantidade(dto.quantidade());
         item.setPrecoUnit(dto.precoUnit());
         item.setSubTotal(dto.precoUnit() * dto.quantidade()); // recalcula o subtotal
+
+        resumo.registrar(pedidos);
     }
 
     // deletando um item
@@ -158,8 +179,11 @@ public class ItemPedidoServiceImpl implements ItemPedidoService {
             throw ValidationException.of("id", "Item de Pedido não encontrado.");
         }
 
-        // deleta o item no banco
+        // deleta o item no banco (e refaz o resumo de vendas do pedido dele)
+        List<Long> pedidos = itemPedido.getPedido() == null ? List.of() : List.of(itemPedido.getPedido().getId());
+        resumo.retirar(pedidos);
         itemPedidoRepository.delete(itemPedido);
+        resumo.registrar(pedidos);
     }
     
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package br.unitins.topicos1.prancha.service;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import br.unitins.topicos1.prancha.model.Perfil;
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
+import io.smallrye.jwt.build.Jwt;
+import io.smallrye.jwt.util.KeyUtils;
+
+// mede quantos tokens por segundo são gerados:
+// - chaveLidaACadaToken: como era antes, o sign() resolve a chave de smallrye.jwt.sign.key.location a cada chamada
+// - rs256, es256 e eddsa: JwtServiceImpl com a chave já carregada, em cada algoritmo
+// rodar com: mvn test-compile e java -cp <classpath de teste> br.unitins.topicos1.prancha.service.JwtBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String CHAVE_RSA = "token/privateKey.pem";
+
+    private JwtServiceImpl rs256;
+    private JwtServiceImpl es256;
+    private JwtServiceImpl eddsa;
+
+    @Setup
+    public void preparar() throws Exception {
+        System.setProperty("smallrye.jwt.sign.key.location", CHAVE_RSA);
+
+        rs256 = criar(SignatureAlgorithm.RS256, KeyUtils.readPrivateKey(CHAVE_RSA));
+        KeyPair ec = KeyUtils.generateKeyPair(256, SignatureAlgorithm.ES256);
+        es256 = criar(SignatureAlgorithm.ES256, ec.getPrivate());
+        KeyPair ed = KeyUtils.generateKeyPair(255, SignatureAlgorithm.EDDSA);
+        eddsa = criar(SignatureAlgorithm.EDDSA, ed.getPrivate());
+    }
+
+    private JwtServiceImpl criar(SignatureAlgorithm algoritmo, java.security.PrivateKey chave) {
+        JwtServiceImpl servico = new JwtServiceImpl();
+        servico.issuer = "unitins-jwt";
+        servico.expiracao = Duration.ofMinutes(15);
+        servico.algoritmo = algoritmo;
+        servico.chave = chave;
+        return servico;
+    }
+
+    @Benchmark
+    public String chaveLidaACadaToken() {
+        return Jwt.issuer("unitins-jwt")
+                .subject("user")
+                .groups(Set.of(Perfil.USER.name()))
+                .expiresAt(Instant.now().plus(Duration.ofHours(24)))
+                .sign();
+    }
+
+    @Benchmark
+    public String rs256() {
+        return rs256.generateJwt("user", Perfil.USER);
+    }
+
+    @Benchmark
+    public String es256() {
+        return es256.generateJwt("user", Perfil.USER);
+    }
+
+    @Benchmark
+    public String eddsa() {
+        return eddsa.generateJwt("user", Perfil.USER);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(JwtBenchmark.class.getSimpleName()).build()).run();
+    }
+}
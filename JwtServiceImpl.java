@@ -1,36 +1,77 @@
 package br.unitins.topicos1.prancha.service;
+import java.security.PrivateKey;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.HashSet;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Set;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 import br.unitins.topicos1.prancha.model.Perfil;
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
 import io.smallrye.jwt.build.Jwt;
+import io.smallrye.jwt.util.KeyUtils;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 
 @ApplicationScoped
 public class JwtServiceImpl implements JwtService {
 
-    // define quanto tempo o token vai durar
-    private static final Duration EXPIRATION_TIME = Duration.ofHours(24);
+    private static final Logger LOG = Logger.getLogger(JwtServiceImpl.class);
+
+    // definindo autorização de perfis através de roles (um conjunto fixo por perfil, montado uma vez só)
+    private static final Map<Perfil, Set<String>> ROLES = new EnumMap<>(Perfil.class);
+    static {
+        for (Perfil perfil : Perfil.values())
+            ROLES.put(perfil, Set.of(perfil.name()));
+    }
+
+    @ConfigProperty(name = "mp.jwt.verify.issuer")
+    String issuer;
+
+    // define quanto tempo o token vai durar (curto: para continuar logado o cliente usa o refresh token)
+    @ConfigProperty(name = "jwt.expiracao", defaultValue = "15m")
+    Duration expiracao;
+
+    @ConfigProperty(name = "smallrye.jwt.sign.key.location")
+    String localChave;
+
+    // RS256 por padrão; ES256 e EdDSA assinam bem mais rápido, mas pedem um par de chaves EC ou Ed25519
+    @ConfigProperty(name = "jwt.assinatura.algoritmo", defaultValue = "RS256")
+    String nomeAlgoritmo;
+
+    SignatureAlgorithm algoritmo;
+
+    // a chave privada é lida e convertida uma vez só, na subida da aplicação
+    PrivateKey chave;
+
+    @PostConstruct
+    void iniciar() {
+        algoritmo = SignatureAlgorithm.fromAlgorithm(nomeAlgoritmo);
+        try {
+            chave = KeyUtils.readPrivateKey(localChave, algoritmo);
+        } catch (Exception e) {
+            throw new IllegalStateException("Não foi possível ler a chave de assinatura do jwt: " + localChave, e);
+        }
+        LOG.infof("Chave de assinatura do jwt carregada (%s)", algoritmo.getAlgorithm());
+    }
 
     // método que vai gerar o jwt
     @Override
     public String generateJwt(String login, Perfil perfil) {
 
-        // data de expiração do token: pega o horário atual e soma com mais 24h
-        Instant expiryDate = Instant.now().plus(EXPIRATION_TIME);
-
-        // definindo autorização de perfis através de roles
-        Set<String> roles = new HashSet<String>();
-        roles.add(perfil.name());
+        // data de expiração do token: pega o horário atual e soma a duração configurada
+        Instant expiryDate = Instant.now().plus(expiracao);
 
         // construção do jwt
-        return Jwt.issuer("unitins-jwt")
+        return Jwt.issuer(issuer)
                 .subject(login)
-                .groups(roles)
+                .groups(ROLES.get(perfil))
                 .expiresAt(expiryDate)
-                .sign();
+                .jws()
+                .algorithm(algoritmo)
+                .sign(chave);
 
     }
     
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.List;
+import org.jose4j.jws.JsonWebSignature;
+import org.jose4j.jwt.JwtClaims;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.model.Perfil;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
+import io.smallrye.jwt.util.KeyUtils;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class JwtServiceImplTest {
+
+    @Inject
+    JwtService jwtService;
+
+    // método auxiliar que confere a assinatura com a chave pública e devolve as claims
+    private JwtClaims verificar(String token, PublicKey chavePublica) throws Exception {
+        JsonWebSignature jws = new JsonWebSignature();
+        jws.setCompactSerialization(token);
+        jws.setKey(chavePublica);
+        assertTrue(jws.verifySignature());
+        return JwtClaims.parse(jws.getPayload());
+    }
+
+    // o token sai assinado com a chave configurada e com o perfil como role
+    @Test
+    public void testGenerateJwt() throws Exception {
+        String token = jwtService.generateJwt("admin", Perfil.ADM);
+
+        JwtClaims claims = verificar(token, KeyUtils.readPublicKey("token/publicKey.pem"));
+        assertEquals("admin", claims.getSubject());
+        assertEquals("unitins-jwt", claims.getIssuer());
+        assertEquals(List.of("ADM"), claims.getStringListClaimValue("groups"));
+    }
+
+    // com ES256 o token usa o algoritmo e a chave EC informados
+    @Test
+    public void testGenerateJwtEs256() throws Exception {
+        KeyPair par = KeyUtils.generateKeyPair(256, SignatureAlgorithm.ES256);
+        JwtServiceImpl es256 = new JwtServiceImpl();
+        es256.issuer = "unitins-jwt";
+        es256.expiracao = Duration.ofMinutes(15);
+        es256.algoritmo = SignatureAlgorithm.ES256;
+        es256.chave = par.getPrivate();
+
+        String token = es256.generateJwt("user", Perfil.USER);
+
+        JsonWebSignature jws = new JsonWebSignature();
+        jws.setCompactSerialization(token);
+        assertEquals("ES256", jws.getAlgorithmHeaderValue());
+        assertEquals(List.of("USER"), verificar(token, par.getPublic()).getStringListClaimValue("groups"));
+    }
+}
@@ -0,0 +1,102 @@
+package br.unitins.topicos1.prancha.service;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import org.jboss.logging.Logger;
+import org.jboss.logmanager.LogContext;
+import org.jboss.logmanager.formatters.PatternFormatter;
+import org.jboss.logmanager.handlers.AsyncHandler;
+import org.jboss.logmanager.handlers.FileHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// mede quantas "requisições" por segundo passam pelos logs de um findById (as mesmas mensagens do PranchaServiceImpl)
+// - nivel INFO: log ligado, escrevendo no arquivo com o mesmo formato do application.properties
+// - nivel WARN: log desligado para essas mensagens
+// - arquivo sync: a thread da requisição escreve no arquivo; async: como quarkus.log.file.async=true, uma fila entre as duas
+//   que descarta as linhas novas quando enche (quarkus.log.file.async.overflow=discard)
+// é um microbenchmark só das chamadas de log; não mede a requisição inteira (banco, serialização, http)
+// concatenado é o jeito antigo ("..." + id), parametrizado é o LOG.infof usado agora nos services
+// rodar com: mvn test-compile e java -cp <classpath de teste> br.unitins.topicos1.prancha.service.LogBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Djava.util.logging.manager=org.jboss.logmanager.LogManager")
+public class LogBenchmark {
+
+    private static final String CATEGORIA = "br.unitins.topicos1.prancha.service.bench";
+    private static final Logger LOG = Logger.getLogger(CATEGORIA);
+
+    @Param({"INFO", "WARN"})
+    String nivel;
+
+    @Param({"sync", "async"})
+    String arquivo;
+
+    private File saida;
+    private Handler handler;
+
+    @Setup
+    public void preparar() throws Exception {
+        saida = File.createTempFile("log-benchmark", ".log");
+
+        FileHandler file = new FileHandler(saida, false);
+        file.setFormatter(new PatternFormatter("%d{dd-MM-yyyy HH:mm:ss} %-5p [%c{2.}] (%t) %s%e%n"));
+        if ("async".equals(arquivo)) {
+            AsyncHandler async = new AsyncHandler(1024);
+            async.setOverflowAction(AsyncHandler.OverflowAction.DISCARD);
+            async.addHandler(file);
+            handler = async;
+        } else {
+            handler = file;
+        }
+
+        org.jboss.logmanager.Logger logger = LogContext.getLogContext().getLogger(CATEGORIA);
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+        logger.setLevel(java.util.logging.Level.parse(nivel));
+    }
+
+    @TearDown
+    public void encerrar() {
+        LogContext.getLogContext().getLogger(CATEGORIA).removeHandler(handler);
+        handler.close();
+        saida.delete();
+    }
+
+    @Benchmark
+    public long concatenado() {
+        Long id = System.nanoTime() & 1023;
+        LOG.info("Buscando prancha por ID: " + id);
+        LOG.info("Prancha encontrada: ID = " + id);
+        return id;
+    }
+
+    @Benchmark
+    public long parametrizado() {
+        Long id = System.nanoTime() & 1023;
+        LOG.infof("Buscando prancha por ID: %s", id);
+        LOG.infof("Prancha encontrada: ID = %s", id);
+        return id;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(LogBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,73 @@
+package br.unitins.topicos1.prancha.service;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import br.unitins.topicos1.prancha.dto.CredencialDTO;
+import br.unitins.topicos1.prancha.model.Perfil;
+
+// mede quantos logins por segundo cada caminho aguenta (sem banco e sem http), para escolher o hash.pbkdf2.iteracoes:
+// - verificarSenha: um login numa thread, o inverso é o tempo que o usuário espera pelo hash
+// - verificarSenhaTodosNucleos: todas as threads juntas, dividido pelos núcleos dá o custo por núcleo
+// - loginPeloCache: login repetido que sai do CredencialCache
+// escolher o maior número de iterações que ainda deixa o login rápido e a vazão por núcleo dentro do orçamento
+// rodar com: mvn test-compile e java -cp <classpath de teste> br.unitins.topicos1.prancha.service.LoginBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    @Param({"100000", "210000", "310000", "600000"})
+    int iteracoes;
+
+    private HashServiceImpl hashService;
+    private CredencialCache credencialCache;
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        hashService = HashServiceImpl.comPbkdf2(iteracoes);
+        hash = hashService.getHashSenha("123456");
+
+        credencialCache = new CredencialCache();
+        credencialCache.tamanhoMaximo = 10_000;
+        credencialCache.expiracao = Duration.ofMinutes(5);
+        credencialCache.iniciar();
+        credencialCache.guardar("user", "123456", new CredencialDTO("user", Perfil.USER), credencialCache.versao());
+    }
+
+    @Benchmark
+    public boolean verificarSenha() {
+        return hashService.verificar("123456", hash);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean verificarSenhaTodosNucleos() {
+        return hashService.verificar("123456", hash);
+    }
+
+    @Benchmark
+    public CredencialDTO loginPeloCache() {
+        return credencialCache.buscar("user", "123456");
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(LoginBenchmark.class.getSimpleName()).build()).run();
+    }
+}
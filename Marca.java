@@ -1,7 +1,12 @@
 package br.unitins.topicos1.prancha.model;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
+@Cacheable
 @Entity
+@Table(indexes = @Index(name = "idx_marca_nome", columnList = "nome"))
 public class Marca extends DefaultEntity {
     
     private String nome;
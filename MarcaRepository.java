@@ -1,5 +1,6 @@
 package br.unitins.topicos1.prancha.repository;
 import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import br.unitins.topicos1.prancha.model.Marca;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -7,9 +8,15 @@ import jakarta.enterprise.context.ApplicationScoped;
 @ApplicationScoped
 public class MarcaRepository implements PanacheRepository<Marca> {
 
-    // buscando a marca pelo nome
+    // região do cache de consultas usada pelas buscas do catálogo (configurada no application.properties)
+    public static final String CACHE_CONSULTAS = "catalogo-consultas";
+
+    // buscando a marca pelo nome (o resultado fica no cache de consultas até alguma marca ser alterada)
     public List<Marca> findByNome(String nome) {
-        return list("nome", nome);
+        return find("nome", nome)
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
+                .withHint(HibernateHints.HINT_CACHE_REGION, CACHE_CONSULTAS)
+                .list();
     }
     
 }
\ No newline at end of file
@@ -15,6 +15,9 @@ public class MarcaServiceImpl implements MarcaService {
     @Inject
     MarcaRepository marcaRepository;
 
+    @Inject
+    CatalogoIndice indice;
+
     private static final Logger LOG = Logger.getLogger(MarcaServiceImpl.class);
 
     // busca todos os registros no banco
@@ -29,7 +32,7 @@ public class MarcaServiceImpl implements MarcaService {
             throw ValidationException.of("Lista de Marcas", "Nenhuma marca cadastrada");
         }
 
-        LOG.info("Total de marcas encontradas: " + listaMarcas.size());
+        LOG.infof("Total de marcas encontradas: %s", listaMarcas.size());
         return listaMarcas;
     }
 
@@ -52,7 +55,7 @@ public class MarcaServiceImpl implements MarcaService {
             throw ValidationException.of("nome", "Nenhuma marca encontrada para o nome informado");
         }
 
-        LOG.info("Marcas encontradas: " + listaMarcas.size());
+        LOG.infof("Marcas encontradas: %s", listaMarcas.size());
         return listaMarcas;
     }
 
@@ -140,6 +143,8 @@ public class MarcaServiceImpl implements MarcaService {
         marca.setNome(dto.nome());
         marca.setPaisOrigem(dto.paisOrigem());
 
+        // o nome da marca aparece nas pranchas do índice da busca
+        indice.recarregar();
         LOG.info("Marca atualizada com sucesso");
     }
 
@@ -164,6 +169,7 @@ public class MarcaServiceImpl implements MarcaService {
 
         // deleta a marca encontrada
         marcaRepository.delete(marca);
+        indice.recarregar();
         LOG.info("Marca removida com sucesso");
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package br.unitins.topicos1.prancha.service;
+import java.util.ArrayList;
+import java.util.List;
+import br.unitins.topicos1.prancha.dto.EventoPedidoDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+
+// guarda os eventos enviados numa lista em memória, usado nos testes (pedidos.outbox.sink=memoria)
+@ApplicationScoped
+public class MemoriaEventoPedidoSink implements EventoPedidoSink {
+
+    public static final String ID = "memoria";
+
+    private final List<EventoPedidoDTO> eventos = new ArrayList<>();
+
+    // simula o destino fora do ar: enquanto true, todo envio falha
+    private volatile boolean indisponivel;
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public synchronized void enviar(List<EventoPedidoDTO> lote) {
+        if (indisponivel)
+            throw new IllegalStateException("Destino dos eventos indisponível");
+        eventos.addAll(lote);
+    }
+
+    // cópia dos eventos recebidos até agora, na ordem de chegada
+    public synchronized List<EventoPedidoDTO> eventos() {
+        return List.copyOf(eventos);
+    }
+
+    public synchronized void limpar() {
+        eventos.clear();
+    }
+
+    public void setIndisponivel(boolean indisponivel) {
+        this.indisponivel = indisponivel;
+    }
+}
@@ -1,9 +1,14 @@
 package br.unitins.topicos1.prancha.model;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
+@Cacheable
 @Entity
+@Table(indexes = @Index(name = "idx_modelo_nome", columnList = "nome"))
 public class Modelo extends DefaultEntity {
     
     private String nome;
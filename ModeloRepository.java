@@ -1,5 +1,6 @@
 package br.unitins.topicos1.prancha.repository;
 import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import br.unitins.topicos1.prancha.model.Modelo;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -7,9 +8,12 @@ import jakarta.enterprise.context.ApplicationScoped;
 @ApplicationScoped
 public class ModeloRepository implements PanacheRepository<Modelo> {
 
-    // buscando o modelo pelo nome
+    // buscando o modelo pelo nome (usa o cache de consultas)
     public List<Modelo> findByNome(String nome) {
-        return list("nome", nome);
+        return find("nome", nome)
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
+                .withHint(HibernateHints.HINT_CACHE_REGION, MarcaRepository.CACHE_CONSULTAS)
+                .list();
     }
     
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package br.unitins.topicos1.prancha.service;
 import java.util.List;
+import java.util.Objects;
 import br.unitins.topicos1.prancha.dto.ModeloDTO;
 import br.unitins.topicos1.prancha.exception.ValidationException;
 import br.unitins.topicos1.prancha.model.Marca;
 import br.unitins.topicos1.prancha.model.Modelo;
 import br.unitins.topicos1.prancha.repository.MarcaRepository;
 import br.unitins.topicos1.prancha.repository.ModeloRepository;
+import br.unitins.topicos1.prancha.repository.PranchaRepository;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -20,6 +22,15 @@ public class ModeloServiceImpl implements ModeloService {
     @Inject
     MarcaRepository marcaRepository;
 
+    @Inject
+    PranchaRepository pranchaRepository;
+
+    @Inject
+    CatalogoIndice indice;
+
+    @Inject
+    ResumoVendas resumo;
+
     private static final Logger LOG = Logger.getLogger(ModeloServiceImpl.class);
 
     // busca todos os registros no banco
@@ -34,7 +45,7 @@ public class ModeloServiceImpl implements ModeloService {
             throw ValidationException.of("Lista de Modelos", "Nenhum modelo cadastrado");
         }
 
-        LOG.info("Total de modelos encontrados: " + listaModelos.size());
+        LOG.infof("Total de modelos encontrados: %s", listaModelos.size());
         return listaModelos;
     }
 
@@ -57,7 +68,7 @@ public class ModeloServiceImpl implements ModeloService {
             throw ValidationException.of("nome", "Nenhum modelo encontrado para o nome informado");
         }
 
-        LOG.info("Quantidade de modelos encontrados: " + listaModelos.size());
+        LOG.infof("Quantidade de modelos encontrados: %s", listaModelos.size());
         return listaModelos;
     }
 
@@ -155,10 +166,17 @@ public class ModeloServiceImpl implements ModeloService {
             throw ValidationException.of("idMarca", "Marca não encontrada");
         }
 
+        // a marca agrupa o resumo de vendas: se mudar, os pedidos das pranchas do modelo saem dele antes e entram de novo depois
+        List<Long> pranchas = modelo.getMarca() != null && Objects.equals(modelo.getMarca().getId(), marca.getId())
+                ? List.of() : pranchaRepository.findIdsByModelo(modelo.getId());
+        resumo.retirarPranchas(pranchas);
+
         // altera o modelo e a marca
         modelo.setNome(dto.nome());
         modelo.setMarca(marca);
+        resumo.registrarPranchas(pranchas);
 
+        indice.recarregar();
         LOG.infof("Modelo atualizado com sucesso: %s", modelo.getNome());
     }
 
@@ -182,6 +200,7 @@ public class ModeloServiceImpl implements ModeloService {
         }
 
         modeloRepository.delete(modelo);
+        indice.recarregar();
 
         LOG.info("Modelo removido com sucesso");
     }
@@ -0,0 +1,37 @@
+package br.unitins.topicos1.prancha.exception;
+import java.time.OffsetDateTime;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+@Provider
+@ApplicationScoped
+public class OptimisticLockExceptionMapper implements ExceptionMapper<OptimisticLockException> {
+
+    @Context
+    UriInfo uriInfo;
+
+    @ConfigProperty(name = "problem.base-url")
+    String baseUrl;
+
+    @Override
+    public Response toResponse(OptimisticLockException e) {
+        Problem p = new Problem();
+        p.type = baseUrl + "/errors/conflict";
+        p.title = "Conflito de atualização";
+        p.status = Response.Status.CONFLICT.getStatusCode();
+        p.detail = "O registro foi alterado por outra requisição. Tente novamente.";
+        p.instance = (uriInfo != null ? uriInfo.getRequestUri().getPath() : null);
+        p.timestamp = OffsetDateTime.now();
+
+        return Response.status(p.status)
+                .type("application/problem+json")
+                .entity(p)
+                .build();
+    }
+}
@@ -1,9 +1,11 @@
 package br.unitins.topicos1.prancha.service;
 import java.time.LocalDateTime;
+import java.util.List;
 import br.unitins.topicos1.prancha.exception.ValidationException;
 import br.unitins.topicos1.prancha.model.Pagamento;
 import br.unitins.topicos1.prancha.model.StatusPagamento;
 import br.unitins.topicos1.prancha.repository.PagamentoRepository;
+import br.unitins.topicos1.prancha.repository.PedidoRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -14,6 +16,12 @@ public class PagamentoServiceImpl implements PagamentoService {
     @Inject
     PagamentoRepository pagamentoRepository;
 
+    @Inject
+    PedidoRepository pedidoRepository;
+
+    @Inject
+    ResumoVendas resumo;
+
     // busca todos os registros pelo id no banco
     @Override
     public Pagamento findById(Long id) {
@@ -43,6 +51,10 @@ public class PagamentoServiceImpl implements PagamentoService {
             throw ValidationException.of("statusPagamento", "Status inválido");
         }
 
+        // o status muda, então o pedido desse pagamento sai do resumo de vendas e entra de novo depois
+        List<Long> pedidos = pedidoRepository.findIdsByPagamento(idPagamento);
+        resumo.retirar(pedidos);
+
         pagamento.setStatusPagamento(novoStatus);
 
         // quando o status vira "pago", ele registra a data e hora que o pagamento foi feito
@@ -50,6 +62,8 @@ public class PagamentoServiceImpl implements PagamentoService {
             pagamento.setDataPagamento(LocalDateTime.now());
         }
 
+        resumo.registrar(pedidos);
+
         return pagamento;
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package br.unitins.topicos1.prancha.service;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.util.HashMap;
+import java.util.Map;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class Pbkdf2HashAlgoritmo implements HashAlgoritmo {
+
+    public static final String ID = "pbkdf2-sha512";
+
+    // o getInstance procura o provedor a cada chamada, então cada thread guarda a sua fábrica e reaproveita
+    // (a SecretKeyFactory não é segura para uso por várias threads ao mesmo tempo)
+    private static final ThreadLocal<SecretKeyFactory> FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA512");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algoritmo de hash indisponível", e);
+        }
+    });
+
+    // número de vezes que o algoritmo repete o processo, quanto maior mais caro para quem tenta adivinhar a senha
+    @ConfigProperty(name = "hash.pbkdf2.iteracoes", defaultValue = "210000")
+    int iteracoes;
+
+    // tamanho do hash em bits
+    @ConfigProperty(name = "hash.pbkdf2.tamanho", defaultValue = "512")
+    int tamanho;
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public String parametros() {
+        return parametros(iteracoes, tamanho);
+    }
+
+    public static String parametros(int iteracoes, int tamanho) {
+        return "i=" + iteracoes + ",l=" + tamanho;
+    }
+
+    @Override
+    public byte[] derivar(String senha, byte[] salt, String parametros) {
+        Map<String, String> valores = new HashMap<>();
+        for (String par : parametros.split(",")) {
+            String[] chaveValor = par.split("=", 2);
+            if (chaveValor.length == 2)
+                valores.put(chaveValor[0], chaveValor[1]);
+        }
+
+        try {
+            int i = Integer.parseInt(valores.get("i"));
+            int l = Integer.parseInt(valores.get("l"));
+            return FACTORY.get().generateSecret(new PBEKeySpec(senha.toCharArray(), salt, i, l)).getEncoded();
+        } catch (NumberFormatException | InvalidKeySpecException e) {
+            throw new IllegalArgumentException("Parâmetros de hash inválidos: " + parametros, e);
+        }
+    }
+}
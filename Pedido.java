@@ -1,20 +1,35 @@
 package br.unitins.topicos1.prancha.model;
 import java.time.LocalDateTime;
 import java.util.List;
+import org.hibernate.annotations.ColumnDefault;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_pedido_cliente_data", columnList = "id_cliente, dataPedido"),
+    @Index(name = "idx_pedido_data", columnList = "dataPedido")
+})
 public class Pedido extends DefaultEntity {
 
     private LocalDateTime dataPedido;
     private double valorTotal;
 
+    // versão do pedido, incrementada a cada alteração dele ou do pagamento para detectar alterações concorrentes
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
     @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "id_endereco")
     private Endereco endereco;
@@ -47,6 +62,14 @@ public class Pedido extends DefaultEntity {
         this.valorTotal = valorTotal;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
     public Endereco getEndereco() {
         return endereco;
     }
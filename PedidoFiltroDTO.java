@@ -0,0 +1,16 @@
+package br.unitins.topicos1.prancha.dto;
+import java.time.LocalDate;
+import br.unitins.topicos1.prancha.model.StatusPagamento;
+
+public record PedidoFiltroDTO (
+
+    // período do pedido (os dois dias entram na busca), pode ser informado só o início ou só o fim
+    LocalDate dataInicio,
+    LocalDate dataFim,
+
+    StatusPagamento statusPagamento,
+
+    int page,
+    int size
+
+) {}
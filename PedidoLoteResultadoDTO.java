@@ -0,0 +1,21 @@
+package br.unitins.topicos1.prancha.dto;
+
+public record PedidoLoteResultadoDTO (
+
+    // posição do pedido na lista enviada
+    int indice,
+
+    boolean sucesso,
+    Long idPedido,
+    String erro
+
+) {
+
+    public static PedidoLoteResultadoDTO sucesso(int indice, Long idPedido) {
+        return new PedidoLoteResultadoDTO(indice, true, idPedido, null);
+    }
+
+    public static PedidoLoteResultadoDTO falha(int indice, String erro) {
+        return new PedidoLoteResultadoDTO(indice, false, null, erro);
+    }
+}
@@ -1,16 +1,80 @@
 package br.unitins.topicos1.prancha.repository;
+import java.time.LocalDateTime;
 import java.util.List;
-import br.unitins.topicos1.prancha.model.Cliente;
 import br.unitins.topicos1.prancha.model.Pedido;
+import br.unitins.topicos1.prancha.model.StatusPagamento;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Parameters;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
 
 @ApplicationScoped
 public class PedidoRepository implements PanacheRepository<Pedido> {
 
-    // buscando o pedido pelo cliente, aqui mostra o histórico de pedidos de um determinado cliente
-    public List<Pedido> findByCliente(Cliente cliente) {
-        return list("cliente", cliente);
+    // carrega o pedido com tudo que a resposta usa (cliente, telefone, endereço, pagamento, itens e pranchas) num único select
+    private static final String SELECT_COMPLETO = "SELECT DISTINCT p FROM Pedido p "
+            + "LEFT JOIN FETCH p.cliente c "
+            + "LEFT JOIN FETCH c.telefone "
+            + "LEFT JOIN FETCH p.endereco "
+            + "LEFT JOIN FETCH p.pagamento "
+            + "LEFT JOIN FETCH p.itens i "
+            + "LEFT JOIN FETCH i.prancha pr "
+            + "LEFT JOIN FETCH pr.modelo m "
+            + "LEFT JOIN FETCH m.marca ";
+
+    // buscando todos os pedidos já com os dados da resposta carregados
+    public List<Pedido> findAllCompleto() {
+        return find(SELECT_COMPLETO + "ORDER BY p.id").list();
+    }
+
+    // buscando um pedido pelo id já com os dados da resposta carregados
+    public Pedido findByIdCompleto(Long id) {
+        return find(SELECT_COMPLETO + "WHERE p.id = ?1", id).singleResultOptional().orElse(null);
+    }
+
+    // incrementa a versão do pedido no commit, mesmo quando só o endereço ou o pagamento foram alterados
+    public void incrementarVersao(Pedido pedido) {
+        getEntityManager().lock(pedido, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+
+    // buscando uma página do histórico de pedidos de um cliente, do mais recente para o mais antigo
+    // filtra direto pelo id do cliente (coluna id_cliente), sem precisar carregar o cliente antes
+    public List<Long> findIdsByCliente(Long idCliente, LocalDateTime inicio, LocalDateTime fim,
+                                       StatusPagamento status, int page, int size) {
+
+        StringBuilder jpql = new StringBuilder("SELECT p.id FROM Pedido p WHERE p.cliente.id = :idCliente");
+        if (inicio != null)
+            jpql.append(" AND p.dataPedido >= :inicio");
+        if (fim != null)
+            jpql.append(" AND p.dataPedido < :fim");
+        if (status != null)
+            jpql.append(" AND p.pagamento.statusPagamento = :status");
+        jpql.append(" ORDER BY p.dataPedido DESC, p.id DESC");
+
+        TypedQuery<Long> query = getEntityManager().createQuery(jpql.toString(), Long.class)
+                .setParameter("idCliente", idCliente);
+        if (inicio != null)
+            query.setParameter("inicio", inicio);
+        if (fim != null)
+            query.setParameter("fim", fim);
+        if (status != null)
+            query.setParameter("status", status);
+
+        return query.setFirstResult(page * size).setMaxResults(size).getResultList();
+    }
+
+    // buscando os ids dos pedidos pagos com um pagamento (só o id, sem carregar os pedidos)
+    public List<Long> findIdsByPagamento(Long idPagamento) {
+        return getEntityManager().createQuery("SELECT p.id FROM Pedido p WHERE p.pagamento.id = :idPagamento", Long.class)
+                .setParameter("idPagamento", idPagamento)
+                .getResultList();
+    }
+
+    // buscando os pedidos completos de uma página, mantendo a ordem do histórico
+    public List<Pedido> findCompletoByIds(List<Long> ids) {
+        return find(SELECT_COMPLETO + "WHERE p.id IN :ids ORDER BY p.dataPedido DESC, p.id DESC",
+                Parameters.with("ids", ids)).list();
     }
     
-}
\ No newline at end of file
+}
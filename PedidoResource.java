@@ -1,11 +1,18 @@
 package br.unitins.topicos1.prancha.resource;
+import java.time.LocalDate;
 import java.util.List;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 import br.unitins.topicos1.prancha.dto.PedidoDTO;
+import br.unitins.topicos1.prancha.dto.PedidoFiltroDTO;
+import br.unitins.topicos1.prancha.dto.PedidoLoteResultadoDTO;
 import br.unitins.topicos1.prancha.dto.PedidoResponseDTO;
+import br.unitins.topicos1.prancha.dto.PedidoStatusDTO;
+import br.unitins.topicos1.prancha.model.StatusPagamento;
 import br.unitins.topicos1.prancha.service.PedidoService;
+import br.unitins.topicos1.prancha.service.PedidoStatusBroadcaster;
+import io.smallrye.mutiny.Multi;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
@@ -20,6 +27,9 @@ public class PedidoResource {
     @Inject
     PedidoService pedidoService;
 
+    @Inject
+    PedidoStatusBroadcaster broadcaster;
+
     // busca todos os pedidos
     @GET
     @RolesAllowed({"ADM","USER"})
@@ -27,12 +37,28 @@ public class PedidoResource {
         return pedidoService.findAll();
     }
 
-    // busca o histórico de pedidos feitos por um determinado cliente
+    // busca o histórico de pedidos feitos por um determinado cliente, paginado e com filtros opcionais
     @GET
     @RolesAllowed({"ADM","USER"})
     @Path("/cliente/{idCliente}")
-    public List<PedidoResponseDTO> getByCliente(@PathParam("idCliente") Long idCliente) {
-        return pedidoService.findByCliente(idCliente);
+    public List<PedidoResponseDTO> getByCliente(@PathParam("idCliente") Long idCliente,
+                                                @QueryParam("dataInicio") LocalDate dataInicio,
+                                                @QueryParam("dataFim") LocalDate dataFim,
+                                                @QueryParam("status") StatusPagamento status,
+                                                @QueryParam("page") @DefaultValue("0") int page,
+                                                @QueryParam("size") @DefaultValue("20") int size) {
+        return pedidoService.findByCliente(idCliente, new PedidoFiltroDTO(dataInicio, dataFim, status, page, size));
+    }
+
+    // acompanha as mudanças de status dos pedidos de um cliente (server-sent events, um json por evento),
+    // em vez de consultar o pedido várias vezes até ele ser pago
+    @GET
+    @RolesAllowed({"ADM","USER"})
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<PedidoStatusDTO> stream(@QueryParam("idCliente") Long idCliente) {
+        return broadcaster.assinar(idCliente);
     }
 
     // cadastra um novo pedido
@@ -43,6 +69,14 @@ public class PedidoResource {
         return Response.status(Response.Status.CREATED).entity(pedido).build();
     }
 
+    // cadastra vários pedidos de uma vez, devolvendo o resultado de cada um (os que falham não impedem os demais)
+    @POST
+    @RolesAllowed("USER")
+    @Path("/batch")
+    public List<PedidoLoteResultadoDTO> incluirLote(List<PedidoDTO> dtos) {
+        return pedidoService.createLote(dtos);
+    }
+
     // altera um pedido existente
     @PUT
     @RolesAllowed("USER")
@@ -65,7 +99,6 @@ public class PedidoResource {
     @PUT
     @RolesAllowed("USER")
     @Path("/{id}/finalizar")
-    @Transactional
     public Response finalizar(@PathParam("id") Long idPedido) {
         pedidoService.finalizar(idPedido);
         return Response.ok("Pedido finalizado com sucesso.").build();
@@ -10,6 +10,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import br.unitins.topicos1.prancha.dto.*;
 import br.unitins.topicos1.prancha.model.Pix;
+import br.unitins.topicos1.prancha.model.StatusPagamento;
 import br.unitins.topicos1.prancha.service.PedidoService;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.security.TestSecurity;
@@ -24,6 +25,9 @@ public class PedidoResourceTest {
     @Inject
     PedidoResource pedidoResource; // injeta o resource real
 
+    @Inject
+    PedidoService servicoReal; // service real, para os testes que passam pela validação
+
     @Mock
     PedidoService pedidoService; // injeta o service real para ser mockado (cria um objeto falso do service)
 
@@ -117,7 +121,7 @@ public class PedidoResourceTest {
             List.of(new ItemPedidoDTO(1L, 2, 100.0))
         );
 
-        when(pedidoService.findByCliente(idCliente)).thenReturn(List.of(response)); // quando o service com esse cliente for chamado, vai retornar essa lista de pedidos
+        when(pedidoService.findByCliente(eq(idCliente), any())).thenReturn(List.of(response)); // quando o service com esse cliente for chamado, vai retornar essa lista de pedidos
 
         given()
         .when()
@@ -149,9 +153,10 @@ public class PedidoResourceTest {
             List.of(new ItemPedidoDTO(1L, 2, 100.0))
         );
 
-        when(pedidoService.findByCliente(idCliente)).thenReturn(List.of(response)); // quando o service com esse cliente for chamado, vai retornar essa lista de pedidos
+        when(pedidoService.findByCliente(idCliente, new PedidoFiltroDTO(null, null, StatusPagamento.PAGO, 0, 20))).thenReturn(List.of(response)); // quando o service com esse cliente for chamado, vai retornar essa lista de pedidos
 
         given()
+        .queryParam("status", "PAGO")
         .when()
         .get("/pedidos/cliente/" + idCliente)
         .then()
@@ -203,6 +208,38 @@ public class PedidoResourceTest {
         .body("formaPagamento", equalTo("PIX"));
     }
 
+    // cadastrando vários pedidos de uma vez
+    @Test
+    @TestSecurity(user = "user", roles = {"USER"})
+    public void testIncluirLote() {
+        PedidoDTO dto = new PedidoDTO(
+            1L,
+            new EnderecoDTO("Cidade", "UF", "00000-000"),
+            "PIX",
+            new PixDTO("chave-teste"),
+            null,
+            null,
+            List.of(new ItemPedidoDTO(1L, 2, null))
+        );
+
+        when(pedidoService.createLote(List.of(dto, dto))).thenReturn(List.of(
+            PedidoLoteResultadoDTO.sucesso(0, 10L),
+            PedidoLoteResultadoDTO.falha(1, "itens[0].idPrancha: Prancha não encontrada")
+        ));
+
+        given()
+        .contentType(ContentType.JSON)
+        .body(List.of(dto, dto))
+        .when()
+        .post("/pedidos/batch")
+        .then()
+        .statusCode(200)
+        .body("size()", is(2))
+        .body("[0].sucesso", is(true))
+        .body("[0].idPedido", is(10))
+        .body("[1].sucesso", is(false));
+    }
+
     // alterando um pedido
     @Test
     @TestSecurity(user = "user", roles = {"USER"})
@@ -267,4 +304,29 @@ public class PedidoResourceTest {
         .then()
         .statusCode(204);
     }
-}
\ No newline at end of file
+
+    // stream de status sem informar o cliente
+    @Test
+    @TestSecurity(user = "user", roles = {"USER"})
+    public void testStreamSemCliente() {
+        given()
+        .when()
+        .get("/pedidos/stream")
+        .then()
+        .statusCode(400);
+    }
+
+    // página enorme no histórico do cliente volta 400 e não 500 (o deslocamento da página não estoura)
+    @Test
+    @TestSecurity(user = "user", roles = {"USER"})
+    public void testGetByClientePaginaMaxima() {
+        pedidoResource.pedidoService = servicoReal;
+
+        given()
+        .queryParam("page", Integer.MAX_VALUE)
+        .when()
+        .get("/pedidos/cliente/1")
+        .then()
+        .statusCode(400);
+    }
+}
@@ -1,15 +1,18 @@
 package br.unitins.topicos1.prancha.service;
 import java.util.List;
 import br.unitins.topicos1.prancha.dto.PedidoDTO;
+import br.unitins.topicos1.prancha.dto.PedidoFiltroDTO;
+import br.unitins.topicos1.prancha.dto.PedidoLoteResultadoDTO;
 import br.unitins.topicos1.prancha.dto.PedidoResponseDTO;
 import jakarta.validation.Valid;
 
 public interface PedidoService {
 
     List<PedidoResponseDTO> findAll();
-    List<PedidoResponseDTO> findByCliente(Long idCliente);
+    List<PedidoResponseDTO> findByCliente(Long idCliente, PedidoFiltroDTO filtro);
     PedidoResponseDTO findById(Long id);
     PedidoResponseDTO create(PedidoDTO dto);
+    List<PedidoLoteResultadoDTO> createLote(List<PedidoDTO> dtos);
     void update(Long id, @Valid PedidoDTO dto);
     void delete(Long id);
     void pagar(Long id);
@@ -1,24 +1,42 @@
 package br.unitins.topicos1.prancha.service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.jboss.logging.Logger;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import br.unitins.topicos1.prancha.dto.*;
 import br.unitins.topicos1.prancha.exception.ValidationException;
 import br.unitins.topicos1.prancha.model.*;
 import br.unitins.topicos1.prancha.repository.ClienteRepository;
+import br.unitins.topicos1.prancha.repository.EventoPedidoRepository;
 import br.unitins.topicos1.prancha.repository.PedidoRepository;
 import br.unitins.topicos1.prancha.repository.PranchaRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 
 @ApplicationScoped
 public class PedidoServiceImpl implements PedidoService {
 
     private static final Logger LOG = Logger.getLogger(PedidoServiceImpl.class);
 
+    // tamanho máximo de uma página do histórico de pedidos
+    private static final int MAX_SIZE = 100;
+
+    // quantidade máxima de pedidos por importação e quantos pedidos são gravados em cada transação
+    private static final int MAX_LOTE = 5000;
+    private static final int PEDIDOS_POR_TRANSACAO = 100;
+
     @Inject
     PedidoRepository pedidoRepository;
 
@@ -28,6 +46,24 @@ public class PedidoServiceImpl implements PedidoService {
     @Inject
     PranchaRepository pranchaRepository;
 
+    @Inject
+    CatalogoCache cache;
+
+    @Inject
+    CatalogoIndice indice;
+
+    @Inject
+    ResumoVendas resumo;
+
+    @Inject
+    EventoPedidoRepository eventoRepository;
+
+    @Inject
+    PedidoStatusBroadcaster broadcaster;
+
+    @Inject
+    Validator validator;
+
     // método para criar todo o pagamento
     private Pagamento criarPagamento(PedidoDTO dto) {
 
@@ -73,7 +109,7 @@ public class PedidoServiceImpl implements PedidoService {
                 pagamento = cartao;
             }
             default -> { // se escolher outra forma, erro
-                LOG.error("Forma de pagamento inválida: " + forma);
+                LOG.errorf("Forma de pagamento inválida: %s", forma);
                 throw ValidationException.of("formaPagamento", "Forma de pagamento inválida. Use PIX, BOLETO ou CARTAO.");
             }
         }
@@ -84,43 +120,145 @@ public class PedidoServiceImpl implements PedidoService {
         return pagamento;
     }
 
+    // monta o pedido (endereço, pagamento e itens) a partir do dto, com o cliente e as pranchas já buscados no banco
+    private Pedido montarPedido(PedidoDTO dto, Cliente cliente, Map<Long, PranchaPrecoDTO> pranchas) {
+
+        // cria o pedido
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        pedido.setDataPedido(LocalDateTime.now());
+
+        // cria o endereço do pedido
+        Endereco end = new Endereco();
+        end.setCidade(dto.endereco().cidade());
+        end.setEstado(dto.endereco().estado());
+        end.setCep(dto.endereco().cep());
+        pedido.setEndereco(end);
+
+        // chama o método para criar o pagamento e associar ao pedido
+        Pagamento pagamento = criarPagamento(dto);
+        pedido.setPagamento(pagamento);
+
+        List<ItemPedido> itens = new ArrayList<>(); // criando uma lista pra armazenar cada item
+        double total = 0; // variável pra guardar o valor total do pedido
+
+        // para cada item que o cliente requisitou
+        for (ItemPedidoDTO itemDTO : dto.itens()) {
+
+            // buscar a prancha que o cliente quer comprar
+            PranchaPrecoDTO prancha = pranchas.get(itemDTO.idPrancha());
+            if (prancha == null) {
+                LOG.errorf("Prancha não encontrada ID: %s", itemDTO.idPrancha());
+                throw ValidationException.of("idPrancha", "Prancha não encontrada");
+            }
+
+            LOG.debugf("Item adicionado → Prancha: %s | Qtd: %s", prancha.tipoPrancha(), itemDTO.quantidade());
+
+            // se a prancha existir, cria o item do pedido
+            ItemPedido item = new ItemPedido();
+            item.setPedido(pedido);
+            item.setPrancha(pranchaRepository.getEntityManager().getReference(Prancha.class, prancha.id())); // só a chave
+            item.setQuantidade(itemDTO.quantidade());
+            item.setPrecoUnit(prancha.valor());
+            item.setSubTotal(prancha.valor() * itemDTO.quantidade()); // calcula o subtotal
+
+            total += item.getSubTotal(); // acumula o valor do subtotal
+            itens.add(item); // adiciona o item na lista
+        }
+
+        // associa os itens ao pedido
+        pedido.setItens(itens);
+        pedido.setValorTotal(total);
+
+        return pedido;
+    }
+
+    // grava os eventos dos pedidos no outbox, na mesma transação da alteração (o relay envia depois do commit),
+    // e avisa quem está ouvindo /pedidos/stream também depois do commit
+    private void publicar(TipoEventoPedido tipo, Collection<Pedido> pedidos) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<EventoPedidoDTO> eventos = pedidos.stream()
+                .map(pedido -> new EventoPedidoDTO(null, pedido.getId(),
+                        pedido.getCliente() == null ? null : pedido.getCliente().getId(), tipo,
+                        pedido.getPagamento().getStatusPagamento(), pedido.getValorTotal(), agora))
+                .toList();
+        eventoRepository.inserir(eventos);
+        broadcaster.publicar(eventos);
+    }
+
+    // busca preço e tipo das pranchas pelos ids (as que não estão no cache vêm numa única consulta) e devolve um mapa id -> prancha
+    private Map<Long, PranchaPrecoDTO> buscarPranchas(Collection<Long> ids) {
+        return cache.buscarTodos(new HashSet<>(ids),
+                faltando -> pranchaRepository.findByIds(faltando).stream()
+                        .collect(Collectors.toMap(Prancha::getId, PranchaPrecoDTO::valueOf)));
+    }
+
     // buscando todos os registros no banco, convertendo para o response e retornando uma lista
     @Override
     public List<PedidoResponseDTO> findAll() {
         LOG.info("Buscando todos os pedidos...");
-        List<Pedido> listaPedidos = pedidoRepository.listAll();
+        List<Pedido> listaPedidos = pedidoRepository.findAllCompleto();
 
         if (listaPedidos.isEmpty()) {
             LOG.warn("Nenhum pedido encontrado.");
             throw ValidationException.of("listaPedidos", "Nenhum pedido cadastrado");
         }
 
-        LOG.info(listaPedidos.size() + " pedidos encontrados.");
+        LOG.infof("%s pedidos encontrados.", listaPedidos.size());
         return listaPedidos.stream().map(this::toResponse).toList();
     }
 
-    // buscando o histórico de pedidos de um cliente no banco e retornando uma lista
+    // buscando uma página do histórico de pedidos de um cliente no banco e retornando uma lista
     @Override
-    public List<PedidoResponseDTO> findByCliente(Long idCliente) {
-        LOG.info("Buscando pedidos do cliente ID: " + idCliente);
+    public List<PedidoResponseDTO> findByCliente(Long idCliente, PedidoFiltroDTO filtro) {
+        LOG.infof("Buscando pedidos do cliente ID: %s", idCliente);
 
-        Cliente cliente = clienteRepository.findById(idCliente);
-        if (cliente == null) {
-            LOG.error("Cliente não encontrado ID: " + idCliente);
-            throw ValidationException.of("idCliente", "Cliente não encontrado");
+        // validações nos filtros
+        if (filtro.page() < 0) {
+            LOG.errorf("Página inválida: %s", filtro.page());
+            throw ValidationException.of("page", "A página deve ser zero ou maior");
+        }
+        if (filtro.size() <= 0 || filtro.size() > MAX_SIZE) {
+            LOG.errorf("Tamanho de página inválido: %s", filtro.size());
+            throw ValidationException.of("size", "O tamanho da página deve estar entre 1 e " + MAX_SIZE);
         }
+        // o deslocamento da página (page * size) precisa caber num int, a conta é feita em long para não estourar
+        if ((long) filtro.page() * filtro.size() > Integer.MAX_VALUE) {
+            LOG.errorf("Página além do limite: page %s, size %s", filtro.page(), filtro.size());
+            throw ValidationException.of("page", "A página está além do último pedido possível");
+        }
+        if (filtro.dataInicio() != null && filtro.dataFim() != null && filtro.dataInicio().isAfter(filtro.dataFim())) {
+            LOG.errorf("Período inválido: %s a %s", filtro.dataInicio(), filtro.dataFim());
+            throw ValidationException.of("dataInicio", "A data inicial deve ser anterior ou igual à data final");
+        }
+
+        // o dia final entra inteiro na busca
+        LocalDateTime inicio = (filtro.dataInicio() != null) ? filtro.dataInicio().atStartOfDay() : null;
+        LocalDateTime fim = (filtro.dataFim() != null) ? filtro.dataFim().plusDays(1).atStartOfDay() : null;
+
+        List<Long> ids = pedidoRepository.findIdsByCliente(idCliente, inicio, fim,
+                filtro.statusPagamento(), filtro.page(), filtro.size());
 
-        return pedidoRepository.findByCliente(cliente).stream().map(this::toResponse).toList();
+        if (ids.isEmpty()) {
+            // só confere se o cliente existe quando a página vem vazia
+            if (clienteRepository.count("id", idCliente) == 0) {
+                LOG.errorf("Cliente não encontrado ID: %s", idCliente);
+                throw ValidationException.of("idCliente", "Cliente não encontrado");
+            }
+            return List.of();
+        }
+
+        return pedidoRepository.findCompletoByIds(ids).stream().map(this::toResponse).toList();
     }
 
     // buscando todos os registros pelo id no banco
     @Override
     public PedidoResponseDTO findById(Long id) {
-        LOG.info("Buscando pedido por ID: " + id);
+        LOG.infof("Buscando pedido por ID: %s", id);
 
-        Pedido pedido = pedidoRepository.findById(id);
+        Pedido pedido = pedidoRepository.findByIdCompleto(id);
         if (pedido == null) {
-            LOG.error("Pedido não encontrado ID: " + id);
+            LOG.errorf("Pedido não encontrado ID: %s", id);
             throw ValidationException.of("id", "Pedido não encontrado");
         }
 
@@ -142,82 +280,170 @@ public class PedidoServiceImpl implements PedidoService {
 
         Cliente cliente = clienteRepository.findById(dto.idCliente());
         if (cliente == null) {
-            LOG.error("Cliente não encontrado ID: " + dto.idCliente());
+            LOG.errorf("Cliente não encontrado ID: %s", dto.idCliente());
             throw ValidationException.of("idCliente", "Cliente não encontrado");
         }
 
-        LOG.info("Cliente encontrado: " + cliente.getNome());
+        LOG.infof("Cliente encontrado: %s", cliente.getNome());
 
-        // cria o pedido
-        Pedido pedido = new Pedido();
-        pedido.setCliente(cliente);
-        pedido.setDataPedido(LocalDateTime.now());
+        // busca todas as pranchas do pedido numa única consulta
+        Map<Long, PranchaPrecoDTO> pranchas = buscarPranchas(dto.itens().stream().map(ItemPedidoDTO::idPrancha).toList());
+        Pedido pedido = montarPedido(dto, cliente, pranchas);
 
-        // cria o endereço do pedido
-        Endereco end = new Endereco();
-        end.setCidade(dto.endereco().cidade());
-        end.setEstado(dto.endereco().estado());
-        end.setCep(dto.endereco().cep());
-        pedido.setEndereco(end);
+        // cria o pedido no banco e soma ele no resumo de vendas
+        pedidoRepository.persist(pedido);
+        resumo.registrar(List.of(pedido.getId()));
+        publicar(TipoEventoPedido.CRIADO, List.of(pedido));
 
-        // chama o método para criar o pagamento e associar ao pedido
-        Pagamento pagamento = criarPagamento(dto);
-        pedido.setPagamento(pagamento);
+        LOG.infof("Pedido criado com sucesso! ID: %s | Total: R$ %s", pedido.getId(), pedido.getValorTotal());
 
-        List<ItemPedido> itens = new ArrayList<>(); // criando uma lista pra armazenar cada item
-        double total = 0; // variável pra guardar o valor total do pedido
+        return toResponse(pedido);
+    }
 
-        // para cada item que o cliente requisitou
-        for (ItemPedidoDTO itemDTO : dto.itens()) {
+    // importando vários pedidos de uma vez, cada pedido tem seu próprio resultado (sucesso ou erro)
+    @Override
+    public List<PedidoLoteResultadoDTO> createLote(List<PedidoDTO> dtos) {
+        LOG.info("Importando lote de pedidos...");
 
-            // buscar a prancha que o cliente quer comprar
-            Prancha prancha = pranchaRepository.findById(itemDTO.idPrancha());
-            if (prancha == null) {
-                LOG.error("Prancha não encontrada ID: " + itemDTO.idPrancha());
-                throw ValidationException.of("idPrancha", "Prancha não encontrada");
-            }
+        if (dtos == null || dtos.isEmpty()) {
+            LOG.error("Lote de pedidos vazio.");
+            throw ValidationException.of("pedidos", "O lote deve ter pelo menos um pedido");
+        }
+        if (dtos.size() > MAX_LOTE) {
+            LOG.errorf("Lote de pedidos muito grande: %s", dtos.size());
+            throw ValidationException.of("pedidos", "O lote pode ter no máximo " + MAX_LOTE + " pedidos");
+        }
 
-            LOG.info("Item adicionado → Prancha: " + prancha.getTipoPrancha()
-                    + " | Qtd: " + itemDTO.quantidade());
+        PedidoLoteResultadoDTO[] resultados = new PedidoLoteResultadoDTO[dtos.size()];
 
-            // se a prancha existir, cria o item do pedido
-            ItemPedido item = new ItemPedido();
-            item.setPedido(pedido);
-            item.setPrancha(prancha);
-            item.setQuantidade(itemDTO.quantidade());
-            item.setPrecoUnit(prancha.getValor());
-            item.setSubTotal(prancha.getValor() * itemDTO.quantidade()); // calcula o subtotal
+        // valida os campos de cada pedido antes de ir ao banco
+        List<Integer> validos = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            String erro = validar(dtos.get(i));
+            if (erro != null)
+                resultados[i] = PedidoLoteResultadoDTO.falha(i, erro);
+            else
+                validos.add(i);
+        }
 
-            total += item.getSubTotal(); // acumula o valor do subtotal
-            itens.add(item); // adiciona o item na lista
+        // busca todos os clientes e todas as pranchas do lote com uma consulta cada
+        Map<Long, Cliente> clientes = clienteRepository.findByIds(
+                validos.stream().map(i -> dtos.get(i).idCliente()).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        Map<Long, PranchaPrecoDTO> pranchas = buscarPranchas(validos.stream()
+                .flatMap(i -> dtos.get(i).itens().stream().map(ItemPedidoDTO::idPrancha)).toList());
+
+        // grava em blocos, cada bloco numa transação própria (os inserts do bloco vão em lote para o banco)
+        for (int inicio = 0; inicio < validos.size(); inicio += PEDIDOS_POR_TRANSACAO) {
+            List<Integer> bloco = validos.subList(inicio, Math.min(inicio + PEDIDOS_POR_TRANSACAO, validos.size()));
+            Map<Integer, Pedido> gravados = new LinkedHashMap<>();
+
+            try {
+                QuarkusTransaction.requiringNew().run(() -> {
+                    gravados.clear();
+                    for (Integer i : bloco) {
+                        Pedido pedido = montarPedidoDoLote(i, dtos.get(i), clientes, pranchas, resultados);
+                        if (pedido != null) {
+                            pedidoRepository.persist(pedido);
+                            gravados.put(i, pedido);
+                        }
+                    }
+                    // os pedidos do bloco entram no resumo de vendas num comando só
+                    resumo.registrar(gravados.values().stream().map(Pedido::getId).toList());
+                    publicar(TipoEventoPedido.CRIADO, gravados.values());
+                });
+                gravados.forEach((i, pedido) -> resultados[i] = PedidoLoteResultadoDTO.sucesso(i, pedido.getId()));
+            } catch (RuntimeException e) {
+                // o bloco inteiro foi desfeito: grava um a um os pedidos do bloco que ainda não têm resultado
+                // (os gravados, o que falhou e os que vinham depois dele) para descobrir qual falhou
+                LOG.warnf("Falha ao gravar bloco de pedidos, gravando individualmente: %s", e.getMessage());
+                for (Integer i : bloco)
+                    if (resultados[i] == null)
+                        gravarIndividualmente(i, dtos.get(i), clientes, pranchas, resultados);
+            }
         }
 
-        // associa os itens ao pedido
-        pedido.setItens(itens);
-        pedido.setValorTotal(total);
+        long sucessos = Arrays.stream(resultados).filter(PedidoLoteResultadoDTO::sucesso).count();
+        LOG.infof("Lote importado: %s de %s pedidos gravados.", sucessos, dtos.size());
+        return List.of(resultados);
+    }
 
-        // cria o pedido no banco
-        pedidoRepository.persist(pedido);
+    // valida as anotações do dto e devolve a mensagem de erro (ou null se estiver tudo certo)
+    private String validar(PedidoDTO dto) {
+        if (dto == null)
+            return "Dados do pedido são obrigatórios";
 
-        LOG.info("Pedido criado com sucesso! ID: " + pedido.getId()
-                + " | Total: R$ " + pedido.getValorTotal());
+        var violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty())
+            return violacoes.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
 
-        return toResponse(pedido);
+        if (dto.itens().isEmpty() || dto.itens().stream().anyMatch(item -> item == null || item.idPrancha() == null))
+            return "itens: O pedido deve ter itens com prancha informada";
+
+        return null;
+    }
+
+    // monta um pedido do lote, registrando a falha no resultado quando os dados não permitem criar o pedido
+    private Pedido montarPedidoDoLote(int indice, PedidoDTO dto, Map<Long, Cliente> clientes,
+                                      Map<Long, PranchaPrecoDTO> pranchas, PedidoLoteResultadoDTO[] resultados) {
+        Cliente cliente = clientes.get(dto.idCliente());
+        if (cliente == null) {
+            resultados[indice] = PedidoLoteResultadoDTO.falha(indice, "idCliente: Cliente não encontrado");
+            return null;
+        }
+        try {
+            return montarPedido(dto, cliente, pranchas);
+        } catch (ValidationException e) {
+            resultados[indice] = PedidoLoteResultadoDTO.falha(indice, e.getFieldErrors().stream()
+                    .map(erro -> erro.field + ": " + erro.message)
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+    }
+
+    // grava um único pedido do lote na sua própria transação
+    // quando os dados não permitem criar o pedido a falha já fica no resultado e nada é gravado
+    private void gravarIndividualmente(int indice, PedidoDTO dto, Map<Long, Cliente> clientes,
+                                       Map<Long, PranchaPrecoDTO> pranchas, PedidoLoteResultadoDTO[] resultados) {
+        try {
+            Long id = QuarkusTransaction.requiringNew().call(() -> {
+                Pedido pedido = montarPedidoDoLote(indice, dto, clientes, pranchas, resultados);
+                if (pedido == null)
+                    return null;
+                pedidoRepository.persist(pedido);
+                resumo.registrar(List.of(pedido.getId()));
+                publicar(TipoEventoPedido.CRIADO, List.of(pedido));
+                return pedido.getId();
+            });
+            if (id != null)
+                resultados[indice] = PedidoLoteResultadoDTO.sucesso(indice, id);
+        } catch (RuntimeException e) {
+            LOG.errorf("Falha ao gravar pedido %s do lote: %s", indice, e.getMessage());
+            resultados[indice] = PedidoLoteResultadoDTO.falha(indice, "Erro ao gravar o pedido");
+        }
     }
 
     // alterando um pedido
     @Override
+    @RetryOnConflict
     @Transactional
     public void update(Long id, @Valid PedidoDTO dto) {
 
         // validações nos campos obrigatórios
-        LOG.info("Atualizando pedido ID: " + id);
+        LOG.infof("Atualizando pedido ID: %s", id);
 
         Pedido pedido = pedidoRepository.findById(id);
         if (pedido == null) {
-            LOG.error("Pedido não encontrado ID: " + id);
+            LOG.errorf("Pedido não encontrado ID: %s", id);
             throw ValidationException.of("id", "Pedido não encontrado");
         }
+        pedidoRepository.incrementarVersao(pedido);
+
+        // a forma de pagamento muda, então o pedido sai do resumo de vendas e entra de novo no fim
+        resumo.retirar(List.of(id));
 
         // altera o endereço
         Endereco end = pedido.getEndereco();
@@ -227,26 +453,29 @@ public class PedidoServiceImpl implements PedidoService {
 
         // altera a forma de pagamento
         pedido.setPagamento(criarPagamento(dto));
+        resumo.registrar(List.of(id));
 
-        LOG.info("Pedido atualizado com sucesso ID: " + id);
+        LOG.infof("Pedido atualizado com sucesso ID: %s", id);
     }
 
     // deletando um pedido
     @Override
+    @RetryOnConflict
     @Transactional
     public void delete(Long id) {
 
         // validações nos campos obrigatórios
-        LOG.info("Deletando pedido ID: " + id);
+        LOG.infof("Deletando pedido ID: %s", id);
 
         Pedido pedido = pedidoRepository.findById(id);
         if (pedido == null) {
-            LOG.error("Pedido não encontrado ID: " + id);
+            LOG.errorf("Pedido não encontrado ID: %s", id);
             throw ValidationException.of("id", "Pedido não encontrado");
         }
 
+        resumo.retirar(List.of(id));
         pedidoRepository.delete(pedido);
-        LOG.info("Pedido deletado com sucesso ID: " + id);
+        LOG.infof("Pedido deletado com sucesso ID: %s", id);
     }
 
     // método para converter a entidade em um DTO de resposta
@@ -301,69 +530,82 @@ public class PedidoServiceImpl implements PedidoService {
 
     // simulando um pagamento manual
     @Override
+    @RetryOnConflict
     @Transactional
     public void pagar(Long id) {
 
         // validações nos campos obrigatórios
-        LOG.info("Processando pagamento do pedido ID: " + id);
+        LOG.infof("Processando pagamento do pedido ID: %s", id);
 
         Pedido pedido = pedidoRepository.findById(id);
         if (pedido == null) {
-            LOG.error("Pedido não encontrado ID: " + id);
+            LOG.errorf("Pedido não encontrado ID: %s", id);
             throw ValidationException.of("id", "Pedido não encontrado");
         }
+        pedidoRepository.incrementarVersao(pedido);
+
+        // o status muda, então o pedido sai do resumo de vendas e entra de novo como pago
+        resumo.retirar(List.of(id));
 
         Pagamento pagamento = pedido.getPagamento();
         pagamento.setStatusPagamento(StatusPagamento.PAGO); // marca o pagamento como "pago"
         pagamento.setDataPagamento(LocalDateTime.now()); // registra a data e a hora
 
         pedidoRepository.persist(pedido);
+        resumo.registrar(List.of(id));
+        publicar(TipoEventoPedido.PAGO, List.of(pedido));
 
-        LOG.info("Pagamento confirmado! Pedido ID: " + id);
+        LOG.infof("Pagamento confirmado! Pedido ID: %s", id);
     }
 
     // encerrando o pedido
     @Override
+    @RetryOnConflict
     @Transactional
     public void finalizar(Long idPedido) {
 
         // validações nos campos obrigatórios
-        LOG.info("Finalizando pedido ID: " + idPedido);
+        LOG.infof("Finalizando pedido ID: %s", idPedido);
 
-        Pedido pedido = pedidoRepository.findById(idPedido);
+        Pedido pedido = pedidoRepository.findByIdCompleto(idPedido);
         if (pedido == null) {
-            LOG.error("Pedido não encontrado ID: " + idPedido);
+            LOG.errorf("Pedido não encontrado ID: %s", idPedido);
             throw ValidationException.of("idPedido", "Pedido não encontrado");
         }
+        pedidoRepository.incrementarVersao(pedido);
 
-        // para cada item
+        // soma as quantidades por prancha, ordenado pelo id para pedidos concorrentes travarem as linhas na mesma ordem
+        Map<Long, Integer> quantidadePorPrancha = new TreeMap<>();
+        Map<Long, Prancha> pranchas = new TreeMap<>();
         for (ItemPedido item : pedido.getItens()) {
-            Prancha prancha = item.getPrancha();
+            quantidadePorPrancha.merge(item.getPrancha().getId(), item.getQuantidade(), Integer::sum);
+            pranchas.put(item.getPrancha().getId(), item.getPrancha());
+        }
 
-            LOG.info("Verificando estoque da prancha: " + prancha.getTipoPrancha());
+        // baixa o estoque de todas as pranchas num único lote, o banco só atualiza se ainda houver estoque
+        Map<Long, EstoqueReservadoDTO> reservados = pranchaRepository.reservarEstoque(quantidadePorPrancha);
 
-            // verifica se tem estoque suficiente para aquela prancha
-            if (prancha.getEstoque() < item.getQuantidade()) {
-                LOG.error("Estoque insuficiente! Prancha: "
-                        + prancha.getTipoPrancha());
+        // se alguma prancha não foi atualizada, faltou estoque e a transação inteira é desfeita
+        for (Prancha prancha : pranchas.values()) {
+            if (!reservados.containsKey(prancha.getId())) {
+                LOG.errorf("Estoque insuficiente! Prancha: %s", prancha.getTipoPrancha());
                 throw ValidationException.of("estoque",
                         "Prancha " + prancha.getTipoPrancha() + " não tem estoque suficiente!");
             }
-
-            // se o estoque for suficiente
-            prancha.setEstoque(prancha.getEstoque() - item.getQuantidade()); // diminuir o estoque
-            pranchaRepository.persist(prancha); // salvar o novo estoque da prancha no banco
-
-            LOG.info("Estoque atualizado → Prancha: " + prancha.getTipoPrancha()
-                    + " | Novo estoque: " + prancha.getEstoque());
         }
 
-        // atualiza as informações
+        indice.baixarEstoque(reservados.values());
+        LOG.infof("Estoque reservado para %s prancha(s) do pedido ID: %s", pranchas.size(), idPedido);
+
+        // atualiza as informações (o pedido sai do resumo de vendas e entra de novo como pago)
+        resumo.retirar(List.of(idPedido));
         pedido.getPagamento().setStatusPagamento(StatusPagamento.PAGO);
         pedido.getPagamento().setDataPagamento(LocalDateTime.now());
 
         pedidoRepository.persist(pedido);
+        resumo.registrar(List.of(idPedido));
+        publicar(TipoEventoPedido.FINALIZADO, List.of(pedido));
 
-        LOG.info("Pedido finalizado com sucesso ID: " + idPedido);
+        LOG.infof("Pedido finalizado com sucesso ID: %s", idPedido);
     }
 }
\ No newline at end of file
@@ -0,0 +1,232 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.dto.EnderecoDTO;
+import br.unitins.topicos1.prancha.dto.ItemPedidoDTO;
+import br.unitins.topicos1.prancha.dto.PedidoDTO;
+import br.unitins.topicos1.prancha.dto.PedidoFiltroDTO;
+import br.unitins.topicos1.prancha.dto.PedidoLoteResultadoDTO;
+import br.unitins.topicos1.prancha.dto.PedidoResponseDTO;
+import br.unitins.topicos1.prancha.dto.PixDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
+import br.unitins.topicos1.prancha.model.StatusPagamento;
+import br.unitins.topicos1.prancha.repository.ItemPedidoRepository;
+import br.unitins.topicos1.prancha.repository.PranchaRepository;
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class PedidoServiceImplTest {
+
+    private static final Logger LOG = Logger.getLogger(PedidoServiceImplTest.class);
+
+    // esse teste usa o banco de teste (R__dados_iniciais.sql) e as estatísticas do hibernate para contar os comandos sql
+
+    @Inject
+    PedidoService pedidoService;
+
+    @Inject
+    PranchaRepository pranchaRepository;
+
+    @Inject
+    ItemPedidoRepository itemPedidoRepository;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    // método auxiliar que zera as estatísticas antes de uma medição
+    private Statistics iniciarContagem() {
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+        return stats;
+    }
+
+    // listar os pedidos deve carregar cliente, endereço, pagamento e itens no mesmo select
+    @Test
+    @TestTransaction
+    public void testFindAllUsaUmComando() {
+        Statistics stats = iniciarContagem();
+
+        List<PedidoResponseDTO> pedidos = pedidoService.findAll();
+
+        assertFalse(pedidos.isEmpty());
+        assertFalse(pedidos.get(0).itens().isEmpty());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    // buscar um pedido pelo id também deve precisar de um único select
+    @Test
+    @TestTransaction
+    public void testFindByIdUsaUmComando() {
+        Statistics stats = iniciarContagem();
+
+        PedidoResponseDTO pedido = pedidoService.findById(1L);
+
+        assertEquals("Pix", pedido.formaPagamento());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    // o histórico filtra pelo id do cliente e pelo status sem carregar o cliente antes (ids da página + pedidos completos)
+    @Test
+    @TestTransaction
+    public void testFindByClienteFiltraNoBanco() {
+        Statistics stats = iniciarContagem();
+
+        List<PedidoResponseDTO> pagos = pedidoService.findByCliente(1L, new PedidoFiltroDTO(null, null, StatusPagamento.PAGO, 0, 20));
+
+        assertEquals(1, pagos.size());
+        assertEquals(2, stats.getPrepareStatementCount());
+        assertTrue(pedidoService.findByCliente(1L, new PedidoFiltroDTO(null, null, StatusPagamento.PENDENTE, 0, 20)).isEmpty());
+    }
+
+    // cliente inexistente continua sendo um erro de validação
+    @Test
+    @TestTransaction
+    public void testFindByClienteInexistente() {
+        assertThrows(ValidationException.class,
+                () -> pedidoService.findByCliente(999L, new PedidoFiltroDTO(null, null, null, 0, 20)));
+    }
+
+    // uma página enorme é um erro de validação, o deslocamento da página não estoura
+    @Test
+    public void testFindByClientePaginaMaxima() {
+        assertThrows(ValidationException.class,
+                () -> pedidoService.findByCliente(1L, new PedidoFiltroDTO(null, null, null, Integer.MAX_VALUE, 20)));
+        assertThrows(ValidationException.class,
+                () -> pedidoService.findByCliente(1L, new PedidoFiltroDTO(null, null, null, 21474837, 100)));
+    }
+
+    // finalizar baixa o estoque de todas as pranchas do pedido num único lote
+    @Test
+    @TestTransaction
+    public void testFinalizarBaixaEstoque() {
+        pedidoService.finalizar(1L); // pedido do R__dados_iniciais.sql: 2 da prancha 1 (estoque 10) e 1 da prancha 2 (estoque 5)
+
+        pranchaRepository.getEntityManager().clear(); // descarta as pranchas antigas do contexto para ler o estoque do banco
+        assertEquals(8, pranchaRepository.findById(1L).getEstoque());
+        assertEquals(4, pranchaRepository.findById(2L).getEstoque());
+    }
+
+    // se faltar estoque de alguma prancha, finalizar falha
+    @Test
+    @TestTransaction
+    public void testFinalizarSemEstoque() {
+        itemPedidoRepository.findById(2L).setQuantidade(100);
+        itemPedidoRepository.flush();
+
+        assertThrows(ValidationException.class, () -> pedidoService.finalizar(1L));
+    }
+
+    // criar um pedido com vários itens: as pranchas vêm numa consulta só e os inserts vão em lote,
+    // então os comandos não crescem com a quantidade de itens
+    @Test
+    @TestTransaction
+    public void testCreateComandosPorPedido() {
+        PedidoDTO umItem = criarPedidoTeste(List.of(new ItemPedidoDTO(1L, 1, null)));
+        PedidoDTO tresItens = criarPedidoTeste(
+            List.of(new ItemPedidoDTO(1L, 1, null), new ItemPedidoDTO(2L, 1, null), new ItemPedidoDTO(1L, 2, null)));
+        pedidoService.create(tresItens); // primeiro pedido só para os geradores de id já terem reservado os blocos
+
+        long comandosUmItem = contarComandosCreate(umItem);
+        long comandosTresItens = contarComandosCreate(tresItens);
+
+        LOG.infof("Comandos SQL para criar um pedido: 1 item = %d, 3 itens = %d", comandosUmItem, comandosTresItens);
+        assertEquals(comandosUmItem, comandosTresItens);
+    }
+
+    // método auxiliar que monta um pedido via pix do cliente 1
+    private PedidoDTO criarPedidoTeste(List<ItemPedidoDTO> itens) {
+        return new PedidoDTO(1L, new EnderecoDTO("Palmas", "TO", "77000000"), "PIX", new PixDTO("joao@pix.com"),
+            null, null, itens);
+    }
+
+    // método auxiliar que conta os comandos de um create partindo de um contexto vazio, como numa requisição nova
+    private long contarComandosCreate(PedidoDTO dto) {
+        pranchaRepository.getEntityManager().flush();
+        pranchaRepository.getEntityManager().clear();
+
+        Statistics stats = iniciarContagem();
+        pedidoService.create(dto);
+        pranchaRepository.getEntityManager().flush(); // força os inserts pendentes
+        return stats.getPrepareStatementCount();
+    }
+
+    // importar um lote: os pedidos válidos são gravados e os inválidos voltam com o erro, sem derrubar o lote
+    @Test
+    public void testCreateLoteResultadoPorPedido() {
+        EnderecoDTO endereco = new EnderecoDTO("Palmas", "TO", "77000000");
+        PedidoDTO valido = new PedidoDTO(1L, endereco, "PIX", new PixDTO("joao@pix.com"), null, null,
+                List.of(new ItemPedidoDTO(1L, 1, null), new ItemPedidoDTO(2L, 1, null)));
+        PedidoDTO pranchaInexistente = new PedidoDTO(1L, endereco, "PIX", new PixDTO("joao@pix.com"), null, null,
+                List.of(new ItemPedidoDTO(999L, 1, null)));
+        PedidoDTO clienteInexistente = new PedidoDTO(999L, endereco, "PIX", new PixDTO("joao@pix.com"), null, null,
+                List.of(new ItemPedidoDTO(1L, 1, null)));
+        PedidoDTO semEndereco = new PedidoDTO(1L, null, "PIX", new PixDTO("joao@pix.com"), null, null,
+                List.of(new ItemPedidoDTO(1L, 1, null)));
+
+        List<PedidoLoteResultadoDTO> resultados = pedidoService.createLote(
+                List.of(valido, pranchaInexistente, clienteInexistente, semEndereco, valido));
+
+        try {
+            assertEquals(5, resultados.size());
+            assertTrue(resultados.get(0).sucesso());
+            assertNotNull(resultados.get(0).idPedido());
+            assertFalse(resultados.get(1).sucesso());
+            assertTrue(resultados.get(1).erro().contains("Prancha não encontrada"));
+            assertFalse(resultados.get(2).sucesso());
+            assertTrue(resultados.get(2).erro().contains("Cliente não encontrado"));
+            assertFalse(resultados.get(3).sucesso());
+            assertTrue(resultados.get(3).erro().contains("endereco"));
+            assertTrue(resultados.get(4).sucesso());
+
+            PedidoResponseDTO gravado = pedidoService.findById(resultados.get(0).idPedido());
+            assertEquals(2, gravado.itens().size());
+        } finally {
+            // remove os pedidos gravados para não interferir nos outros testes
+            resultados.stream().filter(PedidoLoteResultadoDTO::sucesso)
+                    .forEach(r -> pedidoService.delete(r.idPedido()));
+        }
+    }
+
+    // um pedido que derruba o bloco no meio (quantidade nula passa pela validação e falha ao calcular o total):
+    // ele e os pedidos depois dele no bloco são gravados um a um e cada um volta com o seu resultado
+    @Test
+    public void testCreateLoteFalhaNoMeioDoBloco() {
+        EnderecoDTO endereco = new EnderecoDTO("Palmas", "TO", "77000000");
+        PedidoDTO valido = new PedidoDTO(1L, endereco, "PIX", new PixDTO("joao@pix.com"), null, null,
+                List.of(new ItemPedidoDTO(1L, 1, null)));
+        PedidoDTO quantidadeNula = new PedidoDTO(1L, endereco, "PIX", new PixDTO("joao@pix.com"), null, null,
+                List.of(new ItemPedidoDTO(1L, null, null)));
+        PedidoDTO pranchaInexistente = new PedidoDTO(1L, endereco, "PIX", new PixDTO("joao@pix.com"), null, null,
+                List.of(new ItemPedidoDTO(999L, 1, null)));
+
+        List<PedidoLoteResultadoDTO> resultados = pedidoService.createLote(
+                List.of(valido, valido, quantidadeNula, pranchaInexistente, valido));
+
+        try {
+            assertEquals(5, resultados.size());
+            assertTrue(resultados.get(0).sucesso());
+            assertTrue(resultados.get(1).sucesso());
+            assertFalse(resultados.get(2).sucesso());
+            assertFalse(resultados.get(3).sucesso());
+            assertTrue(resultados.get(3).erro().contains("Prancha não encontrada"));
+            assertTrue(resultados.get(4).sucesso());
+            for (int i : new int[] {0, 1, 4})
+                assertNotNull(pedidoService.findById(resultados.get(i).idPedido()));
+        } finally {
+            resultados.stream().filter(PedidoLoteResultadoDTO::sucesso)
+                    .forEach(r -> pedidoService.delete(r.idPedido()));
+        }
+    }
+
+    // um lote vazio é recusado
+    @Test
+    public void testCreateLoteVazio() {
+        assertThrows(ValidationException.class, () -> pedidoService.createLote(List.of()));
+    }
+}
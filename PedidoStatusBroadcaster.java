@@ -0,0 +1,129 @@
+package br.unitins.topicos1.prancha.service;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import br.unitins.topicos1.prancha.dto.EventoPedidoDTO;
+import br.unitins.topicos1.prancha.dto.PedidoStatusDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureFailure;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+// entrega as mudanças de status dos pedidos (criado, pago, finalizado) para quem está ouvindo GET /pedidos/stream,
+// direto da memória, sem consulta ao banco: cada conexão assina os pedidos de um cliente
+// cada assinante tem um buffer limitado (pedidos.stream.buffer); quem não lê e deixa o buffer encher é desconectado
+// (o EventSource do navegador reconecta sozinho, e o cliente confere o pedido no GET de sempre)
+@ApplicationScoped
+public class PedidoStatusBroadcaster {
+
+    private static final Logger LOG = Logger.getLogger(PedidoStatusBroadcaster.class);
+
+    @ConfigProperty(name = "pedidos.stream.buffer", defaultValue = "16")
+    int tamanhoBuffer;
+
+    @Inject
+    TransactionSynchronizationRegistry transacoes;
+
+    @Inject
+    MeterRegistry registry;
+
+    // assinantes por id do cliente
+    private final Map<Long, Set<MultiEmitter<? super PedidoStatusDTO>>> assinantes = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+
+    private Counter desconectados;
+
+    @PostConstruct
+    void iniciar() {
+        Gauge.builder("pedidos.stream.assinantes", total, AtomicInteger::get)
+                .description("Conexões abertas em /pedidos/stream")
+                .register(registry);
+        desconectados = Counter.builder("pedidos.stream.desconectados")
+                .description("Assinantes desconectados por não acompanhar os eventos (buffer cheio)")
+                .register(registry);
+    }
+
+    // abre a assinatura dos pedidos de um cliente; ela vale até a conexão fechar ou o buffer encher
+    public Multi<PedidoStatusDTO> assinar(Long idCliente) {
+        if (idCliente == null || idCliente <= 0) {
+            LOG.errorf("Cliente inválido para o stream de pedidos: %s", idCliente);
+            throw ValidationException.of("idCliente", "O id do cliente é obrigatório");
+        }
+
+        Multi<PedidoStatusDTO> eventos = Multi.createFrom().emitter(emitter -> {
+            assinantes.compute(idCliente, (id, doCliente) -> {
+                Set<MultiEmitter<? super PedidoStatusDTO>> conjunto = doCliente != null ? doCliente : ConcurrentHashMap.newKeySet();
+                conjunto.add(emitter);
+                return conjunto;
+            });
+            total.incrementAndGet();
+            emitter.onTermination(() -> remover(idCliente, emitter));
+        });
+
+        return eventos.onOverflow().buffer(tamanhoBuffer)
+                .onFailure(BackPressureFailure.class).invoke(() -> {
+                    desconectados.increment();
+                    LOG.warnf("Assinante do stream de pedidos do cliente %s desconectado: buffer cheio", idCliente);
+                })
+                .onFailure(BackPressureFailure.class).recoverWithCompletion();
+    }
+
+    // entrega os eventos depois do commit da transação atual (com rollback não entrega); fora de transação entrega na hora
+    public void publicar(List<EventoPedidoDTO> eventos) {
+        if (transacoes.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            entregar(eventos);
+            return;
+        }
+        transacoes.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED)
+                    entregar(eventos);
+            }
+        });
+    }
+
+    // quantas conexões estão abertas
+    public int assinantes() {
+        return total.get();
+    }
+
+    private void entregar(List<EventoPedidoDTO> eventos) {
+        for (EventoPedidoDTO evento : eventos) {
+            if (evento.idCliente() == null)
+                continue;
+            Set<MultiEmitter<? super PedidoStatusDTO>> doCliente = assinantes.get(evento.idCliente());
+            if (doCliente == null)
+                continue;
+
+            PedidoStatusDTO status = PedidoStatusDTO.valueOf(evento);
+            for (MultiEmitter<? super PedidoStatusDTO> emitter : doCliente)
+                emitter.emit(status);
+        }
+    }
+
+    private void remover(Long idCliente, MultiEmitter<? super PedidoStatusDTO> emitter) {
+        assinantes.computeIfPresent(idCliente, (id, doCliente) -> {
+            if (doCliente.remove(emitter))
+                total.decrementAndGet();
+            return doCliente.isEmpty() ? null : doCliente;
+        });
+    }
+}
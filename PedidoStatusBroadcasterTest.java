@@ -0,0 +1,113 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.dto.EnderecoDTO;
+import br.unitins.topicos1.prancha.dto.EventoPedidoDTO;
+import br.unitins.topicos1.prancha.dto.ItemPedidoDTO;
+import br.unitins.topicos1.prancha.dto.PedidoDTO;
+import br.unitins.topicos1.prancha.dto.PedidoStatusDTO;
+import br.unitins.topicos1.prancha.dto.PixDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
+import br.unitins.topicos1.prancha.model.StatusPagamento;
+import br.unitins.topicos1.prancha.model.TipoEventoPedido;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class PedidoStatusBroadcasterTest {
+
+    @Inject
+    PedidoStatusBroadcaster broadcaster;
+
+    @Inject
+    PedidoService pedidoService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "pedidos.stream.buffer")
+    int tamanhoBuffer;
+
+    // cada assinante recebe só as mudanças dos pedidos do seu cliente, depois do commit
+    @Test
+    public void testRecebeSoOsPedidosDoCliente() {
+        int antes = broadcaster.assinantes();
+        AssertSubscriber<PedidoStatusDTO> cliente1 = broadcaster.assinar(1L).subscribe()
+                .withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        AssertSubscriber<PedidoStatusDTO> cliente2 = broadcaster.assinar(2L).subscribe()
+                .withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        assertEquals(antes + 2, broadcaster.assinantes());
+
+        Long id = pedidoService.create(new PedidoDTO(1L, new EnderecoDTO("Palmas", "TO", "77000000"), "PIX",
+                new PixDTO("joao@pix.com"), null, null, List.of(new ItemPedidoDTO(1L, 1, null)))).id();
+        try {
+            pedidoService.pagar(id);
+
+            List<PedidoStatusDTO> recebidos = cliente1.awaitItems(2).getItems();
+            assertEquals(id, recebidos.get(0).idPedido());
+            assertEquals(TipoEventoPedido.CRIADO, recebidos.get(0).evento());
+            assertEquals(StatusPagamento.PENDENTE, recebidos.get(0).statusPagamento());
+            assertEquals(TipoEventoPedido.PAGO, recebidos.get(1).evento());
+            assertEquals(StatusPagamento.PAGO, recebidos.get(1).statusPagamento());
+            assertTrue(cliente2.getItems().isEmpty());
+        } finally {
+            cliente1.cancel();
+            cliente2.cancel();
+            pedidoService.delete(id);
+        }
+        assertEquals(antes, broadcaster.assinantes());
+    }
+
+    // alteração desfeita não chega aos assinantes
+    @Test
+    public void testRollbackNaoEntrega() {
+        AssertSubscriber<PedidoStatusDTO> assinante = broadcaster.assinar(41L).subscribe()
+                .withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        assertThrows(IllegalStateException.class, () -> QuarkusTransaction.requiringNew().run(() -> {
+            broadcaster.publicar(List.of(evento(41L, 1L)));
+            throw new IllegalStateException("desfaz a transação");
+        }));
+        broadcaster.publicar(List.of(evento(41L, 2L)));
+
+        assertEquals(List.of(2L), assinante.awaitItems(1).getItems().stream().map(PedidoStatusDTO::idPedido).toList());
+        assinante.cancel();
+    }
+
+    // quem não lê e deixa o buffer encher é desconectado, sem segurar quem publica
+    @Test
+    public void testAssinanteLentoDesconectado() {
+        int antes = broadcaster.assinantes();
+        double desconectados = registry.get("pedidos.stream.desconectados").counter().count();
+
+        AssertSubscriber<PedidoStatusDTO> lento = broadcaster.assinar(42L).subscribe()
+                .withSubscriber(AssertSubscriber.create(0));
+        for (long i = 1; i <= tamanhoBuffer + 1; i++)
+            broadcaster.publicar(List.of(evento(42L, i)));
+
+        assertEquals(antes, broadcaster.assinantes());
+        lento.request(Long.MAX_VALUE);
+        lento.awaitCompletion();
+        assertTrue(lento.getItems().size() <= tamanhoBuffer);
+        assertEquals(desconectados + 1, registry.get("pedidos.stream.desconectados").counter().count());
+    }
+
+    // o cliente é obrigatório
+    @Test
+    public void testClienteInvalido() {
+        assertThrows(ValidationException.class, () -> broadcaster.assinar(null));
+        assertThrows(ValidationException.class, () -> broadcaster.assinar(0L));
+    }
+
+    // método auxiliar que monta o evento de um pedido pago
+    private EventoPedidoDTO evento(Long idCliente, Long idPedido) {
+        return new EventoPedidoDTO(null, idPedido, idCliente, TipoEventoPedido.PAGO, StatusPagamento.PAGO, 100,
+                LocalDateTime.now());
+    }
+}
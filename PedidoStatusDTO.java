@@ -0,0 +1,21 @@
+package br.unitins.topicos1.prancha.dto;
+import java.time.LocalDateTime;
+import br.unitins.topicos1.prancha.model.StatusPagamento;
+import br.unitins.topicos1.prancha.model.TipoEventoPedido;
+
+public record PedidoStatusDTO (
+
+    Long idPedido,
+
+    // o que aconteceu (criado, pago ou finalizado) e o status do pagamento depois disso
+    TipoEventoPedido evento,
+    StatusPagamento statusPagamento,
+
+    LocalDateTime alteradoEm
+
+) {
+
+    public static PedidoStatusDTO valueOf(EventoPedidoDTO evento) {
+        return new PedidoStatusDTO(evento.idPedido(), evento.tipo(), evento.statusPagamento(), evento.criadoEm());
+    }
+}
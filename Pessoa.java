@@ -1,12 +1,15 @@
 package br.unitins.topicos1.prancha.model;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = @Index(name = "idx_pessoa_nome", columnList = "nome"))
 @Inheritance(strategy = InheritanceType.JOINED)
 public class Pessoa extends DefaultEntity{
     
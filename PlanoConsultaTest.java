@@ -0,0 +1,183 @@
+package br.unitins.topicos1.prancha.repository;
+import static org.junit.jupiter.api.Assertions.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import javax.sql.DataSource;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class PlanoConsultaTest {
+
+    // esse teste grava um volume de registros, pede ao banco o plano (EXPLAIN) das buscas dos repositórios
+    // e confere que ele usa o índice; depois apaga o índice e confere que o mesmo plano passa a ler a tabela inteira
+    // os registros gravados aqui começam no id PRIMEIRO_ID e são apagados no fim de cada teste
+
+    private static final Logger LOG = Logger.getLogger(PlanoConsultaTest.class);
+
+    private static final int VOLUME = 2000;
+    private static final long PRIMEIRO_ID = 100000;
+    private static final long MEIO = PRIMEIRO_ID + VOLUME / 2;
+    private static final int VOLUME_TEXTO = 50000;
+
+    // índice, consulta equivalente à do repositório e o comando que cria o índice de novo
+    private record Caso(String indice, String consulta, String criar) {}
+
+    private static final List<Caso> CASOS = List.of(
+        new Caso("idx_cliente_cpf",
+                "SELECT id FROM cliente WHERE cpf = '" + cpf(MEIO) + "'",
+                "CREATE INDEX idx_cliente_cpf ON cliente (cpf)"),
+        new Caso("idx_pessoa_nome",
+                "SELECT id FROM pessoa WHERE nome = 'Pessoa " + MEIO + "'",
+                "CREATE INDEX idx_pessoa_nome ON pessoa (nome)"),
+        new Caso("idx_marca_nome",
+                "SELECT id FROM marca WHERE nome = 'Marca " + MEIO + "'",
+                "CREATE INDEX idx_marca_nome ON marca (nome)"),
+        new Caso("idx_modelo_nome",
+                "SELECT id FROM modelo WHERE nome = 'Modelo " + MEIO + "'",
+                "CREATE INDEX idx_modelo_nome ON modelo (nome)"),
+        new Caso("idx_quilha_tipo",
+                "SELECT id FROM quilha WHERE id_tipo_quilha = 3",
+                "CREATE INDEX idx_quilha_tipo ON quilha (id_tipo_quilha)"),
+        new Caso("idx_prancha_tipo",
+                "SELECT id FROM prancha WHERE tipoPrancha = 'GUN' ORDER BY id",
+                "CREATE INDEX idx_prancha_tipo ON prancha (tipoPrancha, id)"),
+        new Caso("idx_itempedido_pedido",
+                "SELECT id FROM itempedido WHERE id_pedido = 1",
+                "CREATE INDEX idx_itempedido_pedido ON itempedido (id_pedido)"),
+        new Caso("idx_prancha_fornecedor_prancha",
+                "SELECT id_fornecedor FROM prancha_fornecedor WHERE id_prancha = " + MEIO,
+                "CREATE INDEX idx_prancha_fornecedor_prancha ON prancha_fornecedor (id_prancha, id_fornecedor)"),
+        new Caso("idx_prancha_quilha_prancha",
+                "SELECT id_quilha FROM prancha_quilha WHERE id_prancha = " + MEIO,
+                "CREATE INDEX idx_prancha_quilha_prancha ON prancha_quilha (id_prancha, id_quilha)")
+    );
+
+    @Inject
+    DataSource dataSource;
+
+    private static String cpf(long id) {
+        return String.format("%011d", id);
+    }
+
+    // grava o volume de registros em lote e atualiza as estatísticas usadas pelo planejador
+    @BeforeEach
+    public void gravarVolume() throws SQLException {
+        try (Connection conexao = dataSource.getConnection()) {
+            inserir(conexao, "INSERT INTO pessoa (id, nome) VALUES (?, ?)", (ps, id) -> ps.setString(2, "Pessoa " + id));
+            inserir(conexao, "INSERT INTO cliente (id, cpf) VALUES (?, ?)", (ps, id) -> ps.setString(2, cpf(id)));
+            inserir(conexao, "INSERT INTO marca (id, nome) VALUES (?, ?)", (ps, id) -> ps.setString(2, "Marca " + id));
+            inserir(conexao, "INSERT INTO modelo (id, nome) VALUES (?, ?)", (ps, id) -> ps.setString(2, "Modelo " + id));
+            inserir(conexao, "INSERT INTO quilha (id, descricaoQuilha, id_tipo_quilha) VALUES (?, ?, ?)", (ps, id) -> {
+                ps.setString(2, "Quilha " + id);
+                ps.setLong(3, 1 + id % 2); // só tri-fin e quad, nenhuma single
+            });
+            inserir(conexao, "INSERT INTO prancha (id, tamanho, valor, estoque, tipoPrancha, versao) VALUES (?, 6.0, 1000.0, 1, ?, 0)",
+                    (ps, id) -> ps.setString(2, id % 2 == 0 ? "FISH" : "LONGBOARD"));
+            inserir(conexao, "INSERT INTO itempedido (id, quantidade, id_prancha) VALUES (?, 1, ?)", (ps, id) -> ps.setLong(2, id));
+            inserir(conexao, "INSERT INTO prancha_fornecedor (id_prancha, id_fornecedor) VALUES (?, 3)", (ps, id) -> {});
+            inserir(conexao, "INSERT INTO prancha_quilha (id_prancha, id_quilha) VALUES (?, ?)", (ps, id) -> ps.setLong(2, id));
+
+            try (Statement st = conexao.createStatement()) {
+                st.execute("ANALYZE");
+            }
+        }
+    }
+
+    @AfterEach
+    public void apagarVolume() throws SQLException {
+        try (Connection conexao = dataSource.getConnection(); Statement st = conexao.createStatement()) {
+            st.executeUpdate("DELETE FROM prancha_quilha WHERE id_prancha >= " + PRIMEIRO_ID);
+            st.executeUpdate("DELETE FROM prancha_fornecedor WHERE id_prancha >= " + PRIMEIRO_ID);
+            st.executeUpdate("DELETE FROM itempedido WHERE id >= " + PRIMEIRO_ID);
+            st.executeUpdate("DELETE FROM prancha WHERE id >= " + PRIMEIRO_ID);
+            st.executeUpdate("DELETE FROM quilha WHERE id >= " + PRIMEIRO_ID);
+            st.executeUpdate("DELETE FROM modelo WHERE id >= " + PRIMEIRO_ID);
+            st.executeUpdate("DELETE FROM marca WHERE id >= " + PRIMEIRO_ID);
+            st.executeUpdate("DELETE FROM cliente WHERE id >= " + PRIMEIRO_ID);
+            st.executeUpdate("DELETE FROM pessoa WHERE id >= " + PRIMEIRO_ID);
+        }
+    }
+
+    // com o índice o plano usa o índice; sem ele, a mesma consulta lê a tabela inteira
+    @Test
+    public void testBuscasUsamIndice() throws SQLException {
+        try (Connection conexao = dataSource.getConnection(); Statement st = conexao.createStatement()) {
+            for (Caso caso : CASOS) {
+                String comIndice = plano(st, caso.consulta());
+                String semIndice;
+
+                st.execute("DROP INDEX " + caso.indice());
+                try {
+                    semIndice = plano(st, caso.consulta());
+                } finally {
+                    st.execute(caso.criar());
+                }
+
+                LOG.infof("%s%n  sem índice: %s%n  com índice: %s", caso.consulta(), semIndice, comIndice);
+                assertTrue(comIndice.contains(caso.indice()), caso.indice() + " não foi usado: " + comIndice);
+                assertFalse(semIndice.contains(caso.indice()), semIndice);
+            }
+        }
+    }
+
+    // a busca por trecho do nome (/catalogo/busca) usa o índice de trigramas; com poucas linhas o banco prefere ler a tabela,
+    // por isso esse caso grava um volume maior de marcas, a partir de PRIMEIRO_ID + VOLUME
+    @Test
+    public void testBuscaPorTrechoUsaIndiceDeTrigramas() throws SQLException {
+        String consulta = "SELECT id FROM marca WHERE lower(nome) LIKE '%marca 1" + (VOLUME_TEXTO / 2) + "%'";
+        try (Connection conexao = dataSource.getConnection(); Statement st = conexao.createStatement()) {
+            st.executeUpdate("INSERT INTO marca (id, nome) SELECT g, 'Marca ' || g FROM generate_series("
+                    + (PRIMEIRO_ID + VOLUME) + ", " + (PRIMEIRO_ID + VOLUME + VOLUME_TEXTO - 1) + ") g");
+            st.execute("ANALYZE marca");
+
+            String comIndice = plano(st, consulta);
+            String semIndice;
+
+            st.execute("DROP INDEX idx_marca_nome_trgm");
+            try {
+                semIndice = plano(st, consulta);
+            } finally {
+                st.execute("CREATE INDEX idx_marca_nome_trgm ON marca USING gin (lower(nome) gin_trgm_ops)");
+            }
+
+            LOG.infof("%s%n  sem índice: %s%n  com índice: %s", consulta, semIndice, comIndice);
+            assertTrue(comIndice.contains("idx_marca_nome_trgm"), "idx_marca_nome_trgm não foi usado: " + comIndice);
+            assertFalse(semIndice.contains("idx_marca_nome_trgm"), semIndice);
+        }
+    }
+
+    private interface Preencher {
+        void aplicar(PreparedStatement ps, long id) throws SQLException;
+    }
+
+    // método auxiliar que grava VOLUME linhas, com ids a partir de PRIMEIRO_ID, num único lote
+    private static void inserir(Connection conexao, String sql, Preencher preencher) throws SQLException {
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (long id = PRIMEIRO_ID; id < PRIMEIRO_ID + VOLUME; id++) {
+                ps.setLong(1, id);
+                preencher.aplicar(ps, id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // o plano da consulta, em minúsculas e numa linha só
+    private static String plano(Statement st, String consulta) throws SQLException {
+        StringBuilder plano = new StringBuilder();
+        try (ResultSet rs = st.executeQuery("EXPLAIN " + consulta)) {
+            while (rs.next())
+                plano.append(rs.getString(1)).append(' ');
+        }
+        return plano.toString().replaceAll("\\s+", " ").trim().toLowerCase();
+    }
+}
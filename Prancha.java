@@ -1,20 +1,32 @@
 package br.unitins.topicos1.prancha.model;
 import java.util.List;
+import org.hibernate.annotations.ColumnDefault;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
+@Table(indexes = @Index(name = "idx_prancha_tipo", columnList = "tipoPrancha, id"))
 public class Prancha extends DefaultEntity{
     
     private float tamanho;
     private double valor;
     private Integer estoque;
 
+    // controle de concorrência otimista: uma alteração feita sobre uma versão antiga da prancha falha
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
     @ManyToOne
     @JoinColumn(name = "id_modelo")
     private Modelo modelo;
@@ -28,13 +40,21 @@ public class Prancha extends DefaultEntity{
     @ManyToMany
     @JoinTable(name = "prancha_fornecedor",
         joinColumns = @JoinColumn(name = "id_prancha"),
-        inverseJoinColumns = @JoinColumn(name = "id_fornecedor"))
+        inverseJoinColumns = @JoinColumn(name = "id_fornecedor"),
+        indexes = {
+            @Index(name = "idx_prancha_fornecedor_prancha", columnList = "id_prancha, id_fornecedor"),
+            @Index(name = "idx_prancha_fornecedor_fornecedor", columnList = "id_fornecedor")
+        })
         private List<Fornecedor> fornecedores;
 
     @ManyToMany
     @JoinTable(name = "prancha_quilha",
         joinColumns = @JoinColumn(name = "id_prancha"),
-        inverseJoinColumns = @JoinColumn(name = "id_quilha"))
+        inverseJoinColumns = @JoinColumn(name = "id_quilha"),
+        indexes = {
+            @Index(name = "idx_prancha_quilha_prancha", columnList = "id_prancha, id_quilha"),
+            @Index(name = "idx_prancha_quilha_quilha", columnList = "id_quilha")
+        })
         private List<Quilha> quilhas;
 
      public float getTamanho() {
@@ -93,6 +113,14 @@ public class Prancha extends DefaultEntity{
         this.fornecedores = fornecedores;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
     public List<Quilha> getQuilhas() {
         return quilhas;
     }
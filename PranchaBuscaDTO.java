@@ -0,0 +1,22 @@
+package br.unitins.topicos1.prancha.dto;
+import java.util.List;
+import java.util.Map;
+import br.unitins.topicos1.prancha.model.Habilidade;
+import br.unitins.topicos1.prancha.model.TipoPrancha;
+
+public record PranchaBuscaDTO (
+
+    List<PranchaResponseDTO> itens,
+
+    // total de pranchas que atendem a todos os filtros (todas as páginas)
+    long total,
+    int page,
+    int size,
+
+    // quantidade de pranchas por tipo e por habilidade com os outros filtros aplicados
+    // a contagem por tipo ignora o filtro de tipo (e a por habilidade o de habilidade), assim a loja
+    // mostra quantas pranchas apareceriam ao trocar a opção escolhida
+    Map<TipoPrancha, Long> facetasTipo,
+    Map<Habilidade, Long> facetasHabilidade
+
+) {}
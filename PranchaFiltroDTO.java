@@ -0,0 +1,26 @@
+package br.unitins.topicos1.prancha.dto;
+import br.unitins.topicos1.prancha.model.Habilidade;
+import br.unitins.topicos1.prancha.model.TipoPrancha;
+
+public record PranchaFiltroDTO (
+
+    TipoPrancha tipoPrancha,
+    Habilidade habilidade,
+
+    // faixas de tamanho e valor (os limites entram na busca), pode ser informado só um dos lados
+    Float tamanhoMin,
+    Float tamanhoMax,
+    Double valorMin,
+    Double valorMax,
+
+    Long idMarca,
+    Long idModelo,
+    Long idTipoQuilha,
+
+    // true: só pranchas com estoque, false: só as sem estoque
+    Boolean emEstoque,
+
+    int page,
+    int size
+
+) {}
@@ -0,0 +1,11 @@
+package br.unitins.topicos1.prancha.dto;
+import java.util.List;
+
+public record PranchaPageDTO (
+
+    List<PranchaResponseDTO> itens,
+
+    // id da última prancha da página, usado como cursor para buscar a próxima (null quando não há mais páginas)
+    Long proximoCursor
+
+) {}
@@ -0,0 +1,18 @@
+package br.unitins.topicos1.prancha.dto;
+import br.unitins.topicos1.prancha.model.Prancha;
+import br.unitins.topicos1.prancha.model.TipoPrancha;
+
+// o que os pedidos precisam de uma prancha (o preço e o tipo para as mensagens), guardado no cache do catálogo
+// no lugar da entidade: é imutável e não carrega estoque, versão nem as associações
+public record PranchaPrecoDTO (
+
+    Long id,
+    double valor,
+    TipoPrancha tipoPrancha
+
+) {
+
+    public static PranchaPrecoDTO valueOf(Prancha prancha) {
+        return new PranchaPrecoDTO(prancha.getId(), prancha.getValor(), prancha.getTipoPrancha());
+    }
+}
@@ -1,16 +1,232 @@
- package br.unitins.topicos1.prancha.repository;
+package br.unitins.topicos1.prancha.repository;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import br.unitins.topicos1.prancha.dto.EstoqueReservadoDTO;
+import br.unitins.topicos1.prancha.dto.PranchaFiltroDTO;
+import br.unitins.topicos1.prancha.dto.PranchaResponseDTO;
 import br.unitins.topicos1.prancha.model.Prancha;
 import br.unitins.topicos1.prancha.model.TipoPrancha;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
 
 @ApplicationScoped
 public class PranchaRepository implements PanacheRepository<Prancha> {
+
+    // quantidade de linhas que o driver busca do banco por vez durante o stream
+    private static final int FETCH_SIZE = 500;
+
+    // consulta que monta o DTO direto do banco, sem carregar as entidades (modelo e marca entram por join)
+    private static final String SELECT_RESPONSE = "SELECT new br.unitins.topicos1.prancha.dto.PranchaResponseDTO("
+            + "p.id, p.tamanho, p.valor, p.estoque, p.tipoPrancha, p.habilidade, m.id, m.nome, ma.id, ma.nome) "
+            + "FROM Prancha p LEFT JOIN p.modelo m LEFT JOIN m.marca ma ";
+
+    // fornecedores e quilhas de várias pranchas de uma vez, numa única consulta (o tipo diferencia as linhas)
+    private static final String SELECT_ASSOCIACOES = "SELECT p.id, 'F', f.nome FROM Prancha p JOIN p.fornecedores f WHERE p.id IN :ids "
+            + "UNION ALL "
+            + "SELECT p.id, 'Q', q.descricaoQuilha FROM Prancha p JOIN p.quilhas q WHERE p.id IN :ids";
+
+    // contagem das pranchas por tipo e habilidade, usada nas facetas da busca
+    private static final String SELECT_FACETAS = "SELECT p.tipoPrancha, p.habilidade, COUNT(p) "
+            + "FROM Prancha p LEFT JOIN p.modelo m LEFT JOIN m.marca ma ";
+
+    // condições da busca por filtros e os valores dos parâmetros usados nelas
+    private record Condicoes(String where, Map<String, Object> parametros) {}
+
+    // só diminui o estoque se ainda houver a quantidade pedida, a checagem e a baixa acontecem no mesmo comando
+    private static final String UPDATE_RESERVA = "UPDATE prancha SET estoque = estoque - ?, versao = versao + 1 WHERE id = ? AND estoque >= ?";
+    private static final String[] COLUNAS_RESERVA = { "id", "estoque", "versao" };
     
     // buscando a prancha pelo tipo de prancha
     public List<Prancha> findByTipoPrancha(TipoPrancha tipoPrancha) {
         return list("tipoPrancha", tipoPrancha);
     }
 
-}
\ No newline at end of file
+    // ids das pranchas de um modelo
+    public List<Long> findIdsByModelo(Long idModelo) {
+        return getEntityManager()
+                .createQuery("SELECT p.id FROM Prancha p WHERE p.modelo.id = :modelo", Long.class)
+                .setParameter("modelo", idModelo)
+                .getResultList();
+    }
+
+    // buscando várias pranchas pelo id numa única consulta
+    public List<Prancha> findByIds(Collection<? extends Long> ids) {
+        return list("id IN ?1", ids);
+    }
+
+    // buscando todas as pranchas já no formato de resposta
+    public List<PranchaResponseDTO> findAllResponse() {
+        return comAssociacoes(getEntityManager()
+                .createQuery(SELECT_RESPONSE + "ORDER BY p.id", PranchaResponseDTO.class)
+                .getResultList());
+    }
+
+    // buscando as pranchas de um tipo já no formato de resposta
+    public List<PranchaResponseDTO> findResponseByTipoPrancha(TipoPrancha tipoPrancha) {
+        return comAssociacoes(getEntityManager()
+                .createQuery(SELECT_RESPONSE + "WHERE p.tipoPrancha = :tipo ORDER BY p.id", PranchaResponseDTO.class)
+                .setParameter("tipo", tipoPrancha)
+                .getResultList());
+    }
+
+    // buscando uma página de pranchas a partir do cursor (id), sem usar offset
+    public List<PranchaResponseDTO> findAfter(Long cursor, int limit) {
+        return comAssociacoes(getEntityManager()
+                .createQuery(SELECT_RESPONSE + "WHERE p.id > :cursor ORDER BY p.id", PranchaResponseDTO.class)
+                .setParameter("cursor", cursor)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    // percorrendo todas as pranchas ordenadas pelo id, sem carregar a lista inteira na memória
+    // as associações não vêm preenchidas, quem consome o stream chama comAssociacoes por blocos
+    public Stream<PranchaResponseDTO> streamAllResponse() {
+        return getEntityManager()
+                .createQuery(SELECT_RESPONSE + "ORDER BY p.id", PranchaResponseDTO.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream();
+    }
+
+    // buscando uma página de pranchas que atendem a todos os filtros informados
+    public List<PranchaResponseDTO> findByFiltro(PranchaFiltroDTO filtro) {
+        Condicoes condicoes = condicoes(filtro, true);
+
+        TypedQuery<PranchaResponseDTO> query = getEntityManager()
+                .createQuery(SELECT_RESPONSE + condicoes.where() + "ORDER BY p.id", PranchaResponseDTO.class);
+        condicoes.parametros().forEach(query::setParameter);
+
+        return comAssociacoes(query
+                .setFirstResult(filtro.page() * filtro.size())
+                .setMaxResults(filtro.size())
+                .getResultList());
+    }
+
+    // contando as pranchas de cada combinação de tipo e habilidade numa única consulta
+    // os filtros de tipo e habilidade ficam de fora: o service aplica cada um só na faceta do outro
+    // cada linha é [tipoPrancha, habilidade, quantidade]
+    public List<Object[]> contarPorTipoEHabilidade(PranchaFiltroDTO filtro) {
+        Condicoes condicoes = condicoes(filtro, false);
+
+        TypedQuery<Object[]> query = getEntityManager()
+                .createQuery(SELECT_FACETAS + condicoes.where() + "GROUP BY p.tipoPrancha, p.habilidade", Object[].class);
+        condicoes.parametros().forEach(query::setParameter);
+
+        return query.getResultList();
+    }
+
+    // monta o where da busca só com os filtros informados
+    private static Condicoes condicoes(PranchaFiltroDTO filtro, boolean incluirTipoEHabilidade) {
+        List<String> where = new ArrayList<>();
+        Map<String, Object> parametros = new HashMap<>();
+
+        if (incluirTipoEHabilidade && filtro.tipoPrancha() != null) {
+            where.add("p.tipoPrancha = :tipoPrancha");
+            parametros.put("tipoPrancha", filtro.tipoPrancha());
+        }
+        if (incluirTipoEHabilidade && filtro.habilidade() != null) {
+            where.add("p.habilidade = :habilidade");
+            parametros.put("habilidade", filtro.habilidade());
+        }
+        if (filtro.tamanhoMin() != null) {
+            where.add("p.tamanho >= :tamanhoMin");
+            parametros.put("tamanhoMin", filtro.tamanhoMin());
+        }
+        if (filtro.tamanhoMax() != null) {
+            where.add("p.tamanho <= :tamanhoMax");
+            parametros.put("tamanhoMax", filtro.tamanhoMax());
+        }
+        if (filtro.valorMin() != null) {
+            where.add("p.valor >= :valorMin");
+            parametros.put("valorMin", filtro.valorMin());
+        }
+        if (filtro.valorMax() != null) {
+            where.add("p.valor <= :valorMax");
+            parametros.put("valorMax", filtro.valorMax());
+        }
+        if (filtro.idMarca() != null) {
+            where.add("ma.id = :idMarca");
+            parametros.put("idMarca", filtro.idMarca());
+        }
+        if (filtro.idModelo() != null) {
+            where.add("m.id = :idModelo");
+            parametros.put("idModelo", filtro.idModelo());
+        }
+        if (filtro.idTipoQuilha() != null) {
+            where.add("EXISTS (SELECT q.id FROM p.quilhas q WHERE q.tipoQuilha.id = :idTipoQuilha)");
+            parametros.put("idTipoQuilha", filtro.idTipoQuilha());
+        }
+        if (filtro.emEstoque() != null)
+            where.add(filtro.emEstoque() ? "p.estoque > 0" : "(p.estoque IS NULL OR p.estoque <= 0)");
+
+        String sql = where.isEmpty() ? "" : "WHERE " + String.join(" AND ", where) + " ";
+        return new Condicoes(sql, parametros);
+    }
+
+    // versão e tipos de quilha de todas as pranchas, usados para montar o índice do catálogo
+    // cada linha é [id, versao, id do tipo de quilha] (uma linha por quilha, o tipo vem null se a prancha não tem quilha)
+    public List<Object[]> findVersoesETiposQuilha() {
+        return getEntityManager()
+                .createQuery("SELECT p.id, p.versao, t.id FROM Prancha p LEFT JOIN p.quilhas q LEFT JOIN q.tipoQuilha t", Object[].class)
+                .getResultList();
+    }
+
+    // baixa o estoque de várias pranchas num único lote jdbc (um update por prancha)
+    // retorna o estoque e a versão que cada update deixou no banco (o lote devolve as colunas como um RETURNING),
+    // a prancha que não aparece no mapa não tinha estoque suficiente
+    public Map<Long, EstoqueReservadoDTO> reservarEstoque(Map<Long, Integer> quantidadePorPrancha) {
+        return getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(UPDATE_RESERVA, COLUNAS_RESERVA)) {
+                for (Map.Entry<Long, Integer> entry : quantidadePorPrancha.entrySet()) {
+                    ps.setInt(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                    ps.setInt(3, entry.getValue());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                Map<Long, EstoqueReservadoDTO> reservados = new HashMap<>();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    while (rs.next())
+                        reservados.put(rs.getLong(1), new EstoqueReservadoDTO(rs.getLong(1), rs.getInt(2), rs.getLong(3)));
+                }
+                return reservados;
+            }
+        });
+    }
+
+    // preenche os fornecedores e as quilhas de uma lista de pranchas
+    public List<PranchaResponseDTO> comAssociacoes(List<PranchaResponseDTO> pranchas) {
+        if (pranchas.isEmpty())
+            return pranchas;
+
+        List<Long> ids = pranchas.stream().map(PranchaResponseDTO::id).toList();
+        Map<Long, List<String>> fornecedores = new HashMap<>();
+        Map<Long, List<String>> quilhas = new HashMap<>();
+
+        List<Object[]> linhas = getEntityManager()
+                .createQuery(SELECT_ASSOCIACOES, Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+
+        for (Object[] linha : linhas) {
+            Map<Long, List<String>> destino = "F".equals(linha[1]) ? fornecedores : quilhas;
+            destino.computeIfAbsent((Long) linha[0], id -> new ArrayList<>()).add((String) linha[2]);
+        }
+
+        return pranchas.stream()
+                .map(p -> p.comAssociacoes(
+                        fornecedores.getOrDefault(p.id(), List.of()),
+                        quilhas.getOrDefault(p.id(), List.of())))
+                .toList();
+    }
+
+}
@@ -0,0 +1,60 @@
+package br.unitins.topicos1.prancha.repository;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class PranchaRepositoryTest {
+
+    // esse teste usa o banco de teste (R__dados_iniciais.sql) e as estatísticas do hibernate para contar os comandos sql
+
+    private static final Logger LOG = Logger.getLogger(PranchaRepositoryTest.class);
+
+    @Inject
+    PranchaRepository repository;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    // método auxiliar que serializa a lista do mesmo jeito que o resource faria
+    private String serializar(List<?> lista) {
+        try {
+            return objectMapper.writeValueAsString(lista);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // método auxiliar que conta quantos comandos sql foram preparados durante a ação
+    private long contarComandos(Runnable acao) {
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+        acao.run();
+        return stats.getPrepareStatementCount();
+    }
+
+    // compara a listagem antiga (entidades serializadas pelo jackson) com a projeção em DTO
+    @Test
+    @TestTransaction
+    public void testListagemComProjecaoUsaComandosFixos() {
+        long antes = contarComandos(() -> serializar(repository.listAll()));
+        repository.getEntityManager().clear(); // esvazia o contexto para a segunda medição não aproveitar a primeira
+
+        long depois = contarComandos(() -> serializar(repository.findAllResponse()));
+
+        LOG.infof("Comandos SQL por listagem de pranchas: entidades = %d, projeção = %d", antes, depois);
+        assertEquals(2, depois); // uma consulta para as pranchas e uma para fornecedores e quilhas
+        assertTrue(depois < antes);
+    }
+}
@@ -1,7 +1,15 @@
 package br.unitins.topicos1.prancha.resource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import br.unitins.topicos1.prancha.dto.PranchaBuscaDTO;
 import br.unitins.topicos1.prancha.dto.PranchaDTO;
-import br.unitins.topicos1.prancha.model.Prancha;
+import br.unitins.topicos1.prancha.dto.PranchaFiltroDTO;
+import br.unitins.topicos1.prancha.dto.PranchaPageDTO;
+import br.unitins.topicos1.prancha.dto.PranchaResponseDTO;
+import br.unitins.topicos1.prancha.model.Habilidade;
 import br.unitins.topicos1.prancha.model.TipoPrancha;
 import br.unitins.topicos1.prancha.service.PranchaService;
 import jakarta.annotation.security.RolesAllowed;
@@ -9,14 +17,17 @@ import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 @Path("/pranchas")
 @Produces(MediaType.APPLICATION_JSON)
@@ -27,27 +38,86 @@ public class PranchaResource {
     @Inject
     PranchaService service;
 
+    @Inject
+    ObjectMapper objectMapper;
+
+    // a cada quantas pranchas o json já escrito é enviado para o cliente
+    private static final int FLUSH_CHUNK = 100;
+
     // busca todas as pranchas
     @GET
     @RolesAllowed({"ADM","USER"})
-    public List<Prancha> getAll() {
+    public List<PranchaResponseDTO> getAll() {
         return service.findAll();
     }
 
+    // busca uma página de pranchas a partir do cursor (id da última prancha recebida)
+    @GET
+    @RolesAllowed({"ADM","USER"})
+    @Path("/pagina")
+    public PranchaPageDTO getPage(@QueryParam("cursor") @DefaultValue("0") Long cursor,
+                                  @QueryParam("limit") @DefaultValue("50") int limit) {
+        return service.findPage(cursor, limit);
+    }
+
+    // envia todas as pranchas em um único array json, escrito aos poucos conforme são lidas do banco
+    @GET
+    @RolesAllowed({"ADM","USER"})
+    @Path("/stream")
+    public Response stream() {
+        StreamingOutput output = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                int[] total = {0};
+                service.streamAll(prancha -> {
+                    try {
+                        json.writeObject(prancha);
+                        if (++total[0] % FLUSH_CHUNK == 0)
+                            json.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+            }
+        };
+        return Response.ok(output, MediaType.APPLICATION_JSON).build();
+    }
+
     // busca todas as pranchas com um determinado tipo
     @GET
     @RolesAllowed({"ADM","USER"})
     @Path("/tipo/{tipoPrancha}")
-    public List<Prancha> getByTipoPrancha(@PathParam("tipoPrancha")TipoPrancha tipoPrancha) {
+    public List<PranchaResponseDTO> getByTipoPrancha(@PathParam("tipoPrancha")TipoPrancha tipoPrancha) {
         return service.findByTipoPrancha(tipoPrancha);
     }
 
+    // busca as pranchas combinando os filtros informados, paginada e com as contagens por tipo e habilidade
+    @GET
+    @RolesAllowed({"ADM","USER"})
+    @Path("/search")
+    public PranchaBuscaDTO search(@QueryParam("tipoPrancha") TipoPrancha tipoPrancha,
+                                  @QueryParam("habilidade") Habilidade habilidade,
+                                  @QueryParam("tamanhoMin") Float tamanhoMin,
+                                  @QueryParam("tamanhoMax") Float tamanhoMax,
+                                  @QueryParam("valorMin") Double valorMin,
+                                  @QueryParam("valorMax") Double valorMax,
+                                  @QueryParam("marca") Long idMarca,
+                                  @QueryParam("modelo") Long idModelo,
+                                  @QueryParam("tipoQuilha") Long idTipoQuilha,
+                                  @QueryParam("emEstoque") Boolean emEstoque,
+                                  @QueryParam("page") @DefaultValue("0") int page,
+                                  @QueryParam("size") @DefaultValue("20") int size) {
+        return service.search(new PranchaFiltroDTO(tipoPrancha, habilidade, tamanhoMin, tamanhoMax, valorMin, valorMax,
+                idMarca, idModelo, idTipoQuilha, emEstoque, page, size));
+    }
+
     // cadastra uma nova prancha
     @POST
     @RolesAllowed("ADM")
     public Response incluir(@Valid PranchaDTO dto) {
         var prancha = service.create(dto);
-        return Response.status(Response.Status.CREATED).entity(prancha).build();
+        return Response.status(Response.Status.CREATED).entity(PranchaResponseDTO.valueOf(prancha)).build();
     }
 
     // altera uma prancha existente
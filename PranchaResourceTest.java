@@ -3,11 +3,16 @@ import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.*;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import br.unitins.topicos1.prancha.dto.PranchaBuscaDTO;
 import br.unitins.topicos1.prancha.dto.PranchaDTO;
+import br.unitins.topicos1.prancha.dto.PranchaPageDTO;
+import br.unitins.topicos1.prancha.dto.PranchaResponseDTO;
 import br.unitins.topicos1.prancha.model.Prancha;
 import br.unitins.topicos1.prancha.model.TipoPrancha;
 import br.unitins.topicos1.prancha.model.Habilidade;
@@ -47,11 +52,16 @@ public class PranchaResourceTest {
         return prancha;
     }
 
+    // método auxiliar que cria a resposta de uma prancha
+    private PranchaResponseDTO criarResponseTeste() {
+        return PranchaResponseDTO.valueOf(criarPranchaTeste());
+    }
+
     // buscar todas as pranchas com o perfil user
     @Test
     @TestSecurity(user = "user", roles = {"USER"})
     public void testGetAllUser() {
-        when(pranchaService.findAll()).thenReturn(List.of(criarPranchaTeste())); // quando o service for chamado, vai retornar essa lista de pranchas
+        when(pranchaService.findAll()).thenReturn(List.of(criarResponseTeste())); // quando o service for chamado, vai retornar essa lista de pranchas
 
         given()
         .when()
@@ -66,7 +76,7 @@ public class PranchaResourceTest {
     @Test
     @TestSecurity(user = "adm", roles = {"ADM"})
     public void testGetAllAdm() {
-        when(pranchaService.findAll()).thenReturn(List.of(criarPranchaTeste())); // quando o service for chamado, vai retornar essa lista de pranchas
+        when(pranchaService.findAll()).thenReturn(List.of(criarResponseTeste())); // quando o service for chamado, vai retornar essa lista de pranchas
 
         given()
         .when()
@@ -77,11 +87,48 @@ public class PranchaResourceTest {
         .body("[0].valor", equalTo(100.0f));
     }
 
+    // buscar uma página de pranchas a partir de um cursor
+    @Test
+    @TestSecurity(user = "user", roles = {"USER"})
+    public void testGetPage() {
+        when(pranchaService.findPage(0L, 1)).thenReturn(new PranchaPageDTO(List.of(criarResponseTeste()), 1L)); // quando o service for chamado, vai retornar uma página com uma prancha
+
+        given()
+        .queryParam("cursor", 0)
+        .queryParam("limit", 1)
+        .when()
+        .get("/pranchas/pagina")
+        .then()
+        .statusCode(200)
+        .body("itens", not(empty()))
+        .body("itens[0].valor", equalTo(100.0f))
+        .body("proximoCursor", equalTo(1));
+    }
+
+    // buscar todas as pranchas pelo stream
+    @Test
+    @TestSecurity(user = "user", roles = {"USER"})
+    public void testStream() {
+        doAnswer(invocation -> {
+            Consumer<PranchaResponseDTO> consumer = invocation.getArgument(0);
+            consumer.accept(criarResponseTeste());
+            return null;
+        }).when(pranchaService).streamAll(any()); // quando o service for chamado, vai entregar uma prancha para o stream
+
+        given()
+        .when()
+        .get("/pranchas/stream")
+        .then()
+        .statusCode(200)
+        .body("$", hasSize(1))
+        .body("[0].valor", equalTo(100.0f));
+    }
+
     // buscar todas as pranchas pelo tipo de prancha com o perfil user
     @Test
     @TestSecurity(user = "user", roles = {"USER"})
     public void testGetByTipoPranchaUser() {
-        when(pranchaService.findByTipoPrancha(TipoPrancha.SHORTBOARD)).thenReturn(List.of(criarPranchaTeste())); // quando o service com esse tipo de prancha for chamado, vai retornar essa lista de pranchas
+        when(pranchaService.findByTipoPrancha(TipoPrancha.SHORTBOARD)).thenReturn(List.of(criarResponseTeste())); // quando o service com esse tipo de prancha for chamado, vai retornar essa lista de pranchas
 
         given()
         .when()
@@ -96,7 +143,7 @@ public class PranchaResourceTest {
     @Test
     @TestSecurity(user = "adm", roles = {"ADM"})
     public void testGetByTipoPranchaAdm() {
-        when(pranchaService.findByTipoPrancha(TipoPrancha.SHORTBOARD)).thenReturn(List.of(criarPranchaTeste())); // quando o service com esse tipo de prancha for chamado, vai retornar essa lista de pranchas
+        when(pranchaService.findByTipoPrancha(TipoPrancha.SHORTBOARD)).thenReturn(List.of(criarResponseTeste())); // quando o service com esse tipo de prancha for chamado, vai retornar essa lista de pranchas
 
         given()
         .when()
@@ -107,6 +154,32 @@ public class PranchaResourceTest {
         .body("[0].tipoPrancha", equalTo("SHORTBOARD"));
     }
 
+    // busca com filtros: os parâmetros da url chegam no filtro e as facetas voltam junto com a página
+    @Test
+    @TestSecurity(user = "user", roles = {"USER"})
+    public void testSearch() {
+        PranchaBuscaDTO busca = new PranchaBuscaDTO(List.of(criarResponseTeste()), 1, 0, 20,
+                Map.of(TipoPrancha.SHORTBOARD, 1L, TipoPrancha.FISH, 3L), Map.of(Habilidade.AVANCADO, 1L));
+        when(pranchaService.search(argThat(filtro -> filtro.tipoPrancha() == TipoPrancha.SHORTBOARD
+                && filtro.idMarca() == 2L && Boolean.TRUE.equals(filtro.emEstoque())
+                && filtro.valorMax() == 500.0 && filtro.page() == 0 && filtro.size() == 20)))
+            .thenReturn(busca); // quando o service for chamado com esses filtros, vai retornar essa página
+
+        given()
+        .queryParam("tipoPrancha", "SHORTBOARD")
+        .queryParam("marca", 2)
+        .queryParam("emEstoque", true)
+        .queryParam("valorMax", 500)
+        .when()
+        .get("/pranchas/search")
+        .then()
+        .statusCode(200)
+        .body("total", equalTo(1))
+        .body("itens[0].tipoPrancha", equalTo("SHORTBOARD"))
+        .body("facetasTipo.FISH", equalTo(3))
+        .body("facetasHabilidade.AVANCADO", equalTo(1));
+    }
+
     // cadastrando uma prancha
     @Test
     @TestSecurity(user = "adm", roles = {"ADM"})
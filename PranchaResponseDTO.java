@@ -0,0 +1,59 @@
+package br.unitins.topicos1.prancha.dto;
+import java.util.List;
+import br.unitins.topicos1.prancha.model.Fornecedor;
+import br.unitins.topicos1.prancha.model.Habilidade;
+import br.unitins.topicos1.prancha.model.Prancha;
+import br.unitins.topicos1.prancha.model.Quilha;
+import br.unitins.topicos1.prancha.model.TipoPrancha;
+
+public record PranchaResponseDTO (
+
+    Long id,
+    float tamanho,
+    double valor,
+    Integer estoque,
+    TipoPrancha tipoPrancha,
+    Habilidade habilidade,
+
+    Long idModelo,
+    String modelo,
+    Long idMarca,
+    String marca,
+
+    List<String> fornecedores,
+    List<String> quilhas
+
+) {
+
+    // construtor usado pela consulta (select new) do repository, as listas são preenchidas depois
+    public PranchaResponseDTO(Long id, float tamanho, double valor, Integer estoque, TipoPrancha tipoPrancha,
+                              Habilidade habilidade, Long idModelo, String modelo, Long idMarca, String marca) {
+        this(id, tamanho, valor, estoque, tipoPrancha, habilidade, idModelo, modelo, idMarca, marca, List.of(), List.of());
+    }
+
+    // devolve uma cópia com os nomes dos fornecedores e as descrições das quilhas
+    public PranchaResponseDTO comAssociacoes(List<String> fornecedores, List<String> quilhas) {
+        return new PranchaResponseDTO(id, tamanho, valor, estoque, tipoPrancha, habilidade,
+                idModelo, modelo, idMarca, marca, fornecedores, quilhas);
+    }
+
+    public static PranchaResponseDTO valueOf(Prancha prancha) {
+        var modelo = prancha.getModelo();
+        var marca = (modelo != null) ? modelo.getMarca() : null;
+
+        return new PranchaResponseDTO(
+            prancha.getId(),
+            prancha.getTamanho(),
+            prancha.getValor(),
+            prancha.getEstoque(),
+            prancha.getTipoPrancha(),
+            prancha.getHabilidade(),
+            (modelo != null) ? modelo.getId() : null,
+            (modelo != null) ? modelo.getNome() : null,
+            (marca != null) ? marca.getId() : null,
+            (marca != null) ? marca.getNome() : null,
+            (prancha.getFornecedores() != null) ? prancha.getFornecedores().stream().map(Fornecedor::getNome).toList() : List.of(),
+            (prancha.getQuilhas() != null) ? prancha.getQuilhas().stream().map(Quilha::getDescricaoQuilha).toList() : List.of()
+        );
+    }
+}
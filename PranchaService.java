@@ -1,17 +1,25 @@
 package br.unitins.topicos1.prancha.service;
 import java.util.List;
+import java.util.function.Consumer;
+import br.unitins.topicos1.prancha.dto.PranchaBuscaDTO;
 import br.unitins.topicos1.prancha.dto.PranchaDTO;
+import br.unitins.topicos1.prancha.dto.PranchaFiltroDTO;
+import br.unitins.topicos1.prancha.dto.PranchaPageDTO;
+import br.unitins.topicos1.prancha.dto.PranchaResponseDTO;
 import br.unitins.topicos1.prancha.model.Prancha;
 import br.unitins.topicos1.prancha.model.TipoPrancha;
 import jakarta.validation.Valid;
 
 public interface PranchaService {
     
-    List<Prancha> findAll();
-    List<Prancha> findByTipoPrancha(TipoPrancha tipoPrancha);
+    List<PranchaResponseDTO> findAll();
+    PranchaPageDTO findPage(Long cursor, int limit);
+    void streamAll(Consumer<PranchaResponseDTO> consumer);
+    List<PranchaResponseDTO> findByTipoPrancha(TipoPrancha tipoPrancha);
+    PranchaBuscaDTO search(PranchaFiltroDTO filtro);
     Prancha findById(Long id);
     Prancha create(@Valid PranchaDTO dto);
     void update(Long id, @Valid PranchaDTO dto);
     void delete(Long id);
 
-}
\ No newline at end of file
+}
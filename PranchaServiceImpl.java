@@ -1,9 +1,20 @@
 package br.unitins.topicos1.prancha.service;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.jboss.logging.Logger;
+import br.unitins.topicos1.prancha.dto.PranchaBuscaDTO;
 import br.unitins.topicos1.prancha.dto.PranchaDTO;
+import br.unitins.topicos1.prancha.dto.PranchaFiltroDTO;
+import br.unitins.topicos1.prancha.dto.PranchaPageDTO;
+import br.unitins.topicos1.prancha.dto.PranchaResponseDTO;
 import br.unitins.topicos1.prancha.exception.ValidationException;
 import br.unitins.topicos1.prancha.model.Fornecedor;
+import br.unitins.topicos1.prancha.model.Habilidade;
 import br.unitins.topicos1.prancha.model.Modelo;
 import br.unitins.topicos1.prancha.model.Prancha;
 import br.unitins.topicos1.prancha.model.Quilha;
@@ -21,6 +32,15 @@ public class PranchaServiceImpl implements PranchaService {
 
     private static final Logger LOG = Logger.getLogger(PranchaServiceImpl.class);
 
+    // tamanho máximo de uma página na listagem paginada
+    private static final int MAX_LIMIT = 500;
+
+    // tamanho máximo de uma página da busca por filtros
+    private static final int MAX_SIZE = 100;
+
+    // quantas pranchas do stream são agrupadas para buscar fornecedores e quilhas de uma vez
+    private static final int STREAM_CHUNK = 200;
+
     @Inject
     PranchaRepository repository;
 
@@ -33,50 +53,173 @@ public class PranchaServiceImpl implements PranchaService {
     @Inject
     QuilhaRepository quilhaRepository;
 
+    @Inject
+    CatalogoCache cache;
+
+    @Inject
+    CatalogoIndice indice;
+
+    @Inject
+    ResumoVendas resumo;
+
     // busca todos os registros no banco
     @Override
-    public List<Prancha> findAll() {
+    public List<PranchaResponseDTO> findAll() {
         LOG.info("Buscando todas as pranchas...");
 
-        List<Prancha> listaPranchas = repository.listAll();
+        List<PranchaResponseDTO> listaPranchas = repository.findAllResponse();
 
         if (listaPranchas.isEmpty()) {
             LOG.warn("Nenhuma prancha cadastrada.");
             throw ValidationException.of("Lista de Pranchas", "Nenhuma prancha cadastrada");
         }
 
-        LOG.info("Total de pranchas encontradas: " + listaPranchas.size());
+        LOG.infof("Total de pranchas encontradas: %s", listaPranchas.size());
         return listaPranchas;
     }
 
+    // busca uma página de pranchas a partir do cursor informado
+    @Override
+    public PranchaPageDTO findPage(Long cursor, int limit) {
+        LOG.infof("Buscando página de pranchas a partir do cursor: %s", cursor);
+
+        if (cursor == null || cursor < 0) {
+            LOG.error("Cursor inválido.");
+            throw ValidationException.of("cursor", "cursor inválido");
+        }
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            LOG.errorf("Limite inválido: %s", limit);
+            throw ValidationException.of("limit", "O limite deve estar entre 1 e " + MAX_LIMIT);
+        }
+
+        List<PranchaResponseDTO> listaPranchas = repository.findAfter(cursor, limit);
+
+        // se a página veio cheia, pode existir uma próxima a partir do último id
+        Long proximoCursor = listaPranchas.size() == limit ? listaPranchas.get(listaPranchas.size() - 1).id() : null;
+
+        LOG.infof("Total de pranchas na página: %s", listaPranchas.size());
+        return new PranchaPageDTO(listaPranchas, proximoCursor);
+    }
+
+    // percorre todas as pranchas do banco entregando uma por vez, sem montar a lista completa
+    @Override
+    @Transactional
+    public void streamAll(Consumer<PranchaResponseDTO> consumer) {
+        LOG.info("Iniciando stream de pranchas...");
+
+        int total = 0;
+        List<PranchaResponseDTO> bloco = new ArrayList<>(STREAM_CHUNK);
+        try (Stream<PranchaResponseDTO> pranchas = repository.streamAllResponse()) {
+            for (PranchaResponseDTO prancha : (Iterable<PranchaResponseDTO>) pranchas::iterator) {
+                bloco.add(prancha);
+
+                // completa o bloco com as associações e envia, assim a memória não cresce com o catálogo
+                if (bloco.size() == STREAM_CHUNK) {
+                    repository.comAssociacoes(bloco).forEach(consumer);
+                    total += bloco.size();
+                    bloco.clear();
+                }
+            }
+        }
+        repository.comAssociacoes(bloco).forEach(consumer);
+        total += bloco.size();
+
+        LOG.infof("Stream de pranchas finalizado. Total enviado: %s", total);
+    }
+
     // busca todos os registros pelo tipo de prancha no banco
     @Override
-    public List<Prancha> findByTipoPrancha(TipoPrancha tipoPrancha) {
+    public List<PranchaResponseDTO> findByTipoPrancha(TipoPrancha tipoPrancha) {
 
         // validações nos campos obrigatórios
-        LOG.info("Buscando pranchas por tipo: " + tipoPrancha);
+        LOG.infof("Buscando pranchas por tipo: %s", tipoPrancha);
 
         if (tipoPrancha == null) {
             LOG.error("TipoPrancha não informado.");
             throw ValidationException.of("tipoPrancha", "TipoPrancha é obrigatório");
         }
 
-        List<Prancha> listaPranchas = repository.findByTipoPrancha(tipoPrancha);
+        List<PranchaResponseDTO> listaPranchas = repository.findResponseByTipoPrancha(tipoPrancha);
         if (listaPranchas.isEmpty()) {
-            LOG.warn("Nenhuma prancha encontrada do tipo: " + tipoPrancha);
+            LOG.warnf("Nenhuma prancha encontrada do tipo: %s", tipoPrancha);
             throw ValidationException.of("tipoPrancha", "Nenhuma prancha encontrada para o tipo informado");
         }
 
-        LOG.info("Total de pranchas encontradas: " + listaPranchas.size());
+        LOG.infof("Total de pranchas encontradas: %s", listaPranchas.size());
         return listaPranchas;
     }
 
+    // busca as pranchas pelos filtros informados, com as contagens por tipo e habilidade na mesma resposta
+    @Override
+    public PranchaBuscaDTO search(PranchaFiltroDTO filtro) {
+        LOG.debugf("Buscando pranchas pelos filtros: %s", filtro);
+
+        // validações nos filtros
+        if (filtro.page() < 0) {
+            LOG.errorf("Página inválida: %s", filtro.page());
+            throw ValidationException.of("page", "A página deve ser zero ou maior");
+        }
+        if (filtro.size() <= 0 || filtro.size() > MAX_SIZE) {
+            LOG.errorf("Tamanho de página inválido: %s", filtro.size());
+            throw ValidationException.of("size", "O tamanho da página deve estar entre 1 e " + MAX_SIZE);
+        }
+        if (filtro.tamanhoMin() != null && filtro.tamanhoMax() != null && filtro.tamanhoMin() > filtro.tamanhoMax()) {
+            LOG.errorf("Faixa de tamanho inválida: %s a %s", filtro.tamanhoMin(), filtro.tamanhoMax());
+            throw ValidationException.of("tamanhoMin", "O tamanho mínimo deve ser menor ou igual ao máximo");
+        }
+        if (filtro.valorMin() != null && filtro.valorMax() != null && filtro.valorMin() > filtro.valorMax()) {
+            LOG.errorf("Faixa de valor inválida: %s a %s", filtro.valorMin(), filtro.valorMax());
+            throw ValidationException.of("valorMin", "O valor mínimo deve ser menor ou igual ao máximo");
+        }
+
+        // com o índice em memória ligado a busca não vai ao banco
+        PranchaBuscaDTO busca = indice.ativo() ? indice.buscar(filtro) : buscarNoBanco(filtro);
+
+        LOG.debugf("Busca de pranchas: %s encontradas, %s na página", busca.total(), busca.itens().size());
+        return busca;
+    }
+
+    // a mesma busca feita no banco: uma contagem agrupada para as facetas e o total, depois a página
+    PranchaBuscaDTO buscarNoBanco(PranchaFiltroDTO filtro) {
+        // as facetas e o total saem da mesma contagem: cada linha é uma combinação de tipo e habilidade
+        Map<TipoPrancha, Long> facetasTipo = new EnumMap<>(TipoPrancha.class);
+        Map<Habilidade, Long> facetasHabilidade = new EnumMap<>(Habilidade.class);
+        for (TipoPrancha tipo : TipoPrancha.values())
+            facetasTipo.put(tipo, 0L);
+        for (Habilidade habilidade : Habilidade.values())
+            facetasHabilidade.put(habilidade, 0L);
+
+        long total = 0;
+        for (Object[] linha : repository.contarPorTipoEHabilidade(filtro)) {
+            TipoPrancha tipo = (TipoPrancha) linha[0];
+            Habilidade habilidade = (Habilidade) linha[1];
+            long quantidade = (Long) linha[2];
+
+            boolean tipoAtende = filtro.tipoPrancha() == null || filtro.tipoPrancha() == tipo;
+            boolean habilidadeAtende = filtro.habilidade() == null || filtro.habilidade() == habilidade;
+
+            if (habilidadeAtende && tipo != null)
+                facetasTipo.merge(tipo, quantidade, Long::sum);
+            if (tipoAtende && habilidade != null)
+                facetasHabilidade.merge(habilidade, quantidade, Long::sum);
+            if (tipoAtende && habilidadeAtende)
+                total += quantidade;
+        }
+
+        // a página só é buscada se existir alguma prancha a partir dela
+        List<PranchaResponseDTO> itens = (long) filtro.page() * filtro.size() < total
+                ? repository.findByFiltro(filtro)
+                : List.of();
+
+        return new PranchaBuscaDTO(itens, total, filtro.page(), filtro.size(), facetasTipo, facetasHabilidade);
+    }
+
     // busca todos os registros pelo id no banco
     @Override
     public Prancha findById(Long id) {
 
         // validações nos campos obrigatórios
-        LOG.info("Buscando prancha por ID: " + id);
+        LOG.infof("Buscando prancha por ID: %s", id);
 
         if (id == null || id <= 0) {
             LOG.error("ID inválido.");
@@ -85,11 +228,11 @@ public class PranchaServiceImpl implements PranchaService {
 
         Prancha prancha = repository.findById(id);
         if (prancha == null) {
-            LOG.warn("Prancha não encontrada para ID: " + id);
+            LOG.warnf("Prancha não encontrada para ID: %s", id);
             throw ValidationException.of("id", "Prancha não encontrada");
         }
 
-        LOG.info("Prancha encontrada: ID = " + prancha.getId());
+        LOG.infof("Prancha encontrada: ID = %s", prancha.getId());
         return prancha;
     }
 
@@ -108,19 +251,19 @@ public class PranchaServiceImpl implements PranchaService {
 
         Modelo modelo = modeloRepository.findById(dto.idModelo());
         if (modelo == null) {
-            LOG.error("Modelo não encontrado. ID = " + dto.idModelo());
+            LOG.errorf("Modelo não encontrado. ID = %s", dto.idModelo());
             throw ValidationException.of("idModelo", "Modelo não encontrado");
         }
 
         Quilha quilha = quilhaRepository.findById(dto.idQuilha());
         if (quilha == null) {
-            LOG.error("Quilha não encontrada. ID = " + dto.idQuilha());
+            LOG.errorf("Quilha não encontrada. ID = %s", dto.idQuilha());
             throw ValidationException.of("idQuilha", "Quilha não encontrada");
         }
 
         Fornecedor fornecedor = fornecedorRepository.findById(dto.idFornecedor());
         if (fornecedor == null) {
-            LOG.error("Fornecedor não encontrado. ID = " + dto.idFornecedor());
+            LOG.errorf("Fornecedor não encontrado. ID = %s", dto.idFornecedor());
             throw ValidationException.of("idFornecedor", "Fornecedor não encontrado");
         }
 
@@ -136,18 +279,20 @@ public class PranchaServiceImpl implements PranchaService {
         prancha.setFornecedores(List.of(fornecedor)); // associa a UM fornecedor
 
         repository.persist(prancha);
+        indice.salvar(prancha);
 
-        LOG.info("Prancha criada com sucesso! ID = " + prancha.getId());
+        LOG.infof("Prancha criada com sucesso! ID = %s", prancha.getId());
         return prancha;
     }
 
     // alterando uma prancha
     @Override
+    @RetryOnConflict
     @Transactional
     public void update(Long id, PranchaDTO dto) {
 
         // validações nos campos obrigatórios
-        LOG.info("Atualizando prancha ID: " + id);
+        LOG.infof("Atualizando prancha ID: %s", id);
 
         if (id == null || id <= 0) {
             LOG.error("ID inválido para atualização.");
@@ -160,28 +305,34 @@ public class PranchaServiceImpl implements PranchaService {
 
         Prancha prancha = repository.findById(id);
         if (prancha == null) {
-            LOG.warn("Prancha não encontrada para atualização. ID: " + id);
+            LOG.warnf("Prancha não encontrada para atualização. ID: %s", id);
             throw ValidationException.of("id", "Prancha não encontrada");
         }
 
         Modelo modelo = modeloRepository.findById(dto.idModelo());
         if (modelo == null) {
-            LOG.error("Modelo não encontrado na atualização. ID = " + dto.idModelo());
+            LOG.errorf("Modelo não encontrado na atualização. ID = %s", dto.idModelo());
             throw ValidationException.of("idModelo", "Modelo não encontrado");
         }
 
         Quilha quilha = quilhaRepository.findById(dto.idQuilha());
         if (quilha == null) {
-            LOG.error("Quilha não encontrada na atualização. ID = " + dto.idQuilha());
+            LOG.errorf("Quilha não encontrada na atualização. ID = %s", dto.idQuilha());
             throw ValidationException.of("idQuilha", "Quilha não encontrada");
         }
 
         Fornecedor fornecedor = fornecedorRepository.findById(dto.idFornecedor());
         if (fornecedor == null) {
-            LOG.error("Fornecedor não encontrado na atualização. ID = " + dto.idFornecedor());
+            LOG.errorf("Fornecedor não encontrado na atualização. ID = %s", dto.idFornecedor());
             throw ValidationException.of("idFornecedor", "Fornecedor não encontrado");
         }
 
+        // o tipo e a marca agrupam o resumo de vendas: se mudarem, os pedidos da prancha saem dele antes e entram de novo depois
+        boolean mudaGrupo = prancha.getTipoPrancha() != dto.tipoPrancha()
+                || !Objects.equals(idMarca(prancha.getModelo()), idMarca(modelo));
+        if (mudaGrupo)
+            resumo.retirarPranchas(List.of(id));
+
         // alterando os campos
         prancha.setTamanho(dto.tamanho());
         prancha.setValor(dto.valor());
@@ -191,17 +342,27 @@ public class PranchaServiceImpl implements PranchaService {
         prancha.setModelo(modelo);
         prancha.setQuilhas(List.of(quilha)); 
         prancha.setFornecedores(List.of(fornecedor));
+        if (mudaGrupo)
+            resumo.registrarPranchas(List.of(id));
+
+        cache.invalidar(id);
+        indice.salvar(prancha);
+        LOG.infof("Prancha atualizada com sucesso. ID = %s", id);
+    }
 
-        LOG.info("Prancha atualizada com sucesso. ID = " + id);
+    // id da marca do modelo (null quando não tem)
+    private static Long idMarca(Modelo modelo) {
+        return modelo == null || modelo.getMarca() == null ? null : modelo.getMarca().getId();
     }
 
     // deletando uma prancha
     @Override
+    @RetryOnConflict
     @Transactional
     public void delete(Long id) {
 
         // validações nos campos obrigatórios
-        LOG.info("Deletando prancha ID: " + id);
+        LOG.infof("Deletando prancha ID: %s", id);
 
         if (id == null || id <= 0) {
             LOG.error("ID inválido na exclusão.");
@@ -210,12 +371,14 @@ public class PranchaServiceImpl implements PranchaService {
 
         Prancha prancha = repository.findById(id);
         if (prancha == null) {
-            LOG.warn("Tentativa de deletar prancha inexistente. ID: " + id);
+            LOG.warnf("Tentativa de deletar prancha inexistente. ID: %s", id);
             throw ValidationException.of("id", "Prancha não encontrada");
         }
 
         repository.delete(prancha);
+        cache.invalidar(id);
+        indice.remover(id);
 
-        LOG.info("Prancha deletada com sucesso. ID = " + id);
+        LOG.infof("Prancha deletada com sucesso. ID = %s", id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.dto.PranchaBuscaDTO;
+import br.unitins.topicos1.prancha.dto.PranchaDTO;
+import br.unitins.topicos1.prancha.dto.PranchaFiltroDTO;
+import br.unitins.topicos1.prancha.dto.PranchaResponseDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
+import br.unitins.topicos1.prancha.model.Habilidade;
+import br.unitins.topicos1.prancha.model.TipoPrancha;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+
+@QuarkusTest
+public class PranchaServiceImplTest {
+
+    // esse teste usa o banco de teste (R__dados_iniciais.sql) e altera a mesma prancha a partir de várias threads ao mesmo tempo
+
+    private static final int THREADS = 8;
+
+    @Inject
+    PranchaService pranchaService;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    // método auxiliar que monta um filtro só com tipo, habilidade, marca e tipo de quilha
+    private PranchaFiltroDTO filtro(TipoPrancha tipo, Habilidade habilidade, Long idMarca, Long idTipoQuilha) {
+        return new PranchaFiltroDTO(tipo, habilidade, null, null, null, null, idMarca, null, idTipoQuilha, null, 0, 20);
+    }
+
+    // método auxiliar que monta os dados da prancha 1 do R__dados_iniciais.sql com o estoque informado
+    private PranchaDTO pranchaUmComEstoque(int estoque) {
+        return new PranchaDTO(5.8f, 1200.00, estoque, TipoPrancha.FISH, Habilidade.INICIANTE, 1L, 3L, 1L);
+    }
+
+    // método auxiliar que lê a versão atual da prancha 1 numa transação própria
+    private long versaoPranchaUm() {
+        return QuarkusTransaction.requiringNew().call(() -> pranchaService.findById(1L).getVersao());
+    }
+
+    // várias alterações simultâneas na mesma prancha: nenhuma pode se perder sem erro
+    @Test
+    public void testUpdateConcorrenteNaoPerdeAlteracoes() throws Exception {
+        long versaoInicial = versaoPranchaUm();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger sucessos = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                int estoque = 20 + i;
+                tarefas.add(executor.submit(() -> {
+                    largada.await(); // todas as threads começam juntas
+                    try {
+                        pranchaService.update(1L, pranchaUmComEstoque(estoque));
+                        sucessos.incrementAndGet();
+                    } catch (OptimisticLockException e) {
+                        conflitos.incrementAndGet(); // desistiu depois de esgotar as tentativas
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas)
+                tarefa.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // cada alteração confirmada incrementa a versão uma única vez, as demais terminaram em conflito explícito
+        assertEquals(THREADS, sucessos.get() + conflitos.get());
+        assertTrue(sucessos.get() > 0);
+        assertEquals(versaoInicial + sucessos.get(), versaoPranchaUm());
+
+        // devolve o estoque original para não afetar os outros testes
+        pranchaService.update(1L, pranchaUmComEstoque(10));
+    }
+
+    // a prancha 2 (shortboard intermediária da marca 2, quilha quad) é encontrada pelos filtros
+    // e, com o índice do catálogo já montado, a página, o total e as facetas saem sem nenhum comando no banco
+    @Test
+    public void testSearchFiltros() {
+        pranchaService.search(filtro(null, null, null, null)); // monta o índice
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+
+        PranchaBuscaDTO busca = pranchaService.search(filtro(null, null, 2L, 2L));
+
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertTrue(busca.total() >= 1);
+        assertTrue(busca.itens().stream().anyMatch(p -> p.id() == 2L));
+        assertTrue(busca.itens().stream().allMatch(p -> "Mormaii".equals(p.marca())));
+        assertEquals(busca.total(), busca.facetasTipo().values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(busca.facetasTipo().get(TipoPrancha.SHORTBOARD) >= 1);
+        assertTrue(busca.facetasHabilidade().get(Habilidade.INTERMEDIARIO) >= 1);
+    }
+
+    // o filtro de tipo não esvazia a faceta de tipo: ela continua mostrando quantas haveria nos outros tipos
+    @Test
+    public void testSearchFacetasIgnoramOProprioFiltro() {
+        PranchaBuscaDTO busca = pranchaService.search(filtro(TipoPrancha.GUN, null, 2L, null));
+
+        assertEquals(0, busca.total());
+        assertTrue(busca.itens().isEmpty());
+        assertTrue(busca.facetasTipo().get(TipoPrancha.SHORTBOARD) >= 1);
+        assertEquals(0, busca.facetasHabilidade().get(Habilidade.INTERMEDIARIO));
+    }
+
+    // faixas de valor e estoque
+    @Test
+    public void testSearchFaixas() {
+        PranchaBuscaDTO busca = pranchaService.search(new PranchaFiltroDTO(null, null, 6.0f, 6.5f, 1800.0, 1800.0,
+                null, 2L, null, true, 0, 20));
+
+        List<Long> ids = busca.itens().stream().map(PranchaResponseDTO::id).toList();
+        assertTrue(ids.contains(2L));
+        assertFalse(ids.contains(1L));
+    }
+
+    @Test
+    public void testSearchFiltroInvalido() {
+        assertThrows(ValidationException.class, () -> pranchaService.search(
+                new PranchaFiltroDTO(null, null, null, null, 500.0, 100.0, null, null, null, null, 0, 20)));
+        assertThrows(ValidationException.class, () -> pranchaService.search(
+                new PranchaFiltroDTO(null, null, null, null, null, null, null, null, null, null, 0, 0)));
+    }
+}
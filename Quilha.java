@@ -1,9 +1,14 @@
 package br.unitins.topicos1.prancha.model;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
+@Cacheable
 @Entity
+@Table(indexes = @Index(name = "idx_quilha_tipo", columnList = "id_tipo_quilha"))
 public class Quilha extends DefaultEntity {
 
     private String descricaoQuilha;
@@ -1,5 +1,6 @@
 package br.unitins.topicos1.prancha.repository;
 import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import br.unitins.topicos1.prancha.model.Quilha;
 import br.unitins.topicos1.prancha.model.TipoQuilha;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
@@ -8,9 +9,12 @@ import jakarta.enterprise.context.ApplicationScoped;
 @ApplicationScoped
 public class QuilhaRepository implements PanacheRepository<Quilha> {
     
-    // buscando a quilha pelo tipo de quilha
+    // buscando a quilha pelo tipo de quilha (usa o cache de consultas)
     public List<Quilha> findByTipoQuilha(TipoQuilha tipoQuilha) {
-        return list("tipoQuilha", tipoQuilha);
+        return find("tipoQuilha", tipoQuilha)
+                .withHint(HibernateHints.HINT_CACHEABLE, true)
+                .withHint(HibernateHints.HINT_CACHE_REGION, MarcaRepository.CACHE_CONSULTAS)
+                .list();
     }
 
 }
\ No newline at end of file
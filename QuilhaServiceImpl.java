@@ -22,6 +22,9 @@ public class QuilhaServiceImpl implements QuilhaService {
     @Inject
     TipoQuilhaRepository tipoQuilhaRepository;
 
+    @Inject
+    CatalogoIndice indice;
+
     // busca todos os registros no banco
     @Override
     public List<Quilha> findAll() {
@@ -34,7 +37,7 @@ public class QuilhaServiceImpl implements QuilhaService {
             throw ValidationException.of("Lista de Quilhas", "Nenhuma quilha cadastrada");
         }
 
-        LOG.info("Quilhas encontradas: " + listaQuilhas.size());
+        LOG.infof("Quilhas encontradas: %s", listaQuilhas.size());
         return listaQuilhas;
     }
 
@@ -57,7 +60,7 @@ public class QuilhaServiceImpl implements QuilhaService {
             throw ValidationException.of("tipoQuilha", "Nenhuma quilha encontrada para o tipo informado");
         }
 
-        LOG.info("Quantidade de quilhas encontradas para o tipo: " + listaQuilhas.size());
+        LOG.infof("Quantidade de quilhas encontradas para o tipo: %s", listaQuilhas.size());
         return listaQuilhas;
     }
 
@@ -160,6 +163,7 @@ public class QuilhaServiceImpl implements QuilhaService {
         quilha.setDescricaoQuilha(dto.descricaoQuilha());
         quilha.setTipoQuilha(tipoQuilha);
 
+        indice.recarregar();
         LOG.info("Quilha atualizada com sucesso.");
     }
 
@@ -184,6 +188,7 @@ public class QuilhaServiceImpl implements QuilhaService {
         }
 
         quilhaRepository.delete(quilha);
+        indice.recarregar();
 
         LOG.info("Quilha deletada com sucesso.");
     }
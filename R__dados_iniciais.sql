@@ -0,0 +1,106 @@
+-- dados de exemplo, carregados só em dev e test (quarkus.flyway.locations inclui db/seed nesses perfis)
+-- os ids são fixos, então o banco precisa estar vazio (clean-at-start nesses perfis)
+INSERT INTO tipoquilha (id, nome) VALUES
+(1, 'Tri-Fin'),
+(2, 'Quad'),
+(3, 'Single');
+
+INSERT INTO marca (id, nome, paisOrigem) VALUES
+(1, 'Rusty', 'EUA'),
+(2, 'Mormaii', 'Brasil');
+
+INSERT INTO modelo (id, nome, id_marca) VALUES
+(1, 'Fish Classic', 1),
+(2, 'Short Pro', 2);
+
+INSERT INTO telefone (id, ddd, numero) VALUES
+(1, '63', '999999999'),
+(2, '63', '988888888'),
+(3, '63', '977777777');
+
+INSERT INTO pessoa (id, nome, id_telefone) VALUES
+(1, 'João Silva', 1),
+(2, 'Maria Admin', 2),
+(3, 'Surf Supply Ltda', 3);
+
+INSERT INTO cliente (id, cpf)
+VALUES (1, '11111111111');
+
+INSERT INTO administrador (id, cargo, statusAdm)
+VALUES (2, 'Gerente', 'ATIVO');
+
+INSERT INTO fornecedor (id, cnpj)
+VALUES (3, '22222222222222');
+
+INSERT INTO prancha (id, tamanho, valor, estoque, id_modelo, tipoPrancha, habilidade)
+VALUES
+(1, 5.8, 1200.00, 10, 1, 'FISH', 'INICIANTE'),
+(2, 6.2, 1800.00, 5, 2, 'SHORTBOARD', 'INTERMEDIARIO');
+
+INSERT INTO prancha_fornecedor (id_prancha, id_fornecedor)
+VALUES
+(1, 3),
+(2, 3);
+
+INSERT INTO quilha (id, descricaoQuilha, id_tipo_quilha)
+VALUES
+(1, 'Quilha Tri-Fin padrão', 1),
+(2, 'Quilha Quad performance', 2);
+
+INSERT INTO prancha_quilha (id_prancha, id_quilha)
+VALUES 
+(1, 1),
+(2, 2);
+
+INSERT INTO endereco (id, cidade, estado, cep)
+VALUES (1, 'Palmas', 'TO', '77000000');
+
+INSERT INTO pagamento (id, dataPagamento, statusPagamento)
+VALUES
+(1, CURRENT_TIMESTAMP, 'PAGO'),
+(2, CURRENT_TIMESTAMP, 'PENDENTE'),
+(3, CURRENT_TIMESTAMP, 'PENDENTE');
+
+INSERT INTO pix (id, chave)
+VALUES (1, 'joao@pix.com');
+
+INSERT INTO boleto (id, dataVencimento, codigoBarras)
+VALUES (2, CURRENT_DATE + 5, '123456789000111');
+
+INSERT INTO cartao (id, dataVencimento, nomeTitular, numeroCartao)
+VALUES (3, CURRENT_DATE + 365, 'João Silva', '5555444433332222');
+
+INSERT INTO pedido (id, dataPedido, valorTotal, id_endereco, id_cliente, id_pagamento)
+VALUES (1, CURRENT_TIMESTAMP, 2400.00, 1, 1, 1);
+
+INSERT INTO itempedido (id, id_pedido, id_prancha, quantidade, precoUnit, subtotal)
+VALUES 
+(1, 1, 1, 2, 150.00, 300.00),
+(2, 1, 2, 1, 120.00, 120.00);
+
+-- resumo de vendas do pedido acima (o V6 só resume os pedidos que já existiam quando ele rodou)
+INSERT INTO resumo_venda_diaria (dia, id_prancha, formaPagamento, statusPagamento,
+        pedidos, pedidosDia, pedidosTipo, pedidosMarca, itens, receita)
+VALUES
+(CURRENT_DATE, 1, 'PIX', 'PAGO', 1, 1, 1, 1, 2, 300.00),
+(CURRENT_DATE, 2, 'PIX', 'PAGO', 1, 0, 1, 1, 1, 120.00);
+
+INSERT INTO usuario (id, login, senha, perfil)
+VALUES (1, 'admin', '+RMra81+PVL2HQWuh7xAkSohHzzzq62hw4zuaEpFHXbE0+pX+fzwOpTqmmuDA19zusgadv4fnMnHqLd2S32aXQ==', 1);
+
+INSERT INTO usuario (id, login, senha, perfil)
+VALUES (2, 'user', '+RMra81+PVL2HQWuh7xAkSohHzzzq62hw4zuaEpFHXbE0+pX+fzwOpTqmmuDA19zusgadv4fnMnHqLd2S32aXQ==', 2);
+
+-- os ids acima foram informados manualmente, então as sequences começam depois deles
+ALTER SEQUENCE tipoquilha_seq RESTART WITH 100;
+ALTER SEQUENCE marca_seq RESTART WITH 100;
+ALTER SEQUENCE modelo_seq RESTART WITH 100;
+ALTER SEQUENCE telefone_seq RESTART WITH 100;
+ALTER SEQUENCE pessoa_seq RESTART WITH 100;
+ALTER SEQUENCE prancha_seq RESTART WITH 100;
+ALTER SEQUENCE quilha_seq RESTART WITH 100;
+ALTER SEQUENCE endereco_seq RESTART WITH 100;
+ALTER SEQUENCE pagamento_seq RESTART WITH 100;
+ALTER SEQUENCE pedido_seq RESTART WITH 100;
+ALTER SEQUENCE itempedido_seq RESTART WITH 100;
+ALTER SEQUENCE usuario_seq RESTART WITH 100;
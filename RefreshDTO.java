@@ -0,0 +1,10 @@
+package br.unitins.topicos1.prancha.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshDTO(
+
+    @NotBlank(message = "O refresh token é obrigatório")
+    String refreshToken
+
+) {}
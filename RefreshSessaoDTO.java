@@ -0,0 +1,12 @@
+package br.unitins.topicos1.prancha.dto;
+import java.time.Instant;
+import br.unitins.topicos1.prancha.model.Perfil;
+
+// sessão guardada para um refresh token: de quem é e até quando vale
+public record RefreshSessaoDTO (
+
+    String login,
+    Perfil perfil,
+    Instant expiraEm
+
+) {}
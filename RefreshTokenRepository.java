@@ -0,0 +1,97 @@
+package br.unitins.topicos1.prancha.repository;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.hibernate.Session;
+import br.unitins.topicos1.prancha.dto.RefreshSessaoDTO;
+import br.unitins.topicos1.prancha.model.Perfil;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+// sessões de refresh token (tabela refresh_token), acessadas direto pelo jdbc da sessão, na transação atual
+// a chave é o sha-256 do token, calculado pelo RefreshTokenStore
+@ApplicationScoped
+public class RefreshTokenRepository {
+
+    private static final String INSERT = "INSERT INTO refresh_token (hash, login, perfil, expiraEm) VALUES (?, ?, ?, ?)";
+
+    // apaga as sessões do login além das mais novas
+    private static final String DELETE_EXCEDENTES = "DELETE FROM refresh_token WHERE id IN "
+            + "(SELECT id FROM refresh_token WHERE login = ? ORDER BY id DESC OFFSET ?)";
+
+    // apagar e devolver no mesmo comando: duas instâncias nunca trocam o mesmo token
+    private static final String DELETE_RETORNANDO = "DELETE FROM refresh_token WHERE hash = ? "
+            + "RETURNING login, perfil, expiraEm";
+
+    @Inject
+    EntityManager entityManager;
+
+    // grava a sessão e descarta as mais antigas do mesmo login que passarem de maximoPorLogin
+    public void inserir(String hash, RefreshSessaoDTO sessao, int maximoPorLogin) {
+        sessao().doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+                ps.setString(1, hash);
+                ps.setString(2, sessao.login());
+                ps.setString(3, sessao.perfil().name());
+                ps.setObject(4, OffsetDateTime.ofInstant(sessao.expiraEm(), ZoneOffset.UTC));
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = connection.prepareStatement(DELETE_EXCEDENTES)) {
+                ps.setString(1, sessao.login());
+                ps.setInt(2, maximoPorLogin);
+                ps.executeUpdate();
+            }
+        });
+    }
+
+    // remove a sessão do token e devolve como ela estava (null se não existe)
+    public RefreshSessaoDTO remover(String hash) {
+        return sessao().doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(DELETE_RETORNANDO)) {
+                ps.setString(1, hash);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next())
+                        return null;
+                    return new RefreshSessaoDTO(rs.getString(1), Perfil.valueOf(rs.getString(2)),
+                            rs.getObject(3, OffsetDateTime.class).toInstant());
+                }
+            }
+        });
+    }
+
+    // remove todas as sessões de um login e devolve quantas eram
+    public int removerDoLogin(String login) {
+        return executar("DELETE FROM refresh_token WHERE login = ?", login);
+    }
+
+    // remove as sessões vencidas e devolve quantas eram
+    public int removerVencidas(Instant agora) {
+        return executar("DELETE FROM refresh_token WHERE expiraEm < ?", OffsetDateTime.ofInstant(agora, ZoneOffset.UTC));
+    }
+
+    public long contar() {
+        return sessao().doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT count(*) FROM refresh_token");
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+    }
+
+    private int executar(String sql, Object parametro) {
+        return sessao().doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setObject(1, parametro);
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    private Session sessao() {
+        return entityManager.unwrap(Session.class);
+    }
+}
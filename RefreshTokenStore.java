@@ -0,0 +1,119 @@
+package br.unitins.topicos1.prancha.service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import br.unitins.topicos1.prancha.dto.RefreshSessaoDTO;
+import br.unitins.topicos1.prancha.model.Perfil;
+import br.unitins.topicos1.prancha.repository.RefreshTokenRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.transaction.Transactional;
+
+// guarda os refresh tokens emitidos no login: com eles o cliente pega um novo jwt sem mandar a senha de novo
+// o token é um valor aleatório sem significado, no banco (tabela refresh_token) fica só o sha-256 dele,
+// assim as sessões sobrevivem a um deploy e valem em qualquer instância
+// cada token vale uma vez: ao renovar, o antigo sai e um novo é emitido
+// cada login guarda no máximo auth.refresh.maximo-por-login sessões, as mais antigas saem quando passa disso
+@ApplicationScoped
+public class RefreshTokenStore {
+
+    private static final Logger LOG = Logger.getLogger(RefreshTokenStore.class);
+
+    private static final int TAMANHO_TOKEN = 32; // bytes aleatórios do token
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @ConfigProperty(name = "auth.refresh.expiracao", defaultValue = "168h")
+    Duration expiracao;
+
+    @ConfigProperty(name = "auth.refresh.maximo-por-login", defaultValue = "10")
+    int maximoPorLogin;
+
+    @Inject
+    RefreshTokenRepository repository;
+
+    @Inject
+    TransactionSynchronizationRegistry transacoes;
+
+    // cria um refresh token para o usuário
+    @Transactional
+    public String emitir(String login, Perfil perfil) {
+        byte[] bytes = new byte[TAMANHO_TOKEN];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        repository.inserir(digest(token), new RefreshSessaoDTO(login, perfil, Instant.now().plus(expiracao)), maximoPorLogin);
+        return token;
+    }
+
+    // troca o token pela sessão (o token deixa de valer); devolve null se não existe, já foi usado ou expirou
+    @Transactional
+    public RefreshSessaoDTO consumir(String token) {
+        if (token == null)
+            return null;
+
+        RefreshSessaoDTO sessao = repository.remover(digest(token));
+        if (sessao == null || sessao.expiraEm().isBefore(Instant.now()))
+            return null;
+        return sessao;
+    }
+
+    // revoga um token (logout)
+    @Transactional
+    public void revogar(String token) {
+        if (token != null)
+            repository.remover(digest(token));
+    }
+
+    // revoga todos os tokens de um usuário (troca de senha, por exemplo)
+    // e de novo depois do commit, numa transação própria: um login que conferiu a senha antiga antes do commit
+    // pode ter gravado um token depois da primeira remoção
+    @Transactional
+    public void revogarTodos(String login) {
+        repository.removerDoLogin(login);
+        transacoes.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED)
+                    QuarkusTransaction.requiringNew().run(() -> repository.removerDoLogin(login));
+            }
+        });
+    }
+
+    @Transactional
+    public long tamanho() {
+        return repository.contar();
+    }
+
+    // apaga os tokens vencidos que ninguém usou
+    @Scheduled(every = "${auth.refresh.limpeza:1m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void limpar() {
+        int removidos = repository.removerVencidas(Instant.now());
+        if (removidos > 0)
+            LOG.debugf("Refresh tokens vencidos removidos: %s", removidos);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package br.unitins.topicos1.prancha.service;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.dto.AuthDTO;
+import br.unitins.topicos1.prancha.dto.RefreshDTO;
+import br.unitins.topicos1.prancha.dto.RefreshSessaoDTO;
+import br.unitins.topicos1.prancha.model.Perfil;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+@QuarkusTest
+public class RefreshTokenStoreTest {
+
+    @Inject
+    RefreshTokenStore refreshTokenStore;
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "auth.refresh.maximo-por-login")
+    int maximoPorLogin;
+
+    // o token só vale uma vez
+    @Test
+    public void testConsumirUmaVez() {
+        String token = refreshTokenStore.emitir("user", Perfil.USER);
+
+        RefreshSessaoDTO sessao = refreshTokenStore.consumir(token);
+        assertEquals("user", sessao.login());
+        assertEquals(Perfil.USER, sessao.perfil());
+
+        assertNull(refreshTokenStore.consumir(token));
+        assertNull(refreshTokenStore.consumir("inexistente"));
+    }
+
+    // token vencido é recusado e sai da tabela na limpeza
+    @Test
+    public void testExpirado() {
+        String token = refreshTokenStore.emitir("vencido", Perfil.USER);
+        refreshTokenStore.emitir("vencido", Perfil.USER);
+        QuarkusTransaction.requiringNew().run(() -> entityManager
+                .createNativeQuery("UPDATE refresh_token SET expiraEm = now() - interval '1 second' WHERE login = 'vencido'")
+                .executeUpdate());
+        long antes = refreshTokenStore.tamanho();
+
+        assertNull(refreshTokenStore.consumir(token));
+        refreshTokenStore.limpar();
+        assertEquals(antes - 2, refreshTokenStore.tamanho());
+    }
+
+    // quem passa do limite de sessões perde as mais antigas
+    @Test
+    public void testMaximoPorLogin() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i <= maximoPorLogin; i++)
+            tokens.add(refreshTokenStore.emitir("limite", Perfil.USER));
+
+        assertNull(refreshTokenStore.consumir(tokens.get(0)));
+        for (String token : tokens.subList(1, tokens.size()))
+            assertNotNull(refreshTokenStore.consumir(token));
+    }
+
+    @Test
+    public void testRevogarTodos() {
+        String token1 = refreshTokenStore.emitir("revogado", Perfil.USER);
+        String token2 = refreshTokenStore.emitir("revogado", Perfil.USER);
+        String outro = refreshTokenStore.emitir("outro", Perfil.USER);
+
+        refreshTokenStore.revogarTodos("revogado");
+
+        assertNull(refreshTokenStore.consumir(token1));
+        assertNull(refreshTokenStore.consumir(token2));
+        assertNotNull(refreshTokenStore.consumir(outro));
+    }
+
+    // um token emitido por outra transação depois da revogação, mas antes do commit dela, também sai
+    @Test
+    public void testRevogarTodosDepoisDoCommit() {
+        String[] concorrente = new String[1];
+        QuarkusTransaction.requiringNew().run(() -> {
+            refreshTokenStore.revogarTodos("trocou-senha");
+            concorrente[0] = QuarkusTransaction.requiringNew().call(() -> refreshTokenStore.emitir("trocou-senha", Perfil.USER));
+        });
+
+        assertNull(refreshTokenStore.consumir(concorrente[0]));
+    }
+
+    // login devolve o refresh token, que troca por um jwt novo e depois do logout não vale mais
+    @Test
+    public void testFluxoRefreshLogout() {
+        Response login = given()
+                .contentType(ContentType.JSON)
+                .body(new AuthDTO("user", "123456"))
+                .when().post("/auth");
+        login.then().statusCode(200)
+                .header("Authorization", notNullValue())
+                .header("Refresh-Token", notNullValue());
+        String refresh = login.getHeader("Refresh-Token");
+
+        Response renovado = given()
+                .contentType(ContentType.JSON)
+                .body(new RefreshDTO(refresh))
+                .when().post("/auth/refresh");
+        renovado.then().statusCode(200)
+                .header("Authorization", notNullValue());
+        String novoRefresh = renovado.getHeader("Refresh-Token");
+        assertNotEquals(refresh, novoRefresh);
+
+        // o token antigo já foi trocado
+        given().contentType(ContentType.JSON).body(new RefreshDTO(refresh))
+                .when().post("/auth/refresh")
+                .then().statusCode(401);
+
+        given().contentType(ContentType.JSON).body(new RefreshDTO(novoRefresh))
+                .when().post("/auth/logout")
+                .then().statusCode(204);
+
+        given().contentType(ContentType.JSON).body(new RefreshDTO(novoRefresh))
+                .when().post("/auth/refresh")
+                .then().statusCode(401);
+    }
+}
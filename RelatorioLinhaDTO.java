@@ -0,0 +1,13 @@
+package br.unitins.topicos1.prancha.dto;
+
+public record RelatorioLinhaDTO (
+
+    // o que a linha agrupa: o dia (aaaa-mm-dd), o tipo de prancha, o nome da marca ou a forma de pagamento
+    String grupo,
+
+    // pedidos pagos, pranchas vendidas e a soma dos subtotais dos itens
+    long pedidos,
+    long itens,
+    double receita
+
+) {}
@@ -0,0 +1,81 @@
+package br.unitins.topicos1.prancha.repository;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import br.unitins.topicos1.prancha.dto.RelatorioLinhaDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+@ApplicationScoped
+public class RelatorioRepository {
+
+    // quantidade de linhas que o driver busca do banco por vez durante o stream
+    private static final int FETCH_SIZE = 500;
+
+    // receita dos pedidos pagos no período, lida só do resumo diário (resumo_venda_diaria, ver ResumoVendaRepository):
+    // o custo depende da quantidade de dias e de pranchas vendidas, não da quantidade de pedidos
+    // %1$s é o grupo, %2$s a coluna que conta cada pedido uma vez nesse grupo, %3$s os joins e %4$s a ordem das linhas
+    private static final String SELECT_RECEITA = "SELECT %1$s AS grupo, SUM(r.%2$s), SUM(r.itens), SUM(r.receita) AS receita "
+            + "FROM resumo_venda_diaria r "
+            + "%3$s "
+            + "WHERE r.statusPagamento = 'PAGO' AND r.dia >= :de AND r.dia < :ate "
+            + "GROUP BY 1 ORDER BY %4$s";
+
+    private static final String JOIN_PRANCHA = "JOIN prancha pr ON pr.id = r.id_prancha ";
+
+    private static final String SELECT_POR_DIA = String.format(SELECT_RECEITA,
+            "to_char(r.dia, 'YYYY-MM-DD')", "pedidosDia", "", "grupo");
+
+    private static final String SELECT_POR_TIPO_PRANCHA = String.format(SELECT_RECEITA,
+            "pr.tipoPrancha", "pedidosTipo", JOIN_PRANCHA, "receita DESC, grupo");
+
+    private static final String SELECT_POR_MARCA = String.format(SELECT_RECEITA,
+            "ma.nome", "pedidosMarca", JOIN_PRANCHA
+                    + "LEFT JOIN modelo mo ON mo.id = pr.id_modelo "
+                    + "LEFT JOIN marca ma ON ma.id = mo.id_marca", "receita DESC, grupo");
+
+    // um pedido tem uma forma de pagamento só, então pedidosDia também conta cada pedido uma vez aqui
+    private static final String SELECT_POR_FORMA_PAGAMENTO = String.format(SELECT_RECEITA,
+            "r.formaPagamento", "pedidosDia", "", "receita DESC, grupo");
+
+    @Inject
+    EntityManager entityManager;
+
+    // receita por dia do pedido, do dia mais antigo para o mais recente (dias sem venda não aparecem)
+    public Stream<RelatorioLinhaDTO> streamReceitaPorDia(LocalDate de, LocalDate ate) {
+        return stream(SELECT_POR_DIA, de, ate);
+    }
+
+    // receita por tipo de prancha, da que mais vendeu para a que menos vendeu
+    public Stream<RelatorioLinhaDTO> streamReceitaPorTipoPrancha(LocalDate de, LocalDate ate) {
+        return stream(SELECT_POR_TIPO_PRANCHA, de, ate);
+    }
+
+    // receita por marca (pelo modelo da prancha), da que mais vendeu para a que menos vendeu
+    public Stream<RelatorioLinhaDTO> streamReceitaPorMarca(LocalDate de, LocalDate ate) {
+        return stream(SELECT_POR_MARCA, de, ate);
+    }
+
+    // receita por forma de pagamento (PIX, BOLETO, CARTAO)
+    public Stream<RelatorioLinhaDTO> streamReceitaPorFormaPagamento(LocalDate de, LocalDate ate) {
+        return stream(SELECT_POR_FORMA_PAGAMENTO, de, ate);
+    }
+
+    // as linhas já agrupadas vêm do banco aos poucos, sem montar a lista inteira
+    // cada linha é [grupo, pedidos, itens, receita]; de entra no período e ate não
+    @SuppressWarnings("unchecked")
+    private Stream<RelatorioLinhaDTO> stream(String sql, LocalDate de, LocalDate ate) {
+        Stream<Object[]> linhas = entityManager.createNativeQuery(sql)
+                .setParameter("de", de)
+                .setParameter("ate", ate)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream();
+
+        return linhas.map(linha -> new RelatorioLinhaDTO(
+                linha[0] == null ? null : linha[0].toString(),
+                ((Number) linha[1]).longValue(),
+                ((Number) linha[2]).longValue(),
+                ((Number) linha[3]).doubleValue()));
+    }
+}
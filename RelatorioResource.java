@@ -0,0 +1,109 @@
+package br.unitins.topicos1.prancha.resource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import br.unitins.topicos1.prancha.dto.RelatorioLinhaDTO;
+import br.unitins.topicos1.prancha.service.RelatorioService;
+import br.unitins.topicos1.prancha.service.ResumoVendas;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+@Path("/relatorios")
+@Produces(MediaType.APPLICATION_JSON)
+public class RelatorioResource {
+
+    // injetado para gerar os relatórios de vendas
+    @Inject
+    RelatorioService service;
+
+    // injetado para refazer o resumo de vendas que os relatórios leem
+    @Inject
+    ResumoVendas resumo;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    // a cada quantas linhas o json já escrito é enviado para o cliente
+    private static final int FLUSH_CHUNK = 100;
+
+    // um dos relatórios do service, entregando as linhas para o consumer
+    private interface Relatorio {
+        void gerar(LocalDate de, LocalDate ate, Consumer<RelatorioLinhaDTO> consumer);
+    }
+
+    // receita dos pedidos pagos por dia, no período de/ate (aaaa-mm-dd, as duas datas entram)
+    @GET
+    @RolesAllowed("ADM")
+    @Path("/receita/dia")
+    public Response receitaPorDia(@QueryParam("de") LocalDate de, @QueryParam("ate") LocalDate ate) {
+        return stream(de, ate, service::receitaPorDia);
+    }
+
+    // receita dos pedidos pagos por tipo de prancha
+    @GET
+    @RolesAllowed("ADM")
+    @Path("/receita/tipo-prancha")
+    public Response receitaPorTipoPrancha(@QueryParam("de") LocalDate de, @QueryParam("ate") LocalDate ate) {
+        return stream(de, ate, service::receitaPorTipoPrancha);
+    }
+
+    // receita dos pedidos pagos por marca
+    @GET
+    @RolesAllowed("ADM")
+    @Path("/receita/marca")
+    public Response receitaPorMarca(@QueryParam("de") LocalDate de, @QueryParam("ate") LocalDate ate) {
+        return stream(de, ate, service::receitaPorMarca);
+    }
+
+    // receita dos pedidos pagos por forma de pagamento
+    @GET
+    @RolesAllowed("ADM")
+    @Path("/receita/forma-pagamento")
+    public Response receitaPorFormaPagamento(@QueryParam("de") LocalDate de, @QueryParam("ate") LocalDate ate) {
+        return stream(de, ate, service::receitaPorFormaPagamento);
+    }
+
+    // refaz o resumo de vendas inteiro a partir dos pedidos, devolvendo quantas linhas foram corrigidas
+    // trava a tabela do resumo enquanto roda (a conferência periódica refaz só os últimos dias)
+    @POST
+    @RolesAllowed("ADM")
+    @Path("/resumo/refazer")
+    public long refazerResumo() {
+        return resumo.refazer();
+    }
+
+    // escreve as linhas num array json conforme chegam do banco
+    // o período é validado antes: depois que a resposta começa a ser enviada o status não muda mais
+    private Response stream(LocalDate de, LocalDate ate, Relatorio relatorio) {
+        service.validarPeriodo(de, ate);
+
+        StreamingOutput output = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                int[] total = {0};
+                relatorio.gerar(de, ate, linha -> {
+                    try {
+                        json.writeObject(linha);
+                        if (++total[0] % FLUSH_CHUNK == 0)
+                            json.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+            }
+        };
+        return Response.ok(output, MediaType.APPLICATION_JSON).build();
+    }
+}
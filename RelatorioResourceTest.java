@@ -0,0 +1,116 @@
+package br.unitins.topicos1.prancha.resource;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import br.unitins.topicos1.prancha.dto.RelatorioLinhaDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
+import br.unitins.topicos1.prancha.service.RelatorioService;
+import br.unitins.topicos1.prancha.service.ResumoVendas;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class RelatorioResourceTest {
+
+    // mock serve para testar apenas os endpoints REST do resource, sem depender do banco real
+
+    @Inject
+    RelatorioResource relatorioResource; // injeta o resource real
+
+    @Mock
+    RelatorioService service; // cria um objeto falso do service
+
+    @Mock
+    ResumoVendas resumo; // resumo de vendas falso, para não travar a tabela de verdade
+
+    // substitui o service real pelo service mockado
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this); // inicializa o mock
+        relatorioResource.service = service;
+        relatorioResource.resumo = resumo;
+    }
+
+    // receita por dia: as linhas entregues pelo service saem num array json
+    @Test
+    @TestSecurity(user = "adm", roles = {"ADM"})
+    public void testReceitaPorDia() {
+        doAnswer(invocation -> {
+            Consumer<RelatorioLinhaDTO> consumer = invocation.getArgument(2);
+            consumer.accept(new RelatorioLinhaDTO("2024-01-01", 3, 4, 5200.0));
+            consumer.accept(new RelatorioLinhaDTO("2024-01-02", 1, 1, 1200.0));
+            return null;
+        }).when(service).receitaPorDia(eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 1, 31)), any());
+
+        given()
+        .queryParam("de", "2024-01-01")
+        .queryParam("ate", "2024-01-31")
+        .when()
+        .get("/relatorios/receita/dia")
+        .then()
+        .statusCode(200)
+        .body("$", hasSize(2))
+        .body("[0].grupo", equalTo("2024-01-01"))
+        .body("[0].pedidos", is(3))
+        .body("[1].receita", equalTo(1200.0f));
+    }
+
+    // receita por forma de pagamento
+    @Test
+    @TestSecurity(user = "adm", roles = {"ADM"})
+    public void testReceitaPorFormaPagamento() {
+        doAnswer(invocation -> {
+            Consumer<RelatorioLinhaDTO> consumer = invocation.getArgument(2);
+            consumer.accept(new RelatorioLinhaDTO("PIX", 2, 2, 3000.0));
+            return null;
+        }).when(service).receitaPorFormaPagamento(any(), any(), any());
+
+        given()
+        .queryParam("de", "2024-01-01")
+        .queryParam("ate", "2024-01-31")
+        .when()
+        .get("/relatorios/receita/forma-pagamento")
+        .then()
+        .statusCode(200)
+        .body("[0].grupo", equalTo("PIX"));
+    }
+
+    // período inválido volta 400 antes de o relatório começar a ser enviado
+    @Test
+    @TestSecurity(user = "adm", roles = {"ADM"})
+    public void testPeriodoInvalido() {
+        doThrow(ValidationException.of("ate", "A data final é obrigatória")).when(service).validarPeriodo(any(), isNull());
+
+        given()
+        .queryParam("de", "2024-01-01")
+        .when()
+        .get("/relatorios/receita/marca")
+        .then()
+        .statusCode(400);
+
+        verify(service, never()).receitaPorMarca(any(), any(), any());
+    }
+
+    // refazer o resumo inteiro devolve quantas linhas foram corrigidas
+    @Test
+    @TestSecurity(user = "adm", roles = {"ADM"})
+    public void testRefazerResumo() {
+        when(resumo.refazer()).thenReturn(3L);
+
+        given()
+        .when()
+        .post("/relatorios/resumo/refazer")
+        .then()
+        .statusCode(200)
+        .body(equalTo("3"));
+    }
+}
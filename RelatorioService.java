@@ -0,0 +1,14 @@
+package br.unitins.topicos1.prancha.service;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import br.unitins.topicos1.prancha.dto.RelatorioLinhaDTO;
+
+public interface RelatorioService {
+
+    void validarPeriodo(LocalDate de, LocalDate ate);
+    void receitaPorDia(LocalDate de, LocalDate ate, Consumer<RelatorioLinhaDTO> consumer);
+    void receitaPorTipoPrancha(LocalDate de, LocalDate ate, Consumer<RelatorioLinhaDTO> consumer);
+    void receitaPorMarca(LocalDate de, LocalDate ate, Consumer<RelatorioLinhaDTO> consumer);
+    void receitaPorFormaPagamento(LocalDate de, LocalDate ate, Consumer<RelatorioLinhaDTO> consumer);
+
+}
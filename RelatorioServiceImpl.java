@@ -0,0 +1,92 @@
+package br.unitins.topicos1.prancha.service;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.jboss.logging.Logger;
+import br.unitins.topicos1.prancha.dto.RelatorioLinhaDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
+import br.unitins.topicos1.prancha.repository.RelatorioRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+@ApplicationScoped
+public class RelatorioServiceImpl implements RelatorioService {
+
+    private static final Logger LOG = Logger.getLogger(RelatorioServiceImpl.class);
+
+    // período máximo de um relatório, em dias (as duas datas entram)
+    private static final int MAX_DIAS = 366;
+
+    @Inject
+    RelatorioRepository repository;
+
+    // as duas datas são obrigatórias, de não pode ser depois de ate e o período tem no máximo MAX_DIAS dias
+    @Override
+    public void validarPeriodo(LocalDate de, LocalDate ate) {
+        if (de == null) {
+            LOG.error("Data inicial do relatório não informada.");
+            throw ValidationException.of("de", "A data inicial é obrigatória");
+        }
+        if (ate == null) {
+            LOG.error("Data final do relatório não informada.");
+            throw ValidationException.of("ate", "A data final é obrigatória");
+        }
+        if (de.isAfter(ate)) {
+            LOG.errorf("Período inválido: %s a %s", de, ate);
+            throw ValidationException.of("de", "A data inicial deve ser anterior ou igual à final");
+        }
+        if (ChronoUnit.DAYS.between(de, ate) + 1 > MAX_DIAS) {
+            LOG.errorf("Período maior que o permitido: %s a %s", de, ate);
+            throw ValidationException.of("ate", "O período deve ter no máximo " + MAX_DIAS + " dias");
+        }
+    }
+
+    // receita dos pedidos pagos por dia
+    @Override
+    @Transactional
+    public void receitaPorDia(LocalDate de, LocalDate ate, Consumer<RelatorioLinhaDTO> consumer) {
+        gerar("dia", de, ate, repository::streamReceitaPorDia, consumer);
+    }
+
+    // receita dos pedidos pagos por tipo de prancha
+    @Override
+    @Transactional
+    public void receitaPorTipoPrancha(LocalDate de, LocalDate ate, Consumer<RelatorioLinhaDTO> consumer) {
+        gerar("tipo de prancha", de, ate, repository::streamReceitaPorTipoPrancha, consumer);
+    }
+
+    // receita dos pedidos pagos por marca
+    @Override
+    @Transactional
+    public void receitaPorMarca(LocalDate de, LocalDate ate, Consumer<RelatorioLinhaDTO> consumer) {
+        gerar("marca", de, ate, repository::streamReceitaPorMarca, consumer);
+    }
+
+    // receita dos pedidos pagos por forma de pagamento
+    @Override
+    @Transactional
+    public void receitaPorFormaPagamento(LocalDate de, LocalDate ate, Consumer<RelatorioLinhaDTO> consumer) {
+        gerar("forma de pagamento", de, ate, repository::streamReceitaPorFormaPagamento, consumer);
+    }
+
+    // entrega as linhas agrupadas pelo banco uma por vez; o dia final entra inteiro no período
+    private void gerar(String agrupamento, LocalDate de, LocalDate ate,
+                       BiFunction<LocalDate, LocalDate, Stream<RelatorioLinhaDTO>> consulta,
+                       Consumer<RelatorioLinhaDTO> consumer) {
+        validarPeriodo(de, ate);
+        LOG.infof("Gerando relatório de receita por %s: %s a %s", agrupamento, de, ate);
+
+        int total = 0;
+        try (Stream<RelatorioLinhaDTO> linhas = consulta.apply(de, ate.plusDays(1))) {
+            for (RelatorioLinhaDTO linha : (Iterable<RelatorioLinhaDTO>) linhas::iterator) {
+                consumer.accept(linha);
+                total++;
+            }
+        }
+
+        LOG.infof("Relatório de receita por %s finalizado. Linhas enviadas: %s", agrupamento, total);
+    }
+}
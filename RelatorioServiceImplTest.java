@@ -0,0 +1,122 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.dto.RelatorioLinhaDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class RelatorioServiceImplTest {
+
+    // esse teste grava pedidos em março de 2021 (ids a partir de 300000), longe dos pedidos dos outros testes,
+    // e usa as pranchas do R__dados_iniciais.sql: 1 (FISH, Rusty) e 2 (SHORTBOARD, Mormaii)
+    // 01/03 10h pix pago: 2x prancha 1 (2400) e 1x prancha 2 (1800)
+    // 01/03 15h boleto pago: 2x prancha 2 (3600)
+    // 02/03 cartão pendente: 1x prancha 1 (1200), fica fora dos relatórios
+    // 03/03 23h59 pix pago: 1x prancha 1 (1200)
+    // 04/03 0h pix pago: 1x prancha 1 (1200), fica fora do período de 01/03 a 03/03
+    // os pedidos vão direto para o banco, então o resumo de vendas que os relatórios leem é refeito pela conferência
+
+    private static final LocalDate DE = LocalDate.of(2021, 3, 1);
+    private static final LocalDate ATE = LocalDate.of(2021, 3, 3);
+
+    @Inject
+    RelatorioService service;
+
+    @Inject
+    ResumoVendas resumo;
+
+    @Inject
+    DataSource dataSource;
+
+    @BeforeEach
+    public void gravarPedidos() throws SQLException {
+        try (Connection conexao = dataSource.getConnection(); Statement st = conexao.createStatement()) {
+            st.executeUpdate("INSERT INTO pagamento (id, dataPagamento, statusPagamento) VALUES "
+                    + "(300001, '2021-03-01 10:00', 'PAGO'), (300002, '2021-03-01 15:00', 'PAGO'), "
+                    + "(300003, NULL, 'PENDENTE'), (300004, '2021-03-03 23:59', 'PAGO'), (300005, '2021-03-04 00:00', 'PAGO')");
+            st.executeUpdate("INSERT INTO pix (id, chave) VALUES (300001, 'a@pix.com'), (300004, 'b@pix.com'), (300005, 'c@pix.com')");
+            st.executeUpdate("INSERT INTO boleto (id, codigoBarras) VALUES (300002, '300002')");
+            st.executeUpdate("INSERT INTO cartao (id, numeroCartao) VALUES (300003, '4111111111111111')");
+            st.executeUpdate("INSERT INTO pedido (id, dataPedido, valorTotal, id_pagamento) VALUES "
+                    + "(300001, '2021-03-01 10:00', 4200, 300001), (300002, '2021-03-01 15:00', 3600, 300002), "
+                    + "(300003, '2021-03-02 09:00', 1200, 300003), (300004, '2021-03-03 23:59', 1200, 300004), "
+                    + "(300005, '2021-03-04 00:00', 1200, 300005)");
+            st.executeUpdate("INSERT INTO itempedido (id, id_pedido, id_prancha, quantidade, precoUnit, subTotal) VALUES "
+                    + "(300001, 300001, 1, 2, 1200, 2400), (300002, 300001, 2, 1, 1800, 1800), "
+                    + "(300003, 300002, 2, 2, 1800, 3600), (300004, 300003, 1, 1, 1200, 1200), "
+                    + "(300005, 300004, 1, 1, 1200, 1200), (300006, 300005, 1, 1, 1200, 1200)");
+        }
+        assertTrue(resumo.conciliar(DE) > 0);
+    }
+
+    @AfterEach
+    public void apagarPedidos() throws SQLException {
+        try (Connection conexao = dataSource.getConnection(); Statement st = conexao.createStatement()) {
+            st.executeUpdate("DELETE FROM itempedido WHERE id >= 300000");
+            st.executeUpdate("DELETE FROM pedido WHERE id >= 300000");
+            st.executeUpdate("DELETE FROM pix WHERE id >= 300000");
+            st.executeUpdate("DELETE FROM boleto WHERE id >= 300000");
+            st.executeUpdate("DELETE FROM cartao WHERE id >= 300000");
+            st.executeUpdate("DELETE FROM pagamento WHERE id >= 300000");
+        }
+        resumo.conciliar(DE);
+    }
+
+    @Test
+    public void testReceitaPorDia() {
+        List<RelatorioLinhaDTO> linhas = new ArrayList<>();
+        service.receitaPorDia(DE, ATE, linhas::add);
+
+        assertEquals(List.of(
+                new RelatorioLinhaDTO("2021-03-01", 2, 5, 7800.0),
+                new RelatorioLinhaDTO("2021-03-03", 1, 1, 1200.0)), linhas);
+    }
+
+    @Test
+    public void testReceitaPorTipoPrancha() {
+        List<RelatorioLinhaDTO> linhas = new ArrayList<>();
+        service.receitaPorTipoPrancha(DE, ATE, linhas::add);
+
+        assertEquals(List.of(
+                new RelatorioLinhaDTO("SHORTBOARD", 2, 3, 5400.0),
+                new RelatorioLinhaDTO("FISH", 2, 3, 3600.0)), linhas);
+    }
+
+    @Test
+    public void testReceitaPorMarca() {
+        List<RelatorioLinhaDTO> linhas = new ArrayList<>();
+        service.receitaPorMarca(DE, ATE, linhas::add);
+
+        assertEquals(List.of(
+                new RelatorioLinhaDTO("Mormaii", 2, 3, 5400.0),
+                new RelatorioLinhaDTO("Rusty", 2, 3, 3600.0)), linhas);
+    }
+
+    @Test
+    public void testReceitaPorFormaPagamento() {
+        List<RelatorioLinhaDTO> linhas = new ArrayList<>();
+        service.receitaPorFormaPagamento(DE, ATE, linhas::add);
+
+        assertEquals(List.of(
+                new RelatorioLinhaDTO("PIX", 2, 4, 5400.0),
+                new RelatorioLinhaDTO("BOLETO", 1, 2, 3600.0)), linhas);
+    }
+
+    @Test
+    public void testPeriodoInvalido() {
+        assertThrows(ValidationException.class, () -> service.validarPeriodo(null, ATE));
+        assertThrows(ValidationException.class, () -> service.validarPeriodo(ATE, DE));
+        assertThrows(ValidationException.class, () -> service.receitaPorDia(DE, DE.plusDays(366), linha -> {}));
+    }
+}
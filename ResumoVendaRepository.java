@@ -0,0 +1,190 @@
+package br.unitins.topicos1.prancha.repository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.query.NativeQuery;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+@ApplicationScoped
+public class ResumoVendaRepository {
+
+    private static final String TABELA = "resumo_venda_diaria";
+
+    // resumo dos pedidos por dia × prancha × forma de pagamento × status (mesma consulta do V6__resumo_venda_diaria.sql)
+    // a consulta de dentro soma os itens de cada pedido por prancha e marca a menor prancha do pedido no todo,
+    // no tipo de prancha e na marca; a de fora junta os pedidos. %s é o filtro extra dos pedidos
+    // pedidos sem data, sem status ou sem forma de pagamento e itens sem prancha ficam fora (a aplicação não grava assim)
+    private static final String SELECT_RESUMO = "SELECT dia, id_prancha, formaPagamento, statusPagamento, COUNT(*) AS pedidos, "
+            + "COUNT(*) FILTER (WHERE id_prancha = primeira) AS pedidosDia, "
+            + "COUNT(*) FILTER (WHERE id_prancha = primeiraDoTipo) AS pedidosTipo, "
+            + "COUNT(*) FILTER (WHERE id_prancha = primeiraDaMarca) AS pedidosMarca, "
+            + "SUM(itens) AS itens, SUM(receita) AS receita "
+            + "FROM (SELECT CAST(p.dataPedido AS date) AS dia, i.id_prancha, "
+            + "CASE WHEN px.id IS NOT NULL THEN 'PIX' WHEN bo.id IS NOT NULL THEN 'BOLETO' ELSE 'CARTAO' END AS formaPagamento, "
+            + "pg.statusPagamento, "
+            + "COALESCE(SUM(i.quantidade), 0) AS itens, COALESCE(SUM(CAST(i.subTotal AS numeric)), 0) AS receita, "
+            + "MIN(i.id_prancha) OVER (PARTITION BY p.id) AS primeira, "
+            + "MIN(i.id_prancha) OVER (PARTITION BY p.id, pr.tipoPrancha) AS primeiraDoTipo, "
+            + "MIN(i.id_prancha) OVER (PARTITION BY p.id, mo.id_marca) AS primeiraDaMarca "
+            + "FROM pedido p "
+            + "JOIN pagamento pg ON pg.id = p.id_pagamento "
+            + "JOIN itempedido i ON i.id_pedido = p.id "
+            + "JOIN prancha pr ON pr.id = i.id_prancha "
+            + "LEFT JOIN modelo mo ON mo.id = pr.id_modelo "
+            + "LEFT JOIN pix px ON px.id = pg.id "
+            + "LEFT JOIN boleto bo ON bo.id = pg.id "
+            + "LEFT JOIN cartao ca ON ca.id = pg.id "
+            + "WHERE p.dataPedido IS NOT NULL AND pg.statusPagamento IS NOT NULL "
+            + "AND (px.id IS NOT NULL OR bo.id IS NOT NULL OR ca.id IS NOT NULL) %s "
+            + "GROUP BY p.id, CAST(p.dataPedido AS date), i.id_prancha, px.id, bo.id, pg.statusPagamento, "
+            + "pr.tipoPrancha, mo.id_marca) item "
+            + "GROUP BY dia, id_prancha, formaPagamento, statusPagamento";
+
+    private static final String COLUNAS = "(dia, id_prancha, formaPagamento, statusPagamento, "
+            + "pedidos, pedidosDia, pedidosTipo, pedidosMarca, itens, receita)";
+
+    private static final String CHAVE = "(dia, id_prancha, formaPagamento, statusPagamento)";
+
+    // pedidos que têm itens de alguma das pranchas: o tipo da prancha e a marca do modelo agrupam o resumo,
+    // então quando eles mudam esses pedidos saem do resumo antes e entram de novo depois
+    private static final String PEDIDOS_DAS_PRANCHAS = "SELECT id_pedido FROM itempedido WHERE id_prancha IN (:pranchas)";
+
+    private static final String SOMAR = soma(":pedidos");
+    private static final String SOMAR_DAS_PRANCHAS = soma(PEDIDOS_DAS_PRANCHAS);
+    private static final String APAGAR_ZERADAS = zeradas(":pedidos");
+    private static final String APAGAR_ZERADAS_DAS_PRANCHAS = zeradas(PEDIDOS_DAS_PRANCHAS);
+
+    // soma (sinal 1) ou subtrai (sinal -1) dos totais o resumo de alguns pedidos, do jeito que eles estão no banco
+    private static String soma(String pedidos) {
+        return "INSERT INTO resumo_venda_diaria " + COLUNAS + " "
+            + "SELECT dia, id_prancha, formaPagamento, statusPagamento, :sinal * pedidos, :sinal * pedidosDia, "
+            + ":sinal * pedidosTipo, :sinal * pedidosMarca, :sinal * itens, :sinal * receita "
+            + "FROM (" + String.format(SELECT_RESUMO, "AND p.id IN (" + pedidos + ")") + ") resumo "
+            + "ON CONFLICT " + CHAVE + " DO UPDATE SET "
+            + "pedidos = resumo_venda_diaria.pedidos + EXCLUDED.pedidos, "
+            + "pedidosDia = resumo_venda_diaria.pedidosDia + EXCLUDED.pedidosDia, "
+            + "pedidosTipo = resumo_venda_diaria.pedidosTipo + EXCLUDED.pedidosTipo, "
+            + "pedidosMarca = resumo_venda_diaria.pedidosMarca + EXCLUDED.pedidosMarca, "
+            + "itens = resumo_venda_diaria.itens + EXCLUDED.itens, "
+            + "receita = resumo_venda_diaria.receita + EXCLUDED.receita";
+    }
+
+    // depois de subtrair, as linhas dos dias desses pedidos que ficaram sem pedido saem da tabela
+    private static String zeradas(String pedidos) {
+        return "DELETE FROM resumo_venda_diaria "
+            + "WHERE dia IN (SELECT CAST(dataPedido AS date) FROM pedido WHERE id IN (" + pedidos + ")) AND pedidos = 0";
+    }
+
+    // a reconstrução completa espera as transações que já mexeram no resumo e segura as novas até terminar
+    private static final String TRAVAR = "LOCK TABLE resumo_venda_diaria IN SHARE ROW EXCLUSIVE MODE";
+
+    // a conferência de um dia trava só as linhas daquele dia: espera quem já mexeu nelas e segura quem for mexer
+    private static final String TRAVAR_DIA = "SELECT 1 FROM resumo_venda_diaria WHERE dia = :dia FOR UPDATE";
+
+    // dias com pedidos ou com linhas no resumo a partir de uma data (idx_pedido_data e a chave do resumo)
+    private static final String DIAS = "SELECT CAST(dataPedido AS date) AS dia FROM pedido WHERE dataPedido >= :inicio "
+            + "UNION SELECT dia FROM resumo_venda_diaria WHERE dia >= :desde ORDER BY dia";
+
+    // refaz o resumo de todos os pedidos e corrige a tabela inteira (operação de administrador)
+    private static final String REFAZER = conciliacao("", "");
+
+    // refaz o resumo dos pedidos de um dia e corrige só as linhas daquele dia
+    private static final String CONCILIAR_DIA = conciliacao("AND p.dataPedido >= :inicio AND p.dataPedido < :fim",
+            "AND r.dia = :dia");
+
+    // refaz o resumo e compara com a tabela num único comando: apaga as linhas que não deveriam existir,
+    // grava as que faltam e corrige as que estão diferentes; devolve quantas linhas mudaram
+    // os filtros limitam os pedidos lidos e as linhas do resumo que podem ser apagadas
+    private static String conciliacao(String filtroPedidos, String filtroResumo) {
+        return "WITH esperado AS (" + String.format(SELECT_RESUMO, filtroPedidos) + "), "
+            + "removidas AS (DELETE FROM resumo_venda_diaria r WHERE NOT EXISTS (SELECT 1 FROM esperado e "
+            + "WHERE e.dia = r.dia AND e.id_prancha = r.id_prancha AND e.formaPagamento = r.formaPagamento "
+            + "AND e.statusPagamento = r.statusPagamento) " + filtroResumo + " RETURNING 1), "
+            + "corrigidas AS (INSERT INTO resumo_venda_diaria " + COLUNAS + " SELECT * FROM esperado "
+            + "ON CONFLICT " + CHAVE + " DO UPDATE SET "
+            + "pedidos = EXCLUDED.pedidos, pedidosDia = EXCLUDED.pedidosDia, pedidosTipo = EXCLUDED.pedidosTipo, "
+            + "pedidosMarca = EXCLUDED.pedidosMarca, itens = EXCLUDED.itens, receita = EXCLUDED.receita "
+            + "WHERE (resumo_venda_diaria.pedidos, resumo_venda_diaria.pedidosDia, resumo_venda_diaria.pedidosTipo, "
+            + "resumo_venda_diaria.pedidosMarca, resumo_venda_diaria.itens, resumo_venda_diaria.receita) "
+            + "IS DISTINCT FROM (EXCLUDED.pedidos, EXCLUDED.pedidosDia, EXCLUDED.pedidosTipo, "
+            + "EXCLUDED.pedidosMarca, EXCLUDED.itens, EXCLUDED.receita) RETURNING 1) "
+            + "SELECT (SELECT COUNT(*) FROM removidas) + (SELECT COUNT(*) FROM corrigidas)";
+    }
+
+    @Inject
+    EntityManager entityManager;
+
+    // soma ao resumo os pedidos (já gravados ou alterados) na situação atual deles
+    public void somar(Collection<Long> idsPedidos) {
+        aplicar(SOMAR, "pedidos", idsPedidos, 1);
+    }
+
+    // tira do resumo os pedidos antes de eles serem alterados ou apagados
+    public void subtrair(Collection<Long> idsPedidos) {
+        aplicar(SOMAR, "pedidos", idsPedidos, -1);
+        comando(APAGAR_ZERADAS)
+                .setParameter("pedidos", idsPedidos)
+                .executeUpdate();
+    }
+
+    // soma ao resumo os pedidos que têm itens das pranchas, depois de o tipo ou a marca delas mudar
+    public void somarDasPranchas(Collection<Long> idsPranchas) {
+        aplicar(SOMAR_DAS_PRANCHAS, "pranchas", idsPranchas, 1);
+    }
+
+    // tira do resumo os pedidos que têm itens das pranchas, antes de o tipo ou a marca delas mudar
+    public void subtrairDasPranchas(Collection<Long> idsPranchas) {
+        aplicar(SOMAR_DAS_PRANCHAS, "pranchas", idsPranchas, -1);
+        comando(APAGAR_ZERADAS_DAS_PRANCHAS)
+                .setParameter("pranchas", idsPranchas)
+                .executeUpdate();
+    }
+
+    // as alterações pendentes vão para o banco antes, a consulta lê os pedidos de lá
+    private void aplicar(String sql, String parametro, Collection<Long> ids, int sinal) {
+        entityManager.flush();
+        comando(sql)
+                .setParameter("sinal", sinal)
+                .setParameter(parametro, ids)
+                .executeUpdate();
+    }
+
+    // refaz o resumo inteiro a partir dos pedidos e corrige a tabela, devolvendo quantas linhas estavam erradas
+    // trava a tabela toda (os pedidos ficam esperando), por isso só roda quando um administrador pede
+    public long refazer() {
+        comando(TRAVAR).executeUpdate();
+        return ((Number) comando(REFAZER).getSingleResult()).longValue();
+    }
+
+    // dias a partir de desde que têm pedidos ou linhas no resumo, em ordem
+    public List<LocalDate> dias(LocalDate desde) {
+        return comando(DIAS)
+                .addScalar("dia", LocalDate.class)
+                .setParameter("inicio", desde.atStartOfDay())
+                .setParameter("desde", desde)
+                .getResultList().stream()
+                .map(LocalDate.class::cast)
+                .toList();
+    }
+
+    // refaz o resumo de um dia e corrige as linhas dele, devolvendo quantas estavam erradas
+    // uma transação que acabou de criar a primeira linha de uma chave desse dia não é esperada pela trava;
+    // se essa mesma chave estava faltando e é corrigida agora, a diferença fica para a próxima conferência
+    public long conciliarDia(LocalDate dia) {
+        comando(TRAVAR_DIA)
+                .setParameter("dia", dia)
+                .getResultList();
+        return ((Number) comando(CONCILIAR_DIA)
+                .setParameter("inicio", dia.atStartOfDay())
+                .setParameter("fim", dia.plusDays(1).atStartOfDay())
+                .setParameter("dia", dia)
+                .getSingleResult()).longValue();
+    }
+
+    // comando nativo que só mexe no resumo: sem isso o hibernate limparia o cache de segundo nível inteiro a cada update
+    private NativeQuery<?> comando(String sql) {
+        return entityManager.createNativeQuery(sql).unwrap(NativeQuery.class).addSynchronizedQuerySpace(TABELA);
+    }
+}
@@ -0,0 +1,105 @@
+package br.unitins.topicos1.prancha.service;
+import java.time.LocalDate;
+import java.util.Collection;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import br.unitins.topicos1.prancha.repository.ResumoVendaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+// mantém o resumo diário das vendas (tabela resumo_venda_diaria) que os relatórios leem
+// quem altera um pedido tira o resumo dele antes (retirar) e soma de novo depois (registrar), na mesma transação,
+// assim cada alteração custa só as linhas do próprio pedido; de tempos em tempos o resumo dos últimos dias é refeito
+// e comparado com a tabela, corrigindo o que tiver saído do lugar (alterações feitas direto no banco)
+@ApplicationScoped
+public class ResumoVendas {
+
+    private static final Logger LOG = Logger.getLogger(ResumoVendas.class);
+
+    @Inject
+    ResumoVendaRepository repository;
+
+    @Inject
+    MeterRegistry registry;
+
+    // quantos dias (contando hoje) a conferência periódica refaz
+    @ConfigProperty(name = "relatorios.resumo.dias", defaultValue = "7")
+    int diasConferidos;
+
+    private Counter divergencias;
+
+    @PostConstruct
+    void iniciar() {
+        divergencias = Counter.builder("relatorios.resumo.divergencias")
+                .description("Linhas do resumo de vendas corrigidas pela conferência")
+                .register(registry);
+    }
+
+    // soma ao resumo os pedidos depois de gravados ou alterados
+    public void registrar(Collection<Long> idsPedidos) {
+        if (!idsPedidos.isEmpty())
+            repository.somar(idsPedidos);
+    }
+
+    // tira do resumo os pedidos antes de alterar ou apagar
+    public void retirar(Collection<Long> idsPedidos) {
+        if (!idsPedidos.isEmpty())
+            repository.subtrair(idsPedidos);
+    }
+
+    // o tipo da prancha e a marca do modelo agrupam o resumo (pedidosTipo e pedidosMarca): antes de mudá-los
+    // os pedidos das pranchas saem do resumo (retirarPranchas) e depois entram de novo (registrarPranchas)
+    public void retirarPranchas(Collection<Long> idsPranchas) {
+        if (!idsPranchas.isEmpty())
+            repository.subtrairDasPranchas(idsPranchas);
+    }
+
+    public void registrarPranchas(Collection<Long> idsPranchas) {
+        if (!idsPranchas.isEmpty())
+            repository.somarDasPranchas(idsPranchas);
+    }
+
+    // conferência periódica (relatorios.resumo.conciliacao, off desliga)
+    @Scheduled(every = "${relatorios.resumo.conciliacao:1h}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void conferir() {
+        conciliar();
+    }
+
+    // refaz o resumo dos últimos dias e devolve quantas linhas da tabela estavam diferentes
+    public long conciliar() {
+        return conciliar(LocalDate.now().minusDays(diasConferidos - 1));
+    }
+
+    // refaz o resumo a partir de desde, um dia por transação: cada uma trava só as linhas do resumo daquele dia,
+    // então os pedidos dos outros dias seguem sem esperar
+    public long conciliar(LocalDate desde) {
+        long corrigidas = 0;
+        for (LocalDate dia : QuarkusTransaction.requiringNew().call(() -> repository.dias(desde)))
+            corrigidas += QuarkusTransaction.requiringNew().call(() -> repository.conciliarDia(dia));
+        return conferido("a partir de " + desde, corrigidas);
+    }
+
+    // refaz o resumo inteiro numa transação só, travando a tabela: operação de administrador
+    // (POST /relatorios/resumo/refazer), para depois de uma carga ou correção grande feita direto no banco
+    @Transactional
+    public long refazer() {
+        return conferido("inteiro", repository.refazer());
+    }
+
+    // conta as linhas corrigidas na métrica e no log
+    private long conferido(String periodo, long corrigidas) {
+        if (corrigidas > 0) {
+            divergencias.increment(corrigidas);
+            LOG.warnf("Resumo de vendas conferido (%s): %s linha(s) corrigida(s).", periodo, corrigidas);
+        } else {
+            LOG.debugf("Resumo de vendas conferido (%s): nenhuma divergência.", periodo);
+        }
+        return corrigidas;
+    }
+}
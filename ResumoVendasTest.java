@@ -0,0 +1,193 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.dto.BoletoDTO;
+import br.unitins.topicos1.prancha.dto.EnderecoDTO;
+import br.unitins.topicos1.prancha.dto.ItemPedidoDTO;
+import br.unitins.topicos1.prancha.dto.ModeloDTO;
+import br.unitins.topicos1.prancha.dto.PedidoDTO;
+import br.unitins.topicos1.prancha.dto.PixDTO;
+import br.unitins.topicos1.prancha.dto.PranchaDTO;
+import br.unitins.topicos1.prancha.dto.RelatorioLinhaDTO;
+import br.unitins.topicos1.prancha.model.Habilidade;
+import br.unitins.topicos1.prancha.model.TipoPrancha;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class ResumoVendasTest {
+
+    // esse teste usa o banco de teste (R__dados_iniciais.sql): prancha 1 vale 1200 e prancha 2 vale 1800
+    // cada alteração de pedido é conferida contra o resumo dos últimos dias refeito (conciliar devolve 0 quando bate)
+
+    private static final EnderecoDTO ENDERECO = new EnderecoDTO("Palmas", "TO", "77000000");
+
+    @Inject
+    ResumoVendas resumo;
+
+    @Inject
+    PedidoService pedidoService;
+
+    @Inject
+    ItemPedidoService itemPedidoService;
+
+    @Inject
+    RelatorioService relatorioService;
+
+    @Inject
+    PranchaService pranchaService;
+
+    @Inject
+    ModeloService modeloService;
+
+    @Inject
+    DataSource dataSource;
+
+    // criar, pagar, adicionar item, trocar a forma de pagamento e apagar: o resumo acompanha cada passo
+    @Test
+    public void testAcompanhaOsPedidos() {
+        resumo.conciliar();
+        LocalDate hoje = LocalDate.now();
+        RelatorioLinhaDTO antes = vendasPagas(hoje);
+
+        Long id = pedidoService.create(new PedidoDTO(1L, ENDERECO, "PIX", new PixDTO("joao@pix.com"), null, null,
+                List.of(new ItemPedidoDTO(1L, 2, null), new ItemPedidoDTO(2L, 1, null)))).id();
+        try {
+            // pendente não entra na receita
+            assertEquals(0, resumo.conciliar());
+            assertEquals(antes, vendasPagas(hoje));
+
+            pedidoService.pagar(id);
+            assertEquals(0, resumo.conciliar());
+            assertEquals(new RelatorioLinhaDTO(hoje.toString(), antes.pedidos() + 1, antes.itens() + 3,
+                    antes.receita() + 4200), vendasPagas(hoje));
+
+            itemPedidoService.create(id, new ItemPedidoDTO(1L, 1, 1000.0));
+            assertEquals(0, resumo.conciliar());
+            assertEquals(new RelatorioLinhaDTO(hoje.toString(), antes.pedidos() + 1, antes.itens() + 4,
+                    antes.receita() + 5200), vendasPagas(hoje));
+
+            // um pagamento novo começa pendente
+            pedidoService.update(id, new PedidoDTO(1L, ENDERECO, "BOLETO", null,
+                    new BoletoDTO("123", hoje.plusDays(5)), null, List.of()));
+            assertEquals(0, resumo.conciliar());
+            assertEquals(antes, vendasPagas(hoje));
+        } finally {
+            pedidoService.delete(id);
+        }
+
+        assertEquals(0, resumo.conciliar());
+        assertEquals(antes, vendasPagas(hoje));
+    }
+
+    // linhas alteradas ou criadas direto na tabela são corrigidas pela conferência: a periódica só olha os últimos dias,
+    // os dias antigos são corrigidos pedindo a conferência a partir deles ou refazendo o resumo inteiro
+    @Test
+    public void testConciliarCorrigeDivergencias() throws SQLException {
+        resumo.conciliar();
+
+        try (Connection conexao = dataSource.getConnection(); Statement st = conexao.createStatement()) {
+            st.executeUpdate("UPDATE resumo_venda_diaria SET receita = receita + 1 WHERE dia = CURRENT_DATE "
+                    + "AND id_prancha = 1 AND formaPagamento = 'PIX' AND statusPagamento = 'PAGO'");
+            st.executeUpdate(LINHA_ANTIGA);
+        }
+
+        assertEquals(1, resumo.conciliar());
+        assertEquals(1200.0, vendasPagas(LocalDate.of(2000, 1, 1)).receita());
+        assertEquals(1, resumo.conciliar(LocalDate.of(2000, 1, 1)));
+        assertEquals(0.0, vendasPagas(LocalDate.of(2000, 1, 1)).receita());
+
+        try (Connection conexao = dataSource.getConnection(); Statement st = conexao.createStatement()) {
+            st.executeUpdate(LINHA_ANTIGA);
+        }
+        assertEquals(1, resumo.refazer());
+        assertEquals(0, resumo.refazer());
+        assertEquals(0.0, vendasPagas(LocalDate.of(2000, 1, 1)).receita());
+    }
+
+    // a conferência trava só as linhas de cada dia: uma transação aberta mexendo em outro dia não a segura
+    @Test
+    public void testConciliarNaoTravaOutrosDias() throws SQLException {
+        try (Connection conexao = dataSource.getConnection(); Statement st = conexao.createStatement()) {
+            conexao.setAutoCommit(false);
+            st.executeUpdate(LINHA_ANTIGA);
+            try {
+                assertEquals(0, assertTimeoutPreemptively(Duration.ofSeconds(30), () -> resumo.conciliar()));
+            } finally {
+                conexao.rollback();
+            }
+        }
+    }
+
+    // linha de um dia sem pedidos, gravada direto na tabela
+    private static final String LINHA_ANTIGA = "INSERT INTO resumo_venda_diaria (dia, id_prancha, formaPagamento, "
+            + "statusPagamento, pedidos, pedidosDia, pedidosTipo, pedidosMarca, itens, receita) "
+            + "VALUES ('2000-01-01', 1, 'PIX', 'PAGO', 1, 1, 1, 1, 1, 1200)";
+
+    // o tipo da prancha e a marca do modelo agrupam o resumo: mudá-los numa prancha já vendida refaz os pedidos dela,
+    // e os relatórios por tipo e por marca continuam iguais aos do resumo refeito do zero
+    @Test
+    public void testMudarTipoEMarcaDePranchaVendida() {
+        LocalDate hoje = LocalDate.now();
+        Long idPrancha = pranchaService.create(new PranchaDTO(6.0f, 1500.0, 5, TipoPrancha.FISH,
+                Habilidade.INICIANTE, 1L, 3L, 1L)).getId();
+        Long id = null;
+        try {
+            id = pedidoService.create(new PedidoDTO(1L, ENDERECO, "PIX", new PixDTO("joao@pix.com"), null, null,
+                    List.of(new ItemPedidoDTO(idPrancha, 1, null), new ItemPedidoDTO(1L, 1, null)))).id();
+            pedidoService.pagar(id);
+            resumo.refazer();
+
+            pranchaService.update(idPrancha, new PranchaDTO(6.0f, 1500.0, 4, TipoPrancha.SHORTBOARD,
+                    Habilidade.INICIANTE, 1L, 3L, 1L));
+            assertRelatoriosIguaisAoRefeito(hoje);
+
+            pranchaService.update(idPrancha, new PranchaDTO(6.0f, 1500.0, 4, TipoPrancha.SHORTBOARD,
+                    Habilidade.INICIANTE, 2L, 3L, 1L));
+            assertRelatoriosIguaisAoRefeito(hoje);
+
+            // o modelo da prancha muda de marca (e volta)
+            String nomeModelo = modeloService.findById(2L).getNome();
+            modeloService.update(2L, new ModeloDTO(nomeModelo, 1L));
+            assertRelatoriosIguaisAoRefeito(hoje);
+            modeloService.update(2L, new ModeloDTO(nomeModelo, 2L));
+            assertRelatoriosIguaisAoRefeito(hoje);
+        } finally {
+            if (id != null)
+                pedidoService.delete(id);
+            pranchaService.delete(idPrancha);
+        }
+    }
+
+    // método auxiliar: os relatórios por tipo e por marca do dia não mudam quando o resumo é refeito do zero
+    private void assertRelatoriosIguaisAoRefeito(LocalDate dia) {
+        List<RelatorioLinhaDTO> porTipo = new ArrayList<>();
+        List<RelatorioLinhaDTO> porMarca = new ArrayList<>();
+        relatorioService.receitaPorTipoPrancha(dia, dia, porTipo::add);
+        relatorioService.receitaPorMarca(dia, dia, porMarca::add);
+
+        assertEquals(0, resumo.refazer());
+
+        List<RelatorioLinhaDTO> porTipoRefeito = new ArrayList<>();
+        List<RelatorioLinhaDTO> porMarcaRefeito = new ArrayList<>();
+        relatorioService.receitaPorTipoPrancha(dia, dia, porTipoRefeito::add);
+        relatorioService.receitaPorMarca(dia, dia, porMarcaRefeito::add);
+        assertEquals(porTipoRefeito, porTipo);
+        assertEquals(porMarcaRefeito, porMarca);
+    }
+
+    // receita paga de um dia pelo relatório (que lê o resumo)
+    private RelatorioLinhaDTO vendasPagas(LocalDate dia) {
+        List<RelatorioLinhaDTO> linhas = new ArrayList<>();
+        relatorioService.receitaPorDia(dia, dia, linhas::add);
+        return linhas.isEmpty() ? new RelatorioLinhaDTO(dia.toString(), 0, 0, 0) : linhas.get(0);
+    }
+}
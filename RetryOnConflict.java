@@ -0,0 +1,14 @@
+package br.unitins.topicos1.prancha.service;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import jakarta.interceptor.InterceptorBinding;
+
+// marca os métodos de escrita que devem ser repetidos quando outra transação alterou o mesmo registro (versão diferente)
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RetryOnConflict {
+
+}
@@ -0,0 +1,67 @@
+package br.unitins.topicos1.prancha.service;
+import java.util.concurrent.ThreadLocalRandom;
+import org.hibernate.StaleStateException;
+import org.jboss.logging.Logger;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionManager;
+
+// roda antes do @Transactional (prioridade menor), assim cada nova tentativa abre uma transação nova
+@RetryOnConflict
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class RetryOnConflictInterceptor {
+
+    private static final Logger LOG = Logger.getLogger(RetryOnConflictInterceptor.class);
+
+    private static final int MAX_TENTATIVAS = 5; // número máximo de execuções do método
+    private static final long ESPERA_INICIAL_MS = 10; // espera antes da segunda tentativa, dobra a cada nova tentativa
+
+    @Inject
+    TransactionManager transactionManager;
+
+    @AroundInvoke
+    Object executar(InvocationContext context) throws Exception {
+
+        // se já existe uma transação aberta, repetir aqui não adianta: quem abriu a transação é que precisa recomeçar
+        if (transactionManager.getStatus() != Status.STATUS_NO_TRANSACTION)
+            return context.proceed();
+
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return context.proceed();
+            } catch (Exception e) {
+                OptimisticLockException conflito = conflito(e);
+                if (conflito == null)
+                    throw e;
+
+                if (tentativa == MAX_TENTATIVAS) {
+                    LOG.errorf("Conflito de versão em %s após %d tentativas.", context.getMethod().getName(), tentativa);
+                    throw conflito;
+                }
+
+                // espera um pouco (com variação aleatória) para as transações concorrentes não colidirem de novo
+                long espera = ESPERA_INICIAL_MS << (tentativa - 1);
+                LOG.warnf("Conflito de versão em %s, tentativa %d. Repetindo em até %d ms.",
+                        context.getMethod().getName(), tentativa, 2 * espera);
+                Thread.sleep(espera + ThreadLocalRandom.current().nextLong(espera));
+            }
+        }
+    }
+
+    // procura o conflito de versão na cadeia de causas (no commit ele chega embrulhado pela transação)
+    private OptimisticLockException conflito(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof OptimisticLockException ole)
+                return ole;
+            if (causa instanceof StaleStateException sse)
+                return new OptimisticLockException(sse.getMessage(), sse);
+        }
+        return null;
+    }
+}
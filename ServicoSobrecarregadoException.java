@@ -0,0 +1,16 @@
+package br.unitins.topicos1.prancha.exception;
+
+// o servidor está no limite (fila cheia) e o cliente deve tentar de novo depois de alguns segundos
+public class ServicoSobrecarregadoException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private final int retryAfterSegundos;
+
+    public ServicoSobrecarregadoException(String msg, int retryAfterSegundos) {
+        super(msg);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public int getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
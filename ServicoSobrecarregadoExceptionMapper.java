@@ -0,0 +1,38 @@
+package br.unitins.topicos1.prancha.exception;
+import java.time.OffsetDateTime;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+@Provider
+@ApplicationScoped
+public class ServicoSobrecarregadoExceptionMapper implements ExceptionMapper<ServicoSobrecarregadoException> {
+
+    @Context
+    UriInfo uriInfo;
+
+    @ConfigProperty(name = "problem.base-url")
+    String baseUrl;
+
+    @Override
+    public Response toResponse(ServicoSobrecarregadoException e) {
+        Problem p = new Problem();
+        p.type = baseUrl + "/errors/service-unavailable";
+        p.title = "Serviço sobrecarregado";
+        p.status = Response.Status.SERVICE_UNAVAILABLE.getStatusCode();
+        p.detail = e.getMessage();
+        p.instance = (uriInfo != null ? uriInfo.getRequestUri().getPath() : null);
+        p.timestamp = OffsetDateTime.now();
+
+        return Response.status(p.status)
+                .header(HttpHeaders.RETRY_AFTER, e.getRetryAfterSegundos())
+                .type("application/problem+json")
+                .entity(p)
+                .build();
+    }
+}
@@ -1,7 +1,10 @@
 package br.unitins.topicos1.prancha.model;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = @Index(name = "idx_telefone_numero", columnList = "numero"))
 public class Telefone extends DefaultEntity{
 
     private String ddd;
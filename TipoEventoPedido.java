@@ -0,0 +1,10 @@
+package br.unitins.topicos1.prancha.model;
+
+// o que aconteceu com o pedido em cada evento do outbox (tabela evento_pedido)
+public enum TipoEventoPedido {
+
+    CRIADO,
+    PAGO,
+    FINALIZADO;
+
+}
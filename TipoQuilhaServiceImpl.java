@@ -17,6 +17,9 @@ public class TipoQuilhaServiceImpl implements TipoQuilhaService {
     @Inject
     TipoQuilhaRepository tipoQuilhaRepository;
 
+    @Inject
+    CatalogoIndice indice;
+
     // busca todos os registros no banco
     @Override
     public List<TipoQuilha> findAll() {
@@ -134,6 +137,8 @@ public class TipoQuilhaServiceImpl implements TipoQuilhaService {
         // alterando o campo
         tipoQuilha.setNome(dto.nome());
 
+        // o tipo das quilhas é um dos filtros do índice da busca
+        indice.recarregar();
         LOG.info("Tipo de quilha atualizado com sucesso.");
     }
 
@@ -157,6 +162,7 @@ public class TipoQuilhaServiceImpl implements TipoQuilhaService {
         }
 
         tipoQuilhaRepository.delete(tipoQuilha);
+        indice.recarregar();
 
         LOG.info("Tipo de quilha deletado com sucesso.");
     }
@@ -25,6 +25,10 @@ public class Usuario extends DefaultEntity {
         return senha;
     }
 
+    public void setSenha(String senha) {
+        this.senha = senha;
+    }
+
     public Perfil getPerfil() {
         return perfil;
     }
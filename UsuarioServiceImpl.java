@@ -1,16 +1,42 @@
 package br.unitins.topicos1.prancha.service;
 import java.util.List;
+import java.util.UUID;
+import org.jboss.logging.Logger;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import br.unitins.topicos1.prancha.dto.CredencialDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
 import br.unitins.topicos1.prancha.model.Usuario;
 import br.unitins.topicos1.prancha.repository.UsuarioRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 
 @ApplicationScoped
 public class UsuarioServiceImpl implements UsuarioService {
 
+    private static final Logger LOG = Logger.getLogger(UsuarioServiceImpl.class);
+
     @Inject
     UsuarioRepository repository;
 
+    @Inject
+    HashService hashService;
+
+    @Inject
+    CredencialCache credencialCache;
+
+    @Inject
+    RefreshTokenStore refreshTokenStore;
+
+    // hash de uma senha qualquer, verificado quando o login não existe para a resposta levar o mesmo tempo
+    private String hashFalso;
+
+    @PostConstruct
+    void iniciar() {
+        hashFalso = hashService.getHashSenha(UUID.randomUUID().toString());
+    }
+
     // busca todos os registros no banco
     @Override
     public List<Usuario> findAll() {
@@ -23,12 +49,6 @@ public class UsuarioServiceImpl implements UsuarioService {
         return repository.findByLogin(login);
     }
 
-    // busca todos os registros pelo login e senha no banco
-    @Override
-    public Usuario findByLoginAndSenha(String login, String senha) {
-        return repository.findByLoginSenha(login, senha);
-    }
-
     // busca todos os registros pelo id no banco
     @Override
     public Usuario findById(Long id) {
@@ -39,4 +59,83 @@ public class UsuarioServiceImpl implements UsuarioService {
         return usuario;
     }
 
+    // verifica login e senha, usando o cache de credenciais para não repetir o hash e a consulta a cada login
+    @Override
+    public CredencialDTO autenticar(String login, String senha) {
+        if (login == null || senha == null)
+            return null;
+
+        CredencialDTO credencial = credencialCache.buscar(login, senha);
+        if (credencial != null) {
+            LOG.debugf("Credenciais encontradas no cache para o usuário: %s", login);
+            return credencial;
+        }
+
+        // busca pelo login e confere a senha aqui, com o salt e os parâmetros gravados no hash do usuário
+        // (a versão do cache é lida antes: se a senha mudar no meio, o que foi lido aqui não vai para o cache)
+        long versao = credencialCache.versao();
+        Usuario usuario = QuarkusTransaction.joiningExisting().call(() -> repository.findByLogin(login));
+        if (usuario == null) {
+            hashService.verificar(senha, hashFalso);
+            return null;
+        }
+        if (!hashService.verificar(senha, usuario.getSenha()))
+            return null;
+
+        // hash antigo ou feito com parâmetros diferentes dos atuais: aproveita a senha em mãos e refaz
+        if (hashService.precisaRehash(usuario.getSenha()))
+            refazerHash(usuario, senha);
+
+        // só as verificações que deram certo vão para o cache, senhas erradas sempre passam pelo hash
+        credencial = CredencialDTO.valueOf(usuario);
+        credencialCache.guardar(login, senha, credencial, versao);
+
+        return credencial;
+    }
+
+    // grava o hash novo numa transação própria, uma falha aqui não impede o login
+    // (só troca se o hash no banco ainda é o que foi verificado, para não desfazer uma troca de senha concorrente)
+    private void refazerHash(Usuario usuario, String senha) {
+        String hashAntigo = usuario.getSenha();
+        String novoHash = hashService.getHashSenha(senha);
+        try {
+            QuarkusTransaction.requiringNew().run(() ->
+                    repository.update("senha = ?1 WHERE id = ?2 AND senha = ?3", novoHash, usuario.getId(), hashAntigo));
+            usuario.setSenha(novoHash);
+            LOG.infof("Hash da senha atualizado para o usuário: %s", usuario.getLogin());
+        } catch (RuntimeException e) {
+            LOG.warnf("Não foi possível atualizar o hash da senha do usuário %s: %s", usuario.getLogin(), e.getMessage());
+        }
+    }
+
+    // troca a senha do usuário depois de conferir a senha atual
+    @Override
+    @Transactional
+    public void alterarSenha(String login, String senhaAtual, String novaSenha) {
+        LOG.infof("Alterando senha do usuário: %s", login);
+
+        if (senhaAtual == null) {
+            LOG.error("Senha atual não informada.");
+            throw ValidationException.of("senhaAtual", "A senha atual é obrigatória");
+        }
+        if (novaSenha == null || novaSenha.isBlank()) {
+            LOG.error("Nova senha não informada.");
+            throw ValidationException.of("novaSenha", "A nova senha é obrigatória");
+        }
+
+        Usuario usuario = repository.findByLogin(login);
+        if (usuario == null || !hashService.verificar(senhaAtual, usuario.getSenha())) {
+            LOG.warnf("Senha atual incorreta para o usuário: %s", login);
+            throw ValidationException.of("senhaAtual", "Senha atual incorreta");
+        }
+
+        usuario.setSenha(hashService.getHashSenha(novaSenha));
+
+        // a senha antiga não pode continuar valendo pelo cache (agora e de novo depois do commit)
+        credencialCache.invalidar(login);
+        // quem estava logado com a senha antiga precisa entrar de novo (agora e de novo depois do commit)
+        refreshTokenStore.revogarTodos(login);
+        LOG.infof("Senha alterada com sucesso para o usuário: %s", login);
+    }
+
 }
\ No newline at end of file
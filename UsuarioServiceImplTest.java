@@ -0,0 +1,112 @@
+package br.unitins.topicos1.prancha.service;
+import static org.junit.jupiter.api.Assertions.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import br.unitins.topicos1.prancha.dto.CredencialDTO;
+import br.unitins.topicos1.prancha.exception.ValidationException;
+import br.unitins.topicos1.prancha.model.Perfil;
+import br.unitins.topicos1.prancha.repository.UsuarioRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+public class UsuarioServiceImplTest {
+
+    // esse teste usa os usuários do banco de teste (R__dados_iniciais.sql), todos com a senha 123456
+
+    @Inject
+    UsuarioService usuarioService;
+
+    @Inject
+    CredencialCache credencialCache;
+
+    @Inject
+    UsuarioRepository usuarioRepository;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    // o segundo login com a mesma senha sai do cache, sem consulta no banco
+    @Test
+    public void testAutenticarUsaCache() {
+        credencialCache.invalidar("user");
+        assertEquals(Perfil.USER, usuarioService.autenticar("user", "123456").perfil());
+
+        long acertosAntes = credencialCache.acertos();
+        Statistics stats = sessionFactory.getStatistics();
+        stats.clear();
+
+        CredencialDTO credencial = usuarioService.autenticar("user", "123456");
+
+        assertEquals("user", credencial.login());
+        assertEquals(acertosAntes + 1, credencialCache.acertos());
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+
+    // senha errada não entra no cache e continua sendo recusada
+    @Test
+    public void testAutenticarSenhaErrada() {
+        assertNull(usuarioService.autenticar("user", "errada"));
+        assertNull(usuarioService.autenticar("user", "errada"));
+        assertNull(credencialCache.buscar("user", "errada"));
+    }
+
+    // depois de trocar a senha, a antiga deixa de valer mesmo estando no cache
+    @Test
+    public void testAlterarSenhaInvalidaCache() {
+        assertNotNull(usuarioService.autenticar("admin", "123456"));
+
+        usuarioService.alterarSenha("admin", "123456", "nova-senha");
+        try {
+            assertNull(usuarioService.autenticar("admin", "123456"));
+            assertNotNull(usuarioService.autenticar("admin", "nova-senha"));
+        } finally {
+            usuarioService.alterarSenha("admin", "nova-senha", "123456"); // volta a senha do banco de teste
+        }
+    }
+
+    // um login que leu o hash antes de uma troca de senha não guarda o que leu no cache
+    @Test
+    public void testGuardarDepoisDeInvalidar() {
+        long versao = credencialCache.versao();
+        credencialCache.invalidar("concorrente");
+        credencialCache.guardar("concorrente", "antiga", new CredencialDTO("concorrente", Perfil.USER), versao);
+
+        assertNull(credencialCache.buscar("concorrente", "antiga"));
+    }
+
+    // o que entrou no cache durante a transação da troca de senha sai depois do commit
+    @Test
+    public void testInvalidarDepoisDoCommit() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            credencialCache.invalidar("concorrente");
+            credencialCache.guardar("concorrente", "antiga", new CredencialDTO("concorrente", Perfil.USER),
+                    credencialCache.versao());
+            assertNotNull(credencialCache.buscar("concorrente", "antiga"));
+        });
+
+        assertNull(credencialCache.buscar("concorrente", "antiga"));
+    }
+
+    // um hash no formato antigo é refeito com salt próprio no login
+    @Test
+    public void testAutenticarRefazHashAntigo() {
+        String hashAntigo = "+RMra81+PVL2HQWuh7xAkSohHzzzq62hw4zuaEpFHXbE0+pX+fzwOpTqmmuDA19zusgadv4fnMnHqLd2S32aXQ==";
+        QuarkusTransaction.requiringNew().run(() -> usuarioRepository.update("senha = ?1 WHERE login = ?2", hashAntigo, "user"));
+        credencialCache.invalidar("user");
+
+        assertNotNull(usuarioService.autenticar("user", "123456"));
+
+        String gravado = QuarkusTransaction.requiringNew().call(() -> usuarioRepository.findByLogin("user").getSenha());
+        assertTrue(gravado.startsWith("$pbkdf2-sha512$i=1000,l=512$"));
+        assertNotNull(usuarioService.autenticar("user", "123456"));
+    }
+
+    // a senha atual precisa conferir para trocar a senha
+    @Test
+    public void testAlterarSenhaAtualIncorreta() {
+        assertThrows(ValidationException.class, () -> usuarioService.alterarSenha("user", "errada", "nova-senha"));
+    }
+}
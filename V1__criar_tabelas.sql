@@ -0,0 +1,184 @@
+-- esquema inicial: as mesmas tabelas que o hibernate criava com drop-and-create
+-- ids por sequence em blocos de 50 (ver DefaultEntity)
+CREATE SEQUENCE endereco_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE itempedido_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE marca_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE modelo_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE pagamento_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE pedido_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE pessoa_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE prancha_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE quilha_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE telefone_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE tipoquilha_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE usuario_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE telefone (
+    id bigint NOT NULL,
+    ddd varchar(255),
+    numero varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE pessoa (
+    id bigint NOT NULL,
+    nome varchar(255),
+    id_telefone bigint UNIQUE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_pessoa_telefone FOREIGN KEY (id_telefone) REFERENCES telefone
+);
+
+CREATE TABLE cliente (
+    cpf varchar(255),
+    id bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_cliente_pessoa FOREIGN KEY (id) REFERENCES pessoa
+);
+
+CREATE TABLE administrador (
+    cargo varchar(255),
+    statusAdm varchar(255),
+    id bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_administrador_pessoa FOREIGN KEY (id) REFERENCES pessoa
+);
+
+CREATE TABLE fornecedor (
+    cnpj varchar(255),
+    id bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_fornecedor_pessoa FOREIGN KEY (id) REFERENCES pessoa
+);
+
+CREATE TABLE endereco (
+    id bigint NOT NULL,
+    cep varchar(255),
+    cidade varchar(255),
+    estado varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE usuario (
+    id bigint NOT NULL,
+    login varchar(255) UNIQUE,
+    nome varchar(255),
+    perfil integer CHECK (perfil IN (1, 2)),
+    senha varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE marca (
+    id bigint NOT NULL,
+    nome varchar(255),
+    paisOrigem varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE modelo (
+    id bigint NOT NULL,
+    nome varchar(255),
+    id_marca bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_modelo_marca FOREIGN KEY (id_marca) REFERENCES marca
+);
+
+CREATE TABLE tipoquilha (
+    id bigint NOT NULL,
+    nome varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE quilha (
+    id bigint NOT NULL,
+    descricaoQuilha varchar(255),
+    id_tipo_quilha bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_quilha_tipoquilha FOREIGN KEY (id_tipo_quilha) REFERENCES tipoquilha
+);
+
+CREATE TABLE prancha (
+    id bigint NOT NULL,
+    estoque integer,
+    habilidade varchar(255) CHECK (habilidade IN ('INICIANTE', 'INTERMEDIARIO', 'AVANCADO')),
+    tamanho float4 NOT NULL,
+    tipoPrancha varchar(255) CHECK (tipoPrancha IN ('FISH', 'SHORTBOARD', 'HIBRIDAS', 'GUN', 'FUNBOARD', 'LONGBOARD')),
+    valor float(53) NOT NULL,
+    versao bigint DEFAULT 0 NOT NULL,
+    id_modelo bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_prancha_modelo FOREIGN KEY (id_modelo) REFERENCES modelo
+);
+
+CREATE TABLE prancha_fornecedor (
+    id_prancha bigint NOT NULL,
+    id_fornecedor bigint NOT NULL,
+    CONSTRAINT fk_prancha_fornecedor_prancha FOREIGN KEY (id_prancha) REFERENCES prancha,
+    CONSTRAINT fk_prancha_fornecedor_fornecedor FOREIGN KEY (id_fornecedor) REFERENCES fornecedor
+);
+
+CREATE TABLE prancha_quilha (
+    id_prancha bigint NOT NULL,
+    id_quilha bigint NOT NULL,
+    CONSTRAINT fk_prancha_quilha_prancha FOREIGN KEY (id_prancha) REFERENCES prancha,
+    CONSTRAINT fk_prancha_quilha_quilha FOREIGN KEY (id_quilha) REFERENCES quilha
+);
+
+CREATE TABLE pagamento (
+    id bigint NOT NULL,
+    dataPagamento timestamp(6),
+    statusPagamento varchar(255) CHECK (statusPagamento IN ('PENDENTE', 'PAGO')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE pix (
+    chave varchar(255),
+    id bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_pix_pagamento FOREIGN KEY (id) REFERENCES pagamento
+);
+
+CREATE TABLE boleto (
+    codigoBarras varchar(60),
+    dataVencimento date,
+    id bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_boleto_pagamento FOREIGN KEY (id) REFERENCES pagamento
+);
+
+CREATE TABLE cartao (
+    dataVencimento date,
+    nomeTitular varchar(255),
+    numeroCartao varchar(255),
+    id bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_cartao_pagamento FOREIGN KEY (id) REFERENCES pagamento
+);
+
+CREATE TABLE pedido (
+    id bigint NOT NULL,
+    dataPedido timestamp(6),
+    valorTotal float(53) NOT NULL,
+    versao bigint DEFAULT 0 NOT NULL,
+    id_cliente bigint,
+    id_endereco bigint UNIQUE,
+    id_pagamento bigint UNIQUE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_pedido_cliente FOREIGN KEY (id_cliente) REFERENCES cliente,
+    CONSTRAINT fk_pedido_endereco FOREIGN KEY (id_endereco) REFERENCES endereco,
+    CONSTRAINT fk_pedido_pagamento FOREIGN KEY (id_pagamento) REFERENCES pagamento
+);
+
+CREATE TABLE itempedido (
+    id bigint NOT NULL,
+    precoUnit float(53),
+    quantidade integer,
+    subTotal float(53),
+    id_pedido bigint,
+    id_prancha bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_itempedido_pedido FOREIGN KEY (id_pedido) REFERENCES pedido,
+    CONSTRAINT fk_itempedido_prancha FOREIGN KEY (id_prancha) REFERENCES prancha
+);
+
+-- pedidos do cliente por período (PedidoRepository.findIdsByCliente)
+CREATE INDEX idx_pedido_cliente_data ON pedido (id_cliente, dataPedido);
@@ -0,0 +1,11 @@
+-- índices das buscas mais usadas
+-- o login do usuário já tem índice pela constraint unique, e id_cliente do pedido é a primeira coluna de idx_pedido_cliente_data
+
+-- ClienteRepository.findByCpf
+CREATE INDEX idx_cliente_cpf ON cliente (cpf);
+
+-- FornecedorRepository.findByCnpj
+CREATE INDEX idx_fornecedor_cnpj ON fornecedor (cnpj);
+
+-- PranchaRepository.findByTipoPrancha e findResponseByTipoPrancha (filtra pelo tipo e ordena pelo id)
+CREATE INDEX idx_prancha_tipo ON prancha (tipoPrancha, id);
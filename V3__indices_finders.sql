@@ -0,0 +1,42 @@
+-- um índice para cada busca dos repositórios (os mesmos declarados com @Index nas entidades)
+-- cliente.cpf, fornecedor.cnpj e prancha.tipoPrancha já vieram na V2
+
+-- AdministradorRepository.findByNome (o nome fica em pessoa)
+CREATE INDEX idx_pessoa_nome ON pessoa (nome);
+
+-- BoletoRepository.findByCodigoBarras
+CREATE INDEX idx_boleto_codigo_barras ON boleto (codigoBarras);
+
+-- CartaoRepository.findByNumeroCartao
+CREATE INDEX idx_cartao_numero ON cartao (numeroCartao);
+
+-- EnderecoRepository.findByCep
+CREATE INDEX idx_endereco_cep ON endereco (cep);
+
+-- ItemPedidoRepository.findByPedido
+CREATE INDEX idx_itempedido_pedido ON itempedido (id_pedido);
+
+-- MarcaRepository.findByNome
+CREATE INDEX idx_marca_nome ON marca (nome);
+
+-- ModeloRepository.findByNome
+CREATE INDEX idx_modelo_nome ON modelo (nome);
+
+-- PixRepository.findByChave
+CREATE INDEX idx_pix_chave ON pix (chave);
+
+-- QuilhaRepository.findByTipoQuilha
+CREATE INDEX idx_quilha_tipo ON quilha (id_tipo_quilha);
+
+-- TelefoneRepository.findByNumero
+CREATE INDEX idx_telefone_numero ON telefone (numero);
+
+-- TipoQuilhaRepository.findByNome
+CREATE INDEX idx_tipoquilha_nome ON tipoquilha (nome);
+
+-- tabelas das associações ManyToMany: as pranchas buscam seus fornecedores e quilhas pelo id_prancha
+-- e o índice pelo outro lado evita varrer a tabela toda ao excluir um fornecedor ou uma quilha
+CREATE INDEX idx_prancha_fornecedor_prancha ON prancha_fornecedor (id_prancha, id_fornecedor);
+CREATE INDEX idx_prancha_fornecedor_fornecedor ON prancha_fornecedor (id_fornecedor);
+CREATE INDEX idx_prancha_quilha_prancha ON prancha_quilha (id_prancha, id_quilha);
+CREATE INDEX idx_prancha_quilha_quilha ON prancha_quilha (id_quilha);
@@ -0,0 +1,9 @@
+-- busca por texto do catálogo (/catalogo/busca): índices de trigramas sobre os nomes em minúsculas
+-- servem tanto para o LIKE '%termo%' quanto para a semelhança (operador <% do pg_trgm), que acha nomes com erro de digitação
+-- são índices de expressão com gin, por isso não aparecem no @Index das entidades
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_marca_nome_trgm ON marca USING gin (lower(nome) gin_trgm_ops);
+CREATE INDEX idx_modelo_nome_trgm ON modelo USING gin (lower(nome) gin_trgm_ops);
+CREATE INDEX idx_quilha_descricao_trgm ON quilha USING gin (lower(descricaoQuilha) gin_trgm_ops);
+CREATE INDEX idx_tipoquilha_nome_trgm ON tipoquilha USING gin (lower(nome) gin_trgm_ops);
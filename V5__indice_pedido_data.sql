@@ -0,0 +1,3 @@
+-- relatórios de receita (/relatorios): os pedidos são filtrados pelo período, sem cliente
+-- o idx_pedido_cliente_data começa pelo cliente e não serve para essa busca
+CREATE INDEX idx_pedido_data ON pedido (dataPedido);
@@ -0,0 +1,49 @@
+-- resumo diário das vendas (/relatorios): uma linha por dia × prancha × forma de pagamento × status do pagamento
+-- é mantido pelos services a cada pedido gravado, alterado, pago ou apagado (ResumoVendas) e conferido
+-- de tempos em tempos contra os pedidos; os relatórios leem só essa tabela
+-- pedidos conta os pedidos que compraram a prancha; pedidosDia, pedidosTipo e pedidosMarca contam o pedido só na
+-- linha da menor prancha dele (no dia, no tipo de prancha e na marca), assim a soma dá pedidos distintos
+-- a receita é numeric para as somas e subtrações baterem exatamente com o resumo refeito do zero
+CREATE TABLE resumo_venda_diaria (
+    dia date NOT NULL,
+    id_prancha bigint NOT NULL,
+    formaPagamento varchar(10) NOT NULL,
+    statusPagamento varchar(255) NOT NULL,
+    pedidos bigint NOT NULL,
+    pedidosDia bigint NOT NULL,
+    pedidosTipo bigint NOT NULL,
+    pedidosMarca bigint NOT NULL,
+    itens bigint NOT NULL,
+    receita numeric NOT NULL,
+    PRIMARY KEY (dia, id_prancha, formaPagamento, statusPagamento)
+);
+
+-- resumo dos pedidos que já existem (mesma consulta do ResumoVendaRepository)
+INSERT INTO resumo_venda_diaria (dia, id_prancha, formaPagamento, statusPagamento,
+        pedidos, pedidosDia, pedidosTipo, pedidosMarca, itens, receita)
+SELECT dia, id_prancha, formaPagamento, statusPagamento, COUNT(*),
+        COUNT(*) FILTER (WHERE id_prancha = primeira),
+        COUNT(*) FILTER (WHERE id_prancha = primeiraDoTipo),
+        COUNT(*) FILTER (WHERE id_prancha = primeiraDaMarca),
+        SUM(itens), SUM(receita)
+FROM (
+    SELECT CAST(p.dataPedido AS date) AS dia, i.id_prancha,
+            CASE WHEN px.id IS NOT NULL THEN 'PIX' WHEN bo.id IS NOT NULL THEN 'BOLETO' ELSE 'CARTAO' END AS formaPagamento,
+            pg.statusPagamento,
+            COALESCE(SUM(i.quantidade), 0) AS itens, COALESCE(SUM(CAST(i.subTotal AS numeric)), 0) AS receita,
+            MIN(i.id_prancha) OVER (PARTITION BY p.id) AS primeira,
+            MIN(i.id_prancha) OVER (PARTITION BY p.id, pr.tipoPrancha) AS primeiraDoTipo,
+            MIN(i.id_prancha) OVER (PARTITION BY p.id, mo.id_marca) AS primeiraDaMarca
+    FROM pedido p
+    JOIN pagamento pg ON pg.id = p.id_pagamento
+    JOIN itempedido i ON i.id_pedido = p.id
+    JOIN prancha pr ON pr.id = i.id_prancha
+    LEFT JOIN modelo mo ON mo.id = pr.id_modelo
+    LEFT JOIN pix px ON px.id = pg.id
+    LEFT JOIN boleto bo ON bo.id = pg.id
+    LEFT JOIN cartao ca ON ca.id = pg.id
+    WHERE p.dataPedido IS NOT NULL AND pg.statusPagamento IS NOT NULL
+        AND (px.id IS NOT NULL OR bo.id IS NOT NULL OR ca.id IS NOT NULL)
+    GROUP BY p.id, CAST(p.dataPedido AS date), i.id_prancha, px.id, bo.id, pg.statusPagamento, pr.tipoPrancha, mo.id_marca
+) item
+GROUP BY dia, id_prancha, formaPagamento, statusPagamento;
@@ -0,0 +1,13 @@
+-- outbox dos eventos de pedido (criado, pago, finalizado): cada evento é gravado na mesma transação que altera o pedido
+-- e o relay (EventoPedidoRelay) envia os pendentes em lotes, na ordem do id, apagando os que já foram enviados
+-- sem chave estrangeira para o pedido: o evento continua valendo mesmo que o pedido seja apagado antes do envio
+CREATE TABLE evento_pedido (
+    id bigint GENERATED ALWAYS AS IDENTITY,
+    id_pedido bigint NOT NULL,
+    id_cliente bigint,
+    tipo varchar(20) NOT NULL CHECK (tipo IN ('CRIADO', 'PAGO', 'FINALIZADO')),
+    statusPagamento varchar(255),
+    valorTotal float(53) NOT NULL,
+    criadoEm timestamp(6) NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,15 @@
+-- refresh tokens emitidos no login (RefreshTokenStore): fica só o sha-256 do token, nunca o valor
+-- na tabela as sessões sobrevivem a um deploy e valem em qualquer instância da api
+-- o id dá a ordem de emissão, usada para descartar as sessões mais antigas de quem passa do limite por login
+CREATE TABLE refresh_token (
+    id bigint GENERATED ALWAYS AS IDENTITY,
+    hash varchar(44) NOT NULL,
+    login varchar(255) NOT NULL,
+    perfil varchar(20) NOT NULL,
+    expiraEm timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (hash)
+);
+
+CREATE INDEX idx_refresh_token_login ON refresh_token (login, id);
+CREATE INDEX idx_refresh_token_expira ON refresh_token (expiraEm);